@@ -82,6 +82,7 @@ public final class Attribute extends Field {
    @Override
    public boolean equals(Object o)
    {
+      if(o == this) return true;
       if(o instanceof Attribute) {
          Attribute attr = (Attribute) o;
          return Objects.equal(attr.getName(), name) && Objects.equal(attr.getValue(), value);
@@ -91,12 +92,10 @@ public final class Attribute extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(name);
-      if(!Strings.isEmpty(value)) buf.append(":").append(value);
-      return buf.toString();
+      out.put(getTypeChar()).put('=').put(name);
+      if(!Strings.isEmpty(value)) out.put(':').put(value);
    }
 
 }
@@ -111,11 +111,9 @@ public final class BandWidth extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(type).append(":").append(value);
-      return buf.toString();
+      out.put(getTypeChar()).put('=').put(type).put(':').put(value);
    }
 
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/16/2026
+ */
+package xpertss.sdp;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A reusable cursor over the lines of a UTF-8 encoded SDP held in a ByteBuffer.
+ * <p>
+ * Each call to {@link #next()} positions this view over the next line in the
+ * buffer, excluding its CRLF or LF terminator. As a CharSequence the view exposes
+ * the raw bytes of the current line as chars which is sufficient to inspect the
+ * ASCII structure of a field. Text is only decoded when {@link #subSequence(int, int)}
+ * or {@link #toString()} is called.
+ * <p>
+ * The buffer's position, limit and mark are never modified.
+ */
+final class ByteLine implements CharSequence {
+
+   private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+   private ByteBuffer buf;
+   private byte[] scratch;
+   private int limit;
+   private int pos;
+   private int start;
+   private int end;
+
+   ByteLine()
+   {
+      this(EMPTY);
+   }
+
+   ByteLine(ByteBuffer buf)
+   {
+      reset(buf);
+   }
+
+
+   /**
+    * Reset this view to walk the lines between the given buffer's position and
+    * its limit returning this view.
+    */
+   public ByteLine reset(ByteBuffer buf)
+   {
+      this.buf = buf;
+      this.limit = buf.limit();
+      this.pos = buf.position();
+      this.start = this.end = pos;
+      return this;
+   }
+
+   /**
+    * Release the buffer currently referenced by this view.
+    */
+   public void clear()
+   {
+      reset(EMPTY);
+   }
+
+
+   /**
+    * Advance this view to the next line returning {@code false} if there are
+    * no more lines in the buffer.
+    */
+   public boolean next()
+   {
+      if(pos >= limit) return false;
+      int eol = pos;
+      while(eol < limit && buf.get(eol) != '\n') eol++;
+      start = pos;
+      end = (eol > start && buf.get(eol - 1) == '\r') ? eol - 1 : eol;
+      pos = eol + 1;
+      return true;
+   }
+
+
+   /**
+    * Position this view over the given range of the buffer returning this view.
+    */
+   public ByteLine select(int start, int end)
+   {
+      this.start = start;
+      this.end = end;
+      return this;
+   }
+
+   /**
+    * The absolute index within the buffer at which the next line starts, or the
+    * buffer's limit once every line has been read.
+    */
+   public int position()
+   {
+      return Math.min(pos, limit);
+   }
+
+   /**
+    * The absolute index within the buffer at which the current line starts.
+    */
+   public int start()
+   {
+      return start;
+   }
+
+   /**
+    * The absolute index within the buffer at which the current line ends,
+    * excluding its terminator.
+    */
+   public int end()
+   {
+      return end;
+   }
+
+
+   @Override
+   public int length()
+   {
+      return end - start;
+   }
+
+   @Override
+   public char charAt(int index)
+   {
+      if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException();
+      return (char) (buf.get(start + index) & 0xff);
+   }
+
+   @Override
+   public CharSequence subSequence(int from, int to)
+   {
+      if(from < 0 || to > end - start || from > to) throw new IndexOutOfBoundsException();
+      return decode(start + from, start + to);
+   }
+
+   @Override
+   public String toString()
+   {
+      return decode(start, end);
+   }
+
+
+
+   private String decode(int from, int to)
+   {
+      int len = to - from;
+      if(buf.hasArray()) return new String(buf.array(), buf.arrayOffset() + from, len, UTF_8);
+      if(scratch == null || scratch.length < len) scratch = new byte[Math.max(len, 128)];
+      for(int i = 0; i < len; i++) scratch[i] = buf.get(from + i);
+      return new String(scratch, 0, len, UTF_8);
+   }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * An Appendable which encodes the characters appended to it as UTF-8 directly into a
+ * ByteBuffer or, for an OutputStream, into a small buffer which is drained in bulk.
+ * <p>
+ * When writing to a ByteBuffer the bytes are written to a duplicate and the target's
+ * position is only advanced by {@link #flush()}, so an overflow leaves the target
+ * unmodified. The buffer used for a stream is borrowed from the current thread and
+ * handed back by {@link #flush()}, a sink created while another is in use on the
+ * same thread allocating its own.
+ */
+final class ByteSink implements Appendable {
+
+   private static final ThreadLocal<byte[][]> SCRATCH = ThreadLocal.withInitial(() -> new byte[1][]);
+
+   private final byte[][] scratch;
+   private final byte[] bytes;
+   private final ByteBuffer buf;
+   private final ByteBuffer target;
+   private final OutputStream out;
+   private int pos;
+   private char high;
+
+   ByteSink(ByteBuffer target)
+   {
+      this.target = target;
+      this.buf = target.duplicate();
+      this.out = null;
+      this.scratch = null;
+      this.bytes = null;
+   }
+
+   ByteSink(OutputStream out)
+   {
+      this.target = null;
+      this.buf = null;
+      this.out = out;
+      this.scratch = SCRATCH.get();
+      this.bytes = (scratch[0] != null) ? scratch[0] : new byte[2048];
+      scratch[0] = null;
+   }
+
+
+   @Override
+   public ByteSink append(CharSequence csq) throws IOException
+   {
+      return append(csq, 0, csq.length());
+   }
+
+   @Override
+   public ByteSink append(CharSequence csq, int start, int end) throws IOException
+   {
+      for(int i = start; i < end; i++) {
+         char c = csq.charAt(i);
+         if(c < 0x80 && high == 0) {
+            put(c);
+         } else {
+            append(c);
+         }
+      }
+      return this;
+   }
+
+   @Override
+   public ByteSink append(char c) throws IOException
+   {
+      if(c < 0x80 && high == 0) {
+         put(c);
+      } else if(Character.isHighSurrogate(c)) {
+         if(high != 0) put('?');
+         high = c;
+      } else if(Character.isLowSurrogate(c) && high != 0) {
+         int cp = Character.toCodePoint(high, c);
+         high = 0;
+         put(0xf0 | (cp >> 18));
+         put(0x80 | ((cp >> 12) & 0x3f));
+         put(0x80 | ((cp >> 6) & 0x3f));
+         put(0x80 | (cp & 0x3f));
+      } else {
+         if(high != 0) {
+            high = 0;
+            put('?');
+         }
+         if(c < 0x80) {
+            put(c);
+         } else if(Character.isLowSurrogate(c)) {
+            put('?');
+         } else if(c < 0x800) {
+            put(0xc0 | (c >> 6));
+            put(0x80 | (c & 0x3f));
+         } else {
+            put(0xe0 | (c >> 12));
+            put(0x80 | ((c >> 6) & 0x3f));
+            put(0x80 | (c & 0x3f));
+         }
+      }
+      return this;
+   }
+
+   /**
+    * Write the given UTF-8 encoded bytes following those appended so far.
+    */
+   void write(byte[] data) throws IOException
+   {
+      drain();
+      if(out != null) {
+         out.write(data);
+      } else {
+         if(buf.remaining() < data.length) throw new BufferOverflowException();
+         buf.put(data);
+      }
+   }
+
+   /**
+    * Complete the output, writing any buffered bytes to the stream or advancing the
+    * target buffer's position past the bytes written. The sink must not be used
+    * afterwards.
+    */
+   void flush() throws IOException
+   {
+      if(high != 0) {
+         high = 0;
+         put('?');
+      }
+      drain();
+      if(target != null) ((Buffer) target).position(buf.position());
+      else scratch[0] = bytes;
+   }
+
+
+
+
+   private void put(int b) throws IOException
+   {
+      if(out != null) {
+         if(pos == bytes.length) drain();
+         bytes[pos++] = (byte) b;
+      } else {
+         if(!buf.hasRemaining()) throw new BufferOverflowException();
+         buf.put((byte) b);
+      }
+   }
+
+   private void drain() throws IOException
+   {
+      if(pos > 0) {
+         out.write(bytes, 0, pos);
+         pos = 0;
+      }
+   }
+
+}
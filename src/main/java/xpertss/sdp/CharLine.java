@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.nio.CharBuffer;
+
+/**
+ * A reusable cursor over the lines of an SDP held in a CharSequence.
+ * <p>
+ * Each call to {@link #next()} positions this view over the next line in the
+ * sequence, excluding its CRLF or LF terminator. Characters are read through to
+ * the underlying sequence, or directly from the backing array of a heap CharBuffer,
+ * and text is only copied when {@link #subSequence(int, int)} or {@link #toString()}
+ * is called.
+ * <p>
+ * A CharBuffer is read from its position to its limit neither of which is modified.
+ */
+final class CharLine implements CharSequence {
+
+   private CharSequence seq;
+   private char[] array;
+   private int base;
+   private int limit;
+   private int pos;
+   private int start;
+   private int end;
+
+   CharLine()
+   {
+      clear();
+   }
+
+
+   /**
+    * Reset this view to walk the lines of the given sequence returning this view.
+    */
+   public CharLine reset(CharSequence seq)
+   {
+      this.seq = seq;
+      this.limit = seq.length();
+      this.pos = this.start = this.end = 0;
+      if(seq instanceof CharBuffer && ((CharBuffer) seq).hasArray()) {
+         CharBuffer buf = (CharBuffer) seq;
+         this.array = buf.array();
+         this.base = buf.arrayOffset() + buf.position();
+      } else {
+         this.array = null;
+         this.base = 0;
+      }
+      return this;
+   }
+
+   /**
+    * Release the sequence currently referenced by this view.
+    */
+   public void clear()
+   {
+      reset("");
+   }
+
+
+   /**
+    * Advance this view to the next line returning {@code false} if there are
+    * no more lines in the sequence.
+    */
+   public boolean next()
+   {
+      if(pos >= limit) return false;
+      int eol = pos;
+      while(eol < limit && get(eol) != '\n') eol++;
+      start = pos;
+      end = (eol > start && get(eol - 1) == '\r') ? eol - 1 : eol;
+      pos = eol + 1;
+      return true;
+   }
+
+
+   @Override
+   public int length()
+   {
+      return end - start;
+   }
+
+   @Override
+   public char charAt(int index)
+   {
+      if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException();
+      return get(start + index);
+   }
+
+   @Override
+   public CharSequence subSequence(int from, int to)
+   {
+      if(from < 0 || to > end - start || from > to) throw new IndexOutOfBoundsException();
+      if(array != null) return new String(array, base + start + from, to - from);
+      return seq.subSequence(start + from, start + to);
+   }
+
+   @Override
+   public String toString()
+   {
+      return subSequence(0, end - start).toString();
+   }
+
+
+
+   private char get(int index)
+   {
+      return (array != null) ? array[base + index] : seq.charAt(index);
+   }
+
+}
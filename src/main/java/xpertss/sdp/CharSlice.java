@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * A reusable view over a range of another CharSequence.
+ * <p>
+ * Slices are handed to an {@link SdpHandler} so that field values may be inspected
+ * without being copied. Characters are read through to the underlying sequence and
+ * text is only materialized when {@link #toString()} or {@link #subSequence(int, int)}
+ * is called.
+ */
+final class CharSlice implements CharSequence {
+
+   private CharSequence seq;
+   private int start;
+   private int end;
+
+
+   /**
+    * Position this view over the given range of the specified sequence returning
+    * this view.
+    */
+   CharSlice set(CharSequence seq, int start, int end)
+   {
+      this.seq = seq;
+      this.start = start;
+      this.end = end;
+      return this;
+   }
+
+
+   @Override
+   public int length()
+   {
+      return end - start;
+   }
+
+   @Override
+   public char charAt(int index)
+   {
+      if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException();
+      return seq.charAt(start + index);
+   }
+
+   @Override
+   public CharSequence subSequence(int from, int to)
+   {
+      if(from < 0 || to > end - start || from > to) throw new IndexOutOfBoundsException();
+      return seq.subSequence(start + from, start + to);
+   }
+
+   @Override
+   public String toString()
+   {
+      return seq.subSequence(start, end).toString();
+   }
+
+}
@@ -111,12 +111,10 @@ public final class Connection extends Field {
    }
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(networkType).append(" ");
-      buf.append(addressType).append(" ").append(address);
-      return buf.toString();
+      out.put(getTypeChar()).put('=').put(networkType).put(' ');
+      out.put(addressType).put(' ').put(address);
    }
 
 }
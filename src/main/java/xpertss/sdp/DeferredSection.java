@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/16/2026
+ */
+package xpertss.sdp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The unparsed lines of a session or media section recorded as offsets into
+ * the raw SDP bytes.
+ * <p>
+ * A deferred section is produced by a lazy parse. It materializes its bandwidth,
+ * key, attribute and media fields on demand using the same field parsers and
+ * handler as an eager parse so the results are identical. Instances are
+ * immutable once recorded and may be shared between threads.
+ * <p>
+ * The descriptions of a lazy parse cache the fields once materialized, while those
+ * of a compact parse retain nothing but the section and decode its fields again on
+ * each access.
+ */
+final class DeferredSection {
+
+   private final byte[] data;
+   private final ParseMask mask;
+   private final Interner interner;
+   private final boolean compact;
+   private final ArrayList<DeferredSection> medias = new ArrayList<>();
+
+   // type, start, end triples for each recorded line
+   private int[] lines = new int[24];
+   private int size;
+
+
+   DeferredSection(byte[] data, ParseMask mask, Interner interner, boolean compact)
+   {
+      this.data = data;
+      this.mask = mask;
+      this.interner = interner;
+      this.compact = compact;
+   }
+
+
+   /**
+    * Returns {@code true} if the descriptions built over this section decode its
+    * fields on each access rather than caching them.
+    */
+   boolean isCompact()
+   {
+      return compact;
+   }
+
+
+   /**
+    * Record the line occupying the given range of the raw data.
+    */
+   void add(char type, int start, int end)
+   {
+      if(size + 3 > lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+      lines[size++] = type;
+      lines[size++] = start;
+      lines[size++] = end;
+   }
+
+   /**
+    * Begin recording a media section whose m= line occupies the given range
+    * returning the new section.
+    */
+   DeferredSection addMedia(int start, int end)
+   {
+      DeferredSection media = new DeferredSection(data, mask, interner, compact);
+      media.add('m', start, end);
+      medias.add(media);
+      return media;
+   }
+
+   /**
+    * Release the unused capacity of this section and its media sections once
+    * recording is complete.
+    */
+   void trim()
+   {
+      if(lines.length > size) lines = Arrays.copyOf(lines, size);
+      medias.trimToSize();
+      for(DeferredSection media : medias) media.trim();
+   }
+
+
+
+
+   BandWidth[] bandwidths()
+   {
+      return replay('b').bandwidths();
+   }
+
+   Key key()
+   {
+      return replay('k').key();
+   }
+
+   Attribute[] attributes()
+   {
+      return replay('a').attributes();
+   }
+
+   MediaDescription[] medias()
+   {
+      MediaDescription[] result = new MediaDescription[medias.size()];
+      for(int i = 0; i < result.length; i++) result[i] = medias.get(i).media();
+      return result;
+   }
+
+
+
+
+   /**
+    * Materialize the m=, i= and c= fields of this media section returning a
+    * media description which defers the remainder.
+    */
+   private MediaDescription media()
+   {
+      ByteLine line = line();
+      DescriptionHandler handler = new DescriptionHandler(interner);
+      SessionParser.ParseState state = new SessionParser.ParseState().reset(handler, ParserLimits.UNLIMITED, mask);
+      if(!SessionParser.parseMedia(state.select(line.select(lines[1], lines[2])))) throw state.exception();
+      for(int i = 3; i < size; i += 3) {
+         if(lines[i] == 'i') {
+            handler.onInfo(line.select(lines[i+1] + 2, lines[i+2]));
+         } else if(lines[i] == 'c') {
+            if(!SessionParser.parseConnection(state.select(line.select(lines[i+1], lines[i+2])))) throw state.exception();
+         }
+      }
+      return handler.buildMedia(this);
+   }
+
+   /**
+    * Parse every recorded line of the given type into a fresh handler returning
+    * it. Those fields are collected as the handler's session level fields.
+    */
+   private DescriptionHandler replay(char type)
+   {
+      ByteLine line = line();
+      DescriptionHandler handler = new DescriptionHandler(interner);
+      SessionParser.ParseState state = new SessionParser.ParseState().reset(handler, ParserLimits.UNLIMITED, mask);
+      for(int i = 0; i < size; i += 3) {
+         if(lines[i] != type) continue;
+         state.select(line.select(lines[i+1], lines[i+2]));
+         boolean valid;
+         if(type == 'b') {
+            valid = SessionParser.parseBandwidth(state);
+         } else if(type == 'k') {
+            valid = SessionParser.parseKey(state);
+         } else {
+            valid = SessionParser.parseAttribute(state);
+         }
+         if(!valid) throw state.exception();
+      }
+      return handler;
+   }
+
+   private ByteLine line()
+   {
+      return new ByteLine(ByteBuffer.wrap(data));
+   }
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Strings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The handler which assembles a SessionDescription from the parser's callbacks.
+ * <p>
+ * Fields are collected into reusable lists, with the same defaults, validation and
+ * de-duplication the builders apply, and the model objects are constructed directly
+ * from them. A handler may be {@link #reset()} and reused so that, once its lists have
+ * grown to fit, a parse allocates little beyond the description it returns.
+ */
+final class DescriptionHandler implements SdpHandler {
+
+   private static final String[] NO_STRINGS = new String[0];
+   private static final BandWidth[] NO_BANDWIDTHS = new BandWidth[0];
+   private static final Attribute[] NO_ATTRIBUTES = new Attribute[0];
+   private static final RepeatTime[] NO_REPEATS = new RepeatTime[0];
+   private static final TimeDescription[] NO_TIMES = new TimeDescription[0];
+   private static final TimeAdjustment[] NO_ADJUSTMENTS = new TimeAdjustment[0];
+   private static final MediaDescription[] NO_MEDIAS = new MediaDescription[0];
+
+   private final Fields session = new Fields();
+   private final Fields mediaFields = new Fields();
+
+   private final List<String> emails = new ArrayList<>();
+   private final List<String> phones = new ArrayList<>();
+   private final List<TimeDescription> times = new ArrayList<>();
+   private final List<RepeatTime> repeats = new ArrayList<>();
+   private final List<TimeAdjustment> adjustments = new ArrayList<>();
+   private final List<MediaDescription> medias = new ArrayList<>();
+
+   private Interner interner = Interner.NONE;
+
+   private int version;
+   private Origin origin;
+   private String name;
+   private String uri;
+   private Time time;
+   private Media media;
+
+
+   DescriptionHandler()
+   {
+   }
+
+   DescriptionHandler(Interner interner)
+   {
+      this.interner = interner;
+   }
+
+
+   /**
+    * Set the interner which supplies the tokens of the fields collected by this
+    * handler until it is next reset.
+    */
+   void setInterner(Interner interner)
+   {
+      this.interner = interner;
+   }
+
+   /**
+    * Clear all state collected by this handler so that it may be used for another
+    * parse.
+    */
+   void reset()
+   {
+      interner = Interner.NONE;
+      session.clear();
+      mediaFields.clear();
+      emails.clear();
+      phones.clear();
+      times.clear();
+      repeats.clear();
+      adjustments.clear();
+      medias.clear();
+      version = 0;
+      origin = null;
+      name = null;
+      uri = null;
+      time = null;
+      media = null;
+   }
+
+
+   @Override
+   public void onVersion(int version)
+   {
+      this.version = version;
+   }
+
+   @Override
+   public void onOrigin(CharSequence username, CharSequence sessionId, long sessionVersion,
+                        CharSequence networkType, CharSequence addressType, CharSequence address)
+   {
+      origin = OriginBuilder.build(interner.intern(username), sessionId.toString(), sessionVersion,
+                                   address.toString(), interner.intern(addressType), interner.intern(networkType));
+   }
+
+   @Override
+   public void onSessionName(CharSequence name)
+   {
+      this.name = Strings.nullIfEmpty(name.toString());
+   }
+
+   @Override
+   public void onInfo(CharSequence info)
+   {
+      section().info = Strings.nullIfEmpty(info.toString());
+   }
+
+   @Override
+   public void onUri(CharSequence uri)
+   {
+      this.uri = Strings.nullIfEmpty(uri.toString());
+   }
+
+   @Override
+   public void onEmail(CharSequence email)
+   {
+      String value = email.toString();
+      if(!Strings.isEmpty(value)) emails.add(value);
+   }
+
+   @Override
+   public void onPhone(CharSequence phone)
+   {
+      String value = phone.toString();
+      if(!Strings.isEmpty(value)) phones.add(value);
+   }
+
+   @Override
+   public void onConnection(CharSequence networkType, CharSequence addressType, CharSequence address)
+   {
+      section().connection = new Connection(address.toString(), interner.intern(addressType), interner.intern(networkType));
+   }
+
+   @Override
+   public void onBandwidth(CharSequence type, int kbps)
+   {
+      section().addBandwidth(new BandWidth(interner.intern(type), kbps));
+   }
+
+   @Override
+   public void onTime(long start, long stop)
+   {
+      closeTime();
+      time = new Time(start, stop);
+   }
+
+   @Override
+   public void onRepeatTime(long interval, long duration, long[] offsets)
+   {
+      // fail as soon as the repeat is seen rather than when the time description is built
+      if(time.getStart() == null)
+         throw new IllegalStateException("times with unspecified start times cannot define repeat times");
+      repeats.add(new RepeatTime(interval, duration, offsets));
+   }
+
+   @Override
+   public void onTimeZone(long time, long offset)
+   {
+      adjustments.add(new TimeAdjustment(time, offset));
+   }
+
+   @Override
+   public void onKey(CharSequence method, CharSequence key)
+   {
+      section().key = new Key(interner.intern(method), (key != null) ? key.toString() : null);
+   }
+
+   @Override
+   public void onAttribute(CharSequence name, CharSequence value)
+   {
+      section().addAttribute(interner.intern(new Attribute(interner.intern(name), (value != null) ? interner.intern(value) : null)));
+   }
+
+   @Override
+   public void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats)
+   {
+      closeTime();
+      mediaFields.clear();
+      media = new Media(interner.intern(type), port, portCount, interner.intern(protocol), formats);
+   }
+
+   @Override
+   public void onMediaEnd()
+   {
+      medias.add(interner.intern(new MediaDescription(media, mediaFields.info, mediaFields.connection,
+                                      mediaFields.bandwidths(), mediaFields.key, mediaFields.attributes())));
+      media = null;
+   }
+
+   @Override
+   public void onEnd()
+   {
+      closeTime();
+   }
+
+
+
+
+   /**
+    * Build the session description collected by this handler.
+    */
+   SessionDescription build()
+   {
+      return new SessionDescription(version, origin(), sessionName(), session.info, uri,
+                                    emails.toArray(NO_STRINGS), phones.toArray(NO_STRINGS),
+                                    times(), zones(), session.connection, session.bandwidths(),
+                                    session.key, session.attributes(), medias.toArray(NO_MEDIAS));
+   }
+
+   /**
+    * Build the session description collected by this handler with the given media
+    * descriptions in place of any it collected itself.
+    */
+   SessionDescription build(MediaDescription[] medias)
+   {
+      return new SessionDescription(version, origin(), sessionName(), session.info, uri,
+                                    emails.toArray(NO_STRINGS), phones.toArray(NO_STRINGS),
+                                    times(), zones(), session.connection, session.bandwidths(),
+                                    session.key, session.attributes(), medias);
+   }
+
+   /**
+    * Returns the media descriptions collected by this handler.
+    */
+   MediaDescription[] medias()
+   {
+      return medias.toArray(NO_MEDIAS);
+   }
+
+   /**
+    * Build a lazily parsed session description whose bandwidths, key, attributes and
+    * media descriptions are materialized from the given deferred section.
+    */
+   SessionDescription build(DeferredSection deferred)
+   {
+      return new SessionDescription(version, origin(), sessionName(), session.info, uri,
+                                    emails.toArray(NO_STRINGS), phones.toArray(NO_STRINGS),
+                                    times(), zones(), session.connection, deferred);
+   }
+
+   /**
+    * Build a lazily parsed media description from the media, info and connection
+    * collected by this handler which defers the remainder to the given section.
+    */
+   MediaDescription buildMedia(DeferredSection deferred)
+   {
+      return new MediaDescription(media, mediaFields.info, mediaFields.connection, deferred);
+   }
+
+   /**
+    * Returns the session level bandwidths collected by this handler.
+    */
+   BandWidth[] bandwidths()
+   {
+      return session.bandwidths();
+   }
+
+   /**
+    * Returns the session level key collected by this handler.
+    */
+   Key key()
+   {
+      return session.key;
+   }
+
+   /**
+    * Returns the session level attributes collected by this handler.
+    */
+   Attribute[] attributes()
+   {
+      return session.attributes();
+   }
+
+
+
+
+   private Fields section()
+   {
+      return (media != null) ? mediaFields : session;
+   }
+
+   private void closeTime()
+   {
+      if(time != null) times.add(new TimeDescription(time, repeats.toArray(NO_REPEATS)));
+      repeats.clear();
+      time = null;
+   }
+
+   private Origin origin()
+   {
+      return (origin == null) ? OriginBuilder.create().build() : origin;
+   }
+
+   private String sessionName()
+   {
+      return (name == null) ? "SessionName" : name;
+   }
+
+   private TimeDescription[] times()
+   {
+      return times.isEmpty() ? new TimeDescription[] { TimeBuilder.create().build() } : times.toArray(NO_TIMES);
+   }
+
+   private TimeZones zones()
+   {
+      return adjustments.isEmpty() ? null : new TimeZones(adjustments.toArray(NO_ADJUSTMENTS));
+   }
+
+
+
+
+   /**
+    * The info, connection, bandwidths, key and attributes of a section. Bandwidths
+    * are unique by type with later ones replacing earlier ones in place while
+    * attributes are unique by name and value with duplicates discarded.
+    */
+   private static final class Fields {
+
+      private final List<BandWidth> bandwidths = new ArrayList<>();
+      private final List<Attribute> attributes = new ArrayList<>();
+
+      // open addressed table of attribute positions plus one, zero indicates empty
+      private int[] index = new int[16];
+
+      private String info;
+      private Connection connection;
+      private Key key;
+
+      private void addBandwidth(BandWidth bandwidth)
+      {
+         for(int i = 0; i < bandwidths.size(); i++) {
+            if(bandwidths.get(i).getType().equals(bandwidth.getType())) {
+               bandwidths.set(i, bandwidth);
+               return;
+            }
+         }
+         bandwidths.add(bandwidth);
+      }
+
+      private void addAttribute(Attribute attribute)
+      {
+         if((attributes.size() + 1) * 2 > index.length) rehash(index.length * 2);
+         int mask = index.length - 1;
+         for(int i = hash(attribute) & mask; ; i = (i + 1) & mask) {
+            int slot = index[i];
+            if(slot == 0) {
+               attributes.add(attribute);
+               index[i] = attributes.size();
+               return;
+            } else if(attributes.get(slot - 1).equals(attribute)) {
+               return;
+            }
+         }
+      }
+
+      private BandWidth[] bandwidths()
+      {
+         return bandwidths.toArray(NO_BANDWIDTHS);
+      }
+
+      private Attribute[] attributes()
+      {
+         return attributes.toArray(NO_ATTRIBUTES);
+      }
+
+      private void clear()
+      {
+         if(!attributes.isEmpty()) Arrays.fill(index, 0);
+         attributes.clear();
+         bandwidths.clear();
+         info = null;
+         connection = null;
+         key = null;
+      }
+
+      private void rehash(int size)
+      {
+         index = new int[size];
+         int mask = size - 1;
+         for(int n = 0; n < attributes.size(); n++) {
+            int i = hash(attributes.get(n)) & mask;
+            while(index[i] != 0) i = (i + 1) & mask;
+            index[i] = n + 1;
+         }
+      }
+
+      private static int hash(Attribute attribute)
+      {
+         String value = attribute.getValue();
+         int h = attribute.getName().hashCode() * 31 + ((value != null) ? value.hashCode() : 0);
+         return h ^ (h >>> 16);
+      }
+   }
+
+}
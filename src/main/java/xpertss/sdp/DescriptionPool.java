@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Numbers;
+import xpertss.lang.Objects;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock free {@link Interner} which canonicalizes whole attributes and
+ * media descriptions in addition to the tokens within them.
+ * <p>
+ * Descriptions which carry identical media sections, such as the same audio offer
+ * repeated across thousands of calls, will then share a single immutable instance of
+ * each {@link MediaDescription} and {@link Attribute} rather than each holding its own
+ * copy, and comparing two such descriptions is satisfied by reference equality.
+ * <pre>
+ *   SessionParser parser = new SessionParser(new DescriptionPool());
+ * </pre>
+ * Like {@link StringPool} the pool holds a fixed number of recently seen instances, a
+ * new instance displacing an older one, so it may be used indefinitely on varied
+ * input. Media descriptions which are still being lazily parsed are never pooled
+ * as doing so would force them to be fully parsed.
+ * <p>
+ * Pools are safe for concurrent use and are intended to be shared.
+ */
+public final class DescriptionPool implements Interner {
+
+   private final Interner strings;
+   private final AtomicReferenceArray<Attribute> attributes;
+   private final AtomicReferenceArray<MediaDescription> medias;
+   private final int mask;
+
+
+   /**
+    * Create a pool which holds up to 1024 attributes and 1024 media descriptions and
+    * interns their tokens with a new default {@link StringPool}.
+    */
+   public DescriptionPool()
+   {
+      this(new StringPool(), 1024);
+   }
+
+   /**
+    * Create a pool which holds up to the given number of attributes and the same
+    * number of media descriptions, and interns their tokens with the given interner.
+    * The capacity is rounded up to a power of two.
+    *
+    * @throws NullPointerException If the string interner is null
+    * @throws IllegalArgumentException If the capacity is not positive
+    */
+   public DescriptionPool(Interner strings, int capacity)
+   {
+      this.strings = Objects.notNull(strings, "strings");
+      Numbers.gt(0, capacity, "capacity must be positive");
+      int size = Math.max(2, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+      this.attributes = new AtomicReferenceArray<>(size);
+      this.medias = new AtomicReferenceArray<>(size);
+      this.mask = size - 1;
+   }
+
+
+   @Override
+   public String intern(CharSequence value)
+   {
+      return strings.intern(value);
+   }
+
+   /**
+    * Returns the pooled instance equal to the given attribute, adding it to the pool
+    * if there is none.
+    */
+   @Override
+   public Attribute intern(Attribute attribute)
+   {
+      return canonical(attributes, attribute);
+   }
+
+   /**
+    * Returns the pooled instance equal to the given media description, adding it to
+    * the pool if there is none.
+    */
+   @Override
+   public MediaDescription intern(MediaDescription media)
+   {
+      return canonical(medias, media);
+   }
+
+   /**
+    * The number of attributes, and separately of media descriptions, this pool may
+    * hold.
+    */
+   public int capacity()
+   {
+      return mask + 1;
+   }
+
+
+
+
+   private <T> T canonical(AtomicReferenceArray<T> table, T value)
+   {
+      int h = value.hashCode();
+      h ^= (h >>> 16);
+      // two way set associative, a miss replaces the entry the hash favours
+      int slot = h & mask & ~1;
+      T first = table.get(slot);
+      if(value.equals(first)) return first;
+      T second = table.get(slot + 1);
+      if(value.equals(second)) return second;
+      table.set(slot + ((h >>> 8) & 1), value);
+      return value;
+   }
+
+}
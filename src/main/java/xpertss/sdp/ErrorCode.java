@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * Identifies the kind of problem described by a {@link ParseError}.
+ */
+public enum ErrorCode {
+
+   /**
+    * A line which is not of the form {@code <type>=<value>}.
+    */
+   INVALID_LINE,
+
+   /**
+    * A line whose type is not a known sdp field.
+    */
+   UNKNOWN_FIELD,
+
+   /**
+    * A known field which appears out of order or in a section where it is not allowed.
+    */
+   MISPLACED_FIELD,
+
+   /**
+    * The contents ended before the required version, origin, session name and time
+    * fields were all seen.
+    */
+   PREMATURE_END,
+
+   /**
+    * An invalid {@code v=} field.
+    */
+   INVALID_VERSION,
+
+   /**
+    * An invalid {@code o=} field.
+    */
+   INVALID_ORIGIN,
+
+   /**
+    * An invalid {@code c=} field.
+    */
+   INVALID_CONNECTION,
+
+   /**
+    * An invalid {@code b=} field.
+    */
+   INVALID_BANDWIDTH,
+
+   /**
+    * An invalid {@code t=} field.
+    */
+   INVALID_TIME,
+
+   /**
+    * An invalid {@code r=} field.
+    */
+   INVALID_REPEAT_TIME,
+
+   /**
+    * An invalid {@code z=} field.
+    */
+   INVALID_TIME_ZONE,
+
+   /**
+    * An invalid {@code k=} field.
+    */
+   INVALID_KEY,
+
+   /**
+    * An invalid {@code a=} field.
+    */
+   INVALID_ATTRIBUTE,
+
+   /**
+    * An invalid {@code m=} field.
+    */
+   INVALID_MEDIA,
+
+   /**
+    * The contents exceed the {@link ParserLimits#getMaxBytes() maximum size}.
+    */
+   CONTENT_TOO_LARGE,
+
+   /**
+    * A line exceeds the {@link ParserLimits#getMaxLineLength() maximum line length}.
+    */
+   LINE_TOO_LONG,
+
+   /**
+    * The description has more than the {@link ParserLimits#getMaxMedia() maximum number}
+    * of media descriptions.
+    */
+   TOO_MANY_MEDIA,
+
+   /**
+    * A section has more than the {@link ParserLimits#getMaxAttributes() maximum number}
+    * of attributes.
+    */
+   TOO_MANY_ATTRIBUTES,
+
+   /**
+    * An {@code m=} field has more than the {@link ParserLimits#getMaxFormats() maximum
+    * number} of formats.
+    */
+   TOO_MANY_FORMATS,
+
+   /**
+    * An {@code r=} field has more than the {@link ParserLimits#getMaxRepeatOffsets()
+    * maximum number} of offsets.
+    */
+   TOO_MANY_REPEAT_OFFSETS,
+
+   /**
+    * The contents could not be read from their source.
+    */
+   UNREADABLE
+
+}
@@ -21,8 +21,21 @@ public abstract class Field implements Serializable, Cloneable {
     * Returns the type character for the field.
     */
    public abstract char getTypeChar();
-    
-    
+
+
+   @Override
+   public String toString()
+   {
+      OutputBuilder buf = new OutputBuilder();
+      write(buf);
+      return buf.toString();
+   }
+
+   /**
+    * Write this field, excluding its line terminator, to the given output.
+    */
+   abstract void write(OutputBuilder out);
+
 
 }
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A resumable parser to which UTF-8 encoded sdp contents are pushed in arbitrary chunks
+ * as they are read from a non-blocking channel.
+ * <p>
+ * Each line is parsed as soon as its terminator arrives. Complete lines are read directly
+ * from the supplied chunk while a line split across chunks is carried over in an internal
+ * buffer until its remainder arrives. Structural errors are therefore reported by the
+ * {@link #feed(ByteBuffer)} call which completes the offending line rather than at the
+ * end of the contents. Likewise a partial line which already exceeds the parser's
+ * {@link ParserLimits limits} is rejected as it is fed rather than buffered.
+ * <p>
+ * As with the other parse methods a blank line terminates the description. Once it is
+ * seen the parser is complete and any bytes which follow it are left in the chunk. The
+ * final line need not be terminated if the contents end without a blank line, in which
+ * case it is parsed by {@link #finish()}.
+ * <p>
+ * An incremental parser may be used for a single description and is not thread safe.
+ * Once it has thrown an exception or been finished any further use will result in an
+ * IllegalStateException.
+ *
+ * @see SessionParser#newIncrementalParser()
+ * @see SessionParser#newIncrementalParser(SdpHandler)
+ */
+public final class IncrementalParser {
+
+   private final SessionParser.ParseState state;
+   private final DescriptionHandler builder;
+
+   private byte[] carry = new byte[128];
+   private int carried;
+   private ByteLine carryLine;
+   private long consumed;
+
+   private boolean complete;
+   private boolean closed;
+
+
+   IncrementalParser(SdpHandler handler, ParserLimits limits, ParseMask mask)
+   {
+      this.state = new SessionParser.ParseState().reset(handler, limits, mask);
+      this.builder = (handler instanceof DescriptionHandler) ? (DescriptionHandler) handler : null;
+   }
+
+
+   /**
+    * Parse every line completed by the bytes between the given chunk's position and its
+    * limit returning {@code true} if the description is complete.
+    * <p>
+    * All of the chunk's remaining bytes are consumed unless the blank line terminating
+    * the description is found, in which case the chunk's position is left at the byte
+    * following it. A complete parser consumes nothing.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied chunk is null
+    * @throws IllegalStateException If this parser has been finished or has failed
+    */
+   public boolean feed(ByteBuffer chunk) throws SdpParseException, NullPointerException, IllegalStateException
+   {
+      if(closed) throw new IllegalStateException("parser is closed");
+      if(complete) return true;
+      int pos = chunk.position(), limit = chunk.limit();
+      try {
+         ByteLine line = null;
+         while(pos < limit && !complete) {
+            int eol = pos;
+            while(eol < limit && chunk.get(eol) != '\n') eol++;
+            if(eol == limit) {
+               // refuse to buffer a partial line which is already too long
+               int partial = carried + limit - pos;
+               if(!state.measure(consumed + partial, partial - 1)) throw state.exception();
+               append(chunk, pos, limit);
+            } else if(carried > 0) {
+               append(chunk, pos, eol);
+               consumed += carried + 1;
+               complete = !accept(carried());
+               carried = 0;
+            } else {
+               if(line == null) line = new ByteLine(chunk);
+               int end = (eol > pos && chunk.get(eol - 1) == '\r') ? eol - 1 : eol;
+               consumed += eol - pos + 1;
+               complete = !accept(line.select(pos, end));
+            }
+            pos = Math.min(eol + 1, limit);
+         }
+         ((Buffer) chunk).position(pos);
+         return complete;
+      } catch(RuntimeException e) {
+         closed = true;
+         throw e;
+      }
+   }
+
+   /**
+    * Returns {@code true} once the blank line which terminates the description has been
+    * fed to this parser.
+    */
+   public boolean isComplete()
+   {
+      return complete;
+   }
+
+   /**
+    * Signal that no more contents will be fed to this parser, parsing any unterminated
+    * final line and verifying the description is whole. This returns the parsed Session
+    * Description, or {@code null} if this parser reports to a handler.
+    *
+    * @throws SdpParseException If the contents ended prematurely or the final line is
+    *          invalid
+    * @throws IllegalStateException If this parser has already been finished or has failed
+    */
+   public SessionDescription finish() throws SdpParseException, IllegalStateException
+   {
+      if(closed) throw new IllegalStateException("parser is closed");
+      closed = true;
+      if(!complete && carried > 0) {
+         consumed += carried;
+         accept(carried());
+      }
+      if(!SessionParser.finish(state)) throw state.exception();
+      return (builder != null) ? builder.build() : null;
+   }
+
+
+
+
+   private boolean accept(CharSequence line)
+   {
+      if(line.length() == 0) return false;
+      if(!SessionParser.parseLine(state, line, consumed)) throw state.exception();
+      return true;
+   }
+
+   private CharSequence carried()
+   {
+      int end = (carried > 0 && carry[carried - 1] == '\r') ? carried - 1 : carried;
+      if(carryLine == null) carryLine = new ByteLine(ByteBuffer.wrap(carry));
+      return carryLine.select(0, end);
+   }
+
+   private void append(ByteBuffer chunk, int from, int to)
+   {
+      int len = to - from;
+      if(carried + len > carry.length) {
+         carry = Arrays.copyOf(carry, Math.max(carried + len, carry.length * 2));
+         carryLine = null;
+      }
+      for(int i = 0; i < len; i++) carry[carried + i] = chunk.get(from + i);
+      carried += len;
+   }
+
+}
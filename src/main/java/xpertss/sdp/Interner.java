@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * Supplies the String instances held by parsed and built session descriptions so that
+ * identical tokens, such as attribute names, media types and protocols, may share a
+ * single instance. An interner may also canonicalize whole attributes and media
+ * descriptions so that identical ones share a single immutable instance.
+ * <p>
+ * Implementations must be safe for concurrent use when shared between parsers which
+ * are used by more than one thread.
+ *
+ * @see StringPool
+ * @see DescriptionPool
+ */
+public interface Interner {
+
+   /**
+    * An interner which shares nothing, each value being a new String.
+    */
+   Interner NONE = CharSequence::toString;
+
+   /**
+    * Returns a String equal to the given value's {@link CharSequence#toString()}, which
+    * may be an instance returned previously for an equal value.
+    */
+   String intern(CharSequence value);
+
+   /**
+    * Returns an attribute equal to the given attribute, which may be an instance
+    * returned previously for an equal attribute. The default returns the given
+    * attribute.
+    */
+   default Attribute intern(Attribute attribute)
+   {
+      return attribute;
+   }
+
+   /**
+    * Returns a media description equal to the given media description, which may be
+    * an instance returned previously for an equal description. The default returns
+    * the given description.
+    */
+   default MediaDescription intern(MediaDescription media)
+   {
+      return media;
+   }
+
+}
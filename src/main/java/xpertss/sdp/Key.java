@@ -81,12 +81,10 @@ public final class Key extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(method);
-      if(!Strings.isEmpty(key)) buf.append(":").append(key);
-      return buf.toString();
+      out.put(getTypeChar()).put('=').put(method);
+      if(!Strings.isEmpty(key)) out.put(':').put(key);
    }
 
 }
@@ -151,16 +151,14 @@ public final class Media extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(type).append(" ").append(port);
-      if(count > 1) buf.append("/").append(count);
-      buf.append(" ").append(protocol);
+      out.put(getTypeChar()).put('=').put(type).put(' ').put(port);
+      if(count > 1) out.put('/').put(count);
+      out.put(' ').put(protocol);
       for(int format : formats) {
-         buf.append(" ").append(format);
+         out.put(' ').put(format);
       }
-      return buf.toString();
    }
 
 }
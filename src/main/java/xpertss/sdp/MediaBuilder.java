@@ -5,6 +5,7 @@
  */
 package xpertss.sdp;
 
+import xpertss.lang.Objects;
 import xpertss.lang.Strings;
 
 import java.net.Inet4Address;
@@ -25,7 +26,7 @@ import static xpertss.sdp.SdpConstants.NETWORK_TYPE_INTERNET;
 /**
  * Builder used to construct MediaDescription instances.
  */
-public final class MediaBuilder {
+public final class MediaBuilder extends SectionBuilder<MediaBuilder> {
 
    private Map<String,BandWidth> bandwidths = new LinkedHashMap<>();
    private Set<Attribute> attributes = new LinkedHashSet<>();
@@ -35,6 +36,8 @@ public final class MediaBuilder {
    private String info;
    private Connection conn;
 
+   private Interner interner = Interner.NONE;
+
    private MediaBuilder(MediaDescription existing)
    {
       if(existing != null) {
@@ -54,6 +57,15 @@ public final class MediaBuilder {
 
 
 
+   @Override
+   public MediaBuilder setInterner(Interner interner)
+   {
+      this.interner = Objects.notNull(interner, "interner");
+      return this;
+   }
+
+
+
    /**
     * Set the REQUIRED media data for this media description.
     * <p>
@@ -68,7 +80,7 @@ public final class MediaBuilder {
     */
    public MediaBuilder setMedia(String type, int port, int count, String protocol, int ... formats)
    {
-      this.media = new Media(type, port, count, protocol, formats);
+      this.media = new Media(intern(type), port, count, intern(protocol), formats);
       return this;
    }
 
@@ -120,7 +132,7 @@ public final class MediaBuilder {
     */
    public MediaBuilder setConnection(String address, String addressType, String networkType)
    {
-      this.conn = new Connection(address, addressType, networkType);
+      this.conn = new Connection(address, intern(addressType), intern(networkType));
       return this;
    }
 
@@ -178,7 +190,7 @@ public final class MediaBuilder {
     */
    public MediaBuilder addBandwidth(String type, int kbps)
    {
-      bandwidths.put(type, new BandWidth(type, kbps));
+      bandwidths.put(type, new BandWidth(intern(type), kbps));
       return this;
    }
 
@@ -224,7 +236,7 @@ public final class MediaBuilder {
     */
    public MediaBuilder setKey(String method, String key)
    {
-      this.key = new Key(method, key);
+      this.key = new Key(intern(method), key);
       return this;
    }
 
@@ -258,7 +270,7 @@ public final class MediaBuilder {
     */
    public MediaBuilder addAttribute(String name, String value)
    {
-      attributes.add(new Attribute(name, value));
+      attributes.add(interner.intern(new Attribute(intern(name), intern(value))));
       return this;
    }
 
@@ -349,7 +361,15 @@ public final class MediaBuilder {
    public MediaDescription build()
    {
       if(media == null) throw new IllegalStateException("media property must be specified");
-      return new MediaDescription(media, info, conn, getBandwidths(), key, getAttributes());
+      return interner.intern(new MediaDescription(media, info, conn, getBandwidths(), key, getAttributes()));
+   }
+
+
+
+
+   private String intern(String value)
+   {
+      return (value == null) ? null : interner.intern(value);
    }
 
 
@@ -10,6 +10,8 @@ package xpertss.sdp;
 import xpertss.lang.Objects;
 import xpertss.lang.Strings;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -47,15 +49,41 @@ public final class MediaDescription extends Section {
    private BandWidth[] bandwidths;
    private Attribute[] attributes;
 
+   // fields of a lazily parsed description which have yet to be materialized
+   private static final int BANDWIDTHS = 1;
+   private static final int KEY = 2;
+   private static final int ATTRIBUTES = 4;
+   private static final int ALL = BANDWIDTHS | KEY | ATTRIBUTES;
+
+   private transient DeferredSection deferred;
+   private transient volatile int pending;
+
+   // the section of a compact description from which fields are decoded on each access
+   private transient DeferredSection view;
+
+   // cached hash code which is zero until first computed
+   private transient int hash;
+
 
    MediaDescription(Media media, String info, Connection connection, BandWidth[] bandwidths, Key key, Attribute[] attributes)
    {
       this.media = Objects.notNull(media, "media may not be null");
       this.info = Strings.nullIfEmpty(info);
       this.connection = connection;
-      this.bandwidths = Utils.emptyIfNull(bandwidths, BandWidth[].class).clone();
+      this.bandwidths = Utils.emptyIfNull(bandwidths, BandWidth[].class);
       this.key = key;
-      this.attributes = Utils.emptyIfNull(attributes, Attribute[].class).clone();
+      this.attributes = Utils.emptyIfNull(attributes, Attribute[].class);
+   }
+
+   MediaDescription(Media media, String info, Connection connection, DeferredSection deferred)
+   {
+      this(media, info, connection, null, null, null);
+      if(Objects.notNull(deferred, "deferred may not be null").isCompact()) {
+         this.view = deferred;
+      } else {
+         this.deferred = deferred;
+         this.pending = ALL;
+      }
    }
 
    /**
@@ -94,7 +122,7 @@ public final class MediaDescription extends Section {
     */
    public BandWidth[] getBandwidths()
    {
-      return bandwidths.clone();
+      return (view != null) ? view.bandwidths() : bandwidths().clone();
    }
 
 
@@ -106,7 +134,7 @@ public final class MediaDescription extends Section {
     */
    public BandWidth getBandwidth(String type)
    {
-      for(BandWidth bw : bandwidths) {
+      for(BandWidth bw : bandwidths()) {
          if(bw.getType().equals(type)) return bw;
       }
       return null;
@@ -119,7 +147,7 @@ public final class MediaDescription extends Section {
     */
    public Key getKey()
    {
-      return key;
+      return key();
    }
 
 
@@ -129,7 +157,7 @@ public final class MediaDescription extends Section {
     */
    public Attribute[] getAttributes()
    {
-      return attributes.clone();
+      return (view != null) ? view.attributes() : attributes().clone();
    }
 
 
@@ -141,7 +169,7 @@ public final class MediaDescription extends Section {
    public Attribute[] getAttributes(String name)
    {
       List<Attribute> result = new ArrayList<>();
-      for(Attribute att : attributes) {
+      for(Attribute att : attributes()) {
          if(att.getName().equals(name)) result.add(att);
       }
       return result.toArray(new Attribute[result.size()]);
@@ -156,7 +184,7 @@ public final class MediaDescription extends Section {
     */
    public Attribute getAttribute(String name)
    {
-      for(Attribute att : attributes) {
+      for(Attribute att : attributes()) {
          if(att.getName().equals(name)) return att;
       }
       return null;
@@ -167,6 +195,7 @@ public final class MediaDescription extends Section {
 
    @Override
    public MediaDescription clone() {
+      resolve(ALL);
       try {
          return (MediaDescription) super.clone();
       } catch(CloneNotSupportedException e) {
@@ -177,32 +206,96 @@ public final class MediaDescription extends Section {
    @Override
    public int hashCode()
    {
-      return Objects.hash(media, info, connection, bandwidths, key, attributes);
+      int h = hash;
+      if(h == 0) {
+         hash = h = Objects.hash(media, info, connection, bandwidths(), key(), attributes());
+      }
+      return h;
    }
 
    @Override
    public boolean equals(Object obj)
    {
+      if(obj == this) return true;
       if(obj instanceof MediaDescription) {
          MediaDescription m = (MediaDescription) obj;
          return Objects.equal(m.getMedia(), media) &&
                   Objects.equal(m.getInfo(), info) &&
                   Objects.equal(m.getConnection(), connection) &&
-                  Arrays.equals(m.getBandwidths(), bandwidths) &&
-                  Objects.equal(m.getKey(), key) &&
-                  Arrays.equals(m.getAttributes(), attributes);
+                  Arrays.equals(m.bandwidths(), bandwidths()) &&
+                  Objects.equal(m.key(), key()) &&
+                  Arrays.equals(m.attributes(), attributes());
       }
       return false;
    }
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      OutputBuilder buf = new OutputBuilder();
-      buf.append(media).append("i", info).append(connection);
-      buf.appendAll(bandwidths).append(key).appendAll(attributes);
-      return buf.toString();
+      out.append(media).append("i", info).append(connection);
+      out.appendAll(bandwidths()).append(key()).appendAll(attributes());
+   }
+
+
+
+   @Override
+   boolean isCacheable()
+   {
+      return view == null;
+   }
+
+   private BandWidth[] bandwidths()
+   {
+      if(view != null) return view.bandwidths();
+      resolve(BANDWIDTHS);
+      return bandwidths;
+   }
+
+   private Key key()
+   {
+      if(view != null) return view.key();
+      resolve(KEY);
+      return key;
+   }
+
+   private Attribute[] attributes()
+   {
+      if(view != null) return view.attributes();
+      resolve(ATTRIBUTES);
+      return attributes;
    }
-}
 
+   /**
+    * Materialize the specified deferred fields of a lazily parsed description if
+    * they have not already been materialized.
+    */
+   private void resolve(int fields)
+   {
+      if((pending & fields) != 0) {
+         synchronized(this) {
+            int unresolved = pending & fields;
+            if((unresolved & BANDWIDTHS) != 0) bandwidths = deferred.bandwidths();
+            if((unresolved & KEY) != 0) key = deferred.key();
+            if((unresolved & ATTRIBUTES) != 0) attributes = deferred.attributes();
+            if((pending &= ~unresolved) == 0) deferred = null;
+         }
+      }
+   }
+
+   private void writeObject(ObjectOutputStream out) throws IOException
+   {
+      resolve(ALL);
+      out.defaultWriteObject();
+   }
+
+   /**
+    * A compact description is serialized as a fully materialized copy.
+    */
+   private Object writeReplace()
+   {
+      if(view == null) return this;
+      return new MediaDescription(media, info, connection, bandwidths(), key(), attributes());
+   }
+
+}
@@ -153,14 +153,12 @@ public final class Origin extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(username).append(" ");
-      buf.append(sessionId).append(" ").append(version).append(" ");
-      buf.append(networkType).append(" ").append(addressType).append(" ");
-      buf.append(address);
-      return buf.toString();
+      out.put(getTypeChar()).put('=').put(username).put(' ');
+      out.put(sessionId).put(' ').put(version).put(' ');
+      out.put(networkType).put(' ').put(addressType).put(' ');
+      out.put(address);
    }
 }
 
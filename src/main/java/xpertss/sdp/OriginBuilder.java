@@ -6,6 +6,7 @@
 package xpertss.sdp;
 
 import xpertss.lang.Longs;
+import xpertss.lang.Objects;
 import xpertss.lang.Strings;
 import xpertss.net.NetUtils;
 
@@ -46,6 +47,8 @@ public final class OriginBuilder {
    private String addressType;
    private String networkType;
 
+   private Interner interner = Interner.NONE;
+
    private OriginBuilder(Origin src)
    {
       if(src != null) {
@@ -60,6 +63,19 @@ public final class OriginBuilder {
 
 
 
+   /**
+    * Set the interner which supplies the username, address type and network type
+    * subsequently set on this builder. Nothing is interned by default.
+    *
+    * @throws NullPointerException If the interner is null
+    */
+   public OriginBuilder setInterner(Interner interner)
+   {
+      this.interner = Objects.notNull(interner, "interner");
+      return this;
+   }
+
+
    /**
     * Set or change the username the origin will be built with.
     * <p>
@@ -67,7 +83,7 @@ public final class OriginBuilder {
     */
    public OriginBuilder setUsername(String username)
    {
-      this.username = Strings.nullIfEmpty(username);
+      this.username = intern(Strings.nullIfEmpty(username));
       return this;
    }
 
@@ -149,7 +165,7 @@ public final class OriginBuilder {
     */
    public OriginBuilder setAddressType(String addressType)
    {
-      this.addressType = Strings.nullIfEmpty(addressType);
+      this.addressType = intern(Strings.nullIfEmpty(addressType));
       return this;
    }
 
@@ -169,7 +185,7 @@ public final class OriginBuilder {
     */
    public OriginBuilder setNetworkType(String networkType)
    {
-      this.networkType = Strings.nullIfEmpty(networkType);
+      this.networkType = intern(Strings.nullIfEmpty(networkType));
       return this;
    }
 
@@ -194,6 +210,16 @@ public final class OriginBuilder {
       // if networkType is null use IN
       // if sessionId is 0 use current time (NTP format)
       // if version is 0 use random between 1 & 65535
+      return build(username, sessionId, version, address, addressType, networkType);
+   }
+
+   /**
+    * Build an {@code Origin} object from the given properties applying the same
+    * defaults as {@link #build()} for any which are empty.
+    */
+   static Origin build(String username, String sessionId, long version, String address,
+                       String addressType, String networkType)
+   {
       return new Origin(Strings.ifEmpty(username, System.getProperty("user.name")),
             Strings.ifEmpty(sessionId, Long.toString(Utils.currentNtpTime())),
             (version == -1) ? Longs.random(0,65535) : version,
@@ -204,6 +230,13 @@ public final class OriginBuilder {
 
 
 
+   private String intern(String value)
+   {
+      return (value == null) ? null : interner.intern(value);
+   }
+
+
+
 
    /**
     * Creates a default uninitialized origin builder.
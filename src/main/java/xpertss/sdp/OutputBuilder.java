@@ -1,13 +1,62 @@
 package xpertss.sdp;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Writes the lines of a description to an Appendable. Fields and sections write
+ * their tokens directly to the builder so no intermediate strings are created.
+ * <p>
+ * When writing encoded bytes a nested section which has already been encoded, such
+ * as an unchanged media description carried into a derived session description, is
+ * spliced in as a copy of its encoded form rather than being encoded again.
+ * <p>
+ * An IOException thrown by the underlying Appendable is rethrown wrapped in an
+ * UncheckedIOException.
+ */
 class OutputBuilder {
 
-   private StringBuilder buf = new StringBuilder();
+   static final String CRLF = "\r\n";
+
+   private final Appendable buf;
+   private final String eol;
+   private final ByteSink bytes;
+   private char[] digits;
+
+   OutputBuilder()
+   {
+      this(new StringBuilder(), System.lineSeparator());
+   }
+
+   OutputBuilder(Appendable buf, String eol)
+   {
+      this.buf = buf;
+      this.eol = eol;
+      this.bytes = null;
+   }
+
+   OutputBuilder(ByteSink bytes)
+   {
+      this.buf = bytes;
+      this.eol = CRLF;
+      this.bytes = bytes;
+   }
+
 
    public OutputBuilder append(Section obj)
    {
-      if(obj != null) buf.append(obj);
+      if(obj == null) return this;
+      if(bytes != null && obj.isCacheable()) {
+         try {
+            bytes.write(obj.encoded());
+         } catch(IOException e) {
+            throw new UncheckedIOException(e);
+         }
+      } else {
+         obj.write(this);
+      }
       return this;
    }
 
@@ -21,7 +70,10 @@ class OutputBuilder {
 
    public OutputBuilder append(Field obj)
    {
-      if(obj != null) buf.append(obj).append(System.lineSeparator());
+      if(obj != null) {
+         obj.write(this);
+         put(eol);
+      }
       return this;
    }
 
@@ -33,13 +85,18 @@ class OutputBuilder {
       return this;
    }
 
-   public OutputBuilder append(String code, Object obj)
+   public OutputBuilder append(String code, long value)
+   {
+      return put(code).put('=').put(value).put(eol);
+   }
+
+   public OutputBuilder append(String code, CharSequence obj)
    {
-      if(obj != null) buf.append(code).append("=").append(obj).append(System.lineSeparator());
+      if(obj != null) put(code).put('=').put(obj).put(eol);
       return this;
    }
 
-   public OutputBuilder appendAll(String code, Object[] objs)
+   public OutputBuilder appendAll(String code, CharSequence[] objs)
    {
       for(int i = 0; objs != null && i < objs.length; i++) {
          if(objs[i] != null) append(code, objs[i]);
@@ -47,8 +104,69 @@ class OutputBuilder {
       return this;
    }
 
+
+
+   public OutputBuilder put(char c)
+   {
+      try {
+         buf.append(c);
+      } catch(IOException e) {
+         throw new UncheckedIOException(e);
+      }
+      return this;
+   }
+
+   public OutputBuilder put(CharSequence str)
+   {
+      try {
+         buf.append(str);
+      } catch(IOException e) {
+         throw new UncheckedIOException(e);
+      }
+      return this;
+   }
+
+   public OutputBuilder put(long value)
+   {
+      if(buf instanceof StringBuilder) {
+         ((StringBuilder) buf).append(value);
+         return this;
+      }
+      if(value == Long.MIN_VALUE) return put(Long.toString(value));
+      if(value < 0) {
+         put('-');
+         value = -value;
+      }
+      if(digits == null) digits = new char[19];
+      int pos = digits.length;
+      do {
+         digits[--pos] = (char) ('0' + (value % 10));
+         value /= 10;
+      } while(value != 0);
+      while(pos < digits.length) put(digits[pos++]);
+      return this;
+   }
+
+   /**
+    * Put the given number of seconds in the compact form produced by
+    * {@link Utils#toCompactTime(long)}.
+    */
+   public OutputBuilder putTime(long duration)
+   {
+      if(duration != 0) {
+         if(duration % 86400  == 0) {
+            return put(SECONDS.toDays(duration)).put('d');
+         } else if(duration % 3600 == 0) {
+            return put(SECONDS.toHours(duration)).put('h');
+         } else if(duration % 60 == 0) {
+            return put(SECONDS.toMinutes(duration)).put('m');
+         }
+      }
+      return put(duration);
+   }
+
    public String toString()
    {
       return buf.toString();
    }
-}
\ No newline at end of file
+}
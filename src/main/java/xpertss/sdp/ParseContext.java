@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * The reusable scratch state of a {@link SessionParser}.
+ * <p>
+ * A context owns the line cursors, tokenizer, read buffer and the lists into which
+ * fields are collected while a description is assembled. Passing the same context to
+ * successive parses allows all of that to be reused so that, once it has grown to fit
+ * the descriptions being parsed, each parse allocates little beyond the description it
+ * returns.
+ * <p>
+ * A context holds no state between parses but may only be used by one parse at a time.
+ * It is intended to be owned by a single thread or event loop. The parse methods which
+ * do not take a context use one owned by the calling thread.
+ */
+public final class ParseContext {
+
+   // The largest read buffer retained between bounded length parses
+   private static final int MAX_RETAINED = 64 * 1024;
+
+   final SessionParser.ParseState state = new SessionParser.ParseState();
+   final DescriptionHandler handler = new DescriptionHandler();
+   final SdpSummary.Collector summary = new SdpSummary.Collector();
+   final ByteLine lines = new ByteLine();
+   final CharLine chars = new CharLine();
+
+   private ByteBuffer buffer;
+   private boolean busy;
+
+
+   /**
+    * Create a new, initially empty, parse context.
+    */
+   public ParseContext()
+   {
+   }
+
+
+   /**
+    * Claim this context for a parse within the given limits of the parts selected
+    * by the given mask reporting to the given handler returning its reset parse state.
+    *
+    * @throws IllegalStateException If the context is already in use
+    */
+   SessionParser.ParseState acquire(SdpHandler handler, ParserLimits limits, ParseMask mask)
+   {
+      if(busy) throw new IllegalStateException("parse context is already in use");
+      busy = true;
+      return state.reset(handler, limits, mask);
+   }
+
+   /**
+    * Release this context at the end of a parse dropping any references it holds to
+    * the input or the parsed fields.
+    */
+   void release()
+   {
+      handler.reset();
+      summary.reset();
+      state.reset(null);
+      lines.clear();
+      chars.clear();
+      busy = false;
+   }
+
+   /**
+    * Returns {@code true} if this context is currently in use by a parse.
+    */
+   boolean isBusy()
+   {
+      return busy;
+   }
+
+   /**
+    * Returns this context's read buffer cleared and limited to the given number of
+    * bytes. Buffers larger than MAX_RETAINED are not kept for reuse.
+    */
+   ByteBuffer buffer(int length)
+   {
+      if(length < 0) throw new IllegalArgumentException("negative content length");
+      ByteBuffer buf = buffer;
+      if(buf == null || buf.capacity() < length) {
+         buf = ByteBuffer.allocate(Math.max(length, 1024));
+         if(buf.capacity() <= MAX_RETAINED) buffer = buf;
+      }
+      ((Buffer) buf).clear();
+      ((Buffer) buf).limit(length);
+      return buf;
+   }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * Describes a problem found while parsing a session description: what went wrong,
+ * which field it concerns and where in the contents it was found.
+ * <p>
+ * Parse errors are plain values. Unlike an exception no stack trace is captured and
+ * the message is only assembled when it is asked for.
+ *
+ * @see ParseResult
+ */
+public final class ParseError {
+
+   private final ErrorCode code;
+   private final String message;
+   private final String detail;
+   private final int line;
+   private final int offset;
+   private final char field;
+
+   ParseError(ErrorCode code, String message, String detail, int line, int offset, char field)
+   {
+      this.code = code;
+      this.message = message;
+      this.detail = detail;
+      this.line = line;
+      this.offset = offset;
+      this.field = field;
+   }
+
+
+   /**
+    * Returns the code identifying the kind of problem.
+    */
+   public ErrorCode getCode()
+   {
+      return code;
+   }
+
+   /**
+    * Returns the one based number of the offending line, or zero if the problem is not
+    * associated with a line. A premature end reports the line which was expected.
+    */
+   public int getLineNumber()
+   {
+      return line;
+   }
+
+   /**
+    * Returns the offset in bytes from the start of the contents of the offending text,
+    * or -1 if the contents were not supplied as bytes.
+    */
+   public int getOffset()
+   {
+      return offset;
+   }
+
+   /**
+    * Returns the type letter of the offending field, or {@code 0} if the problem is not
+    * associated with a field.
+    */
+   public char getField()
+   {
+      return field;
+   }
+
+   /**
+    * Returns a description of the problem. This is the message an equivalent
+    * {@link SdpParseException} carries.
+    */
+   public String getMessage()
+   {
+      return (detail.length() == 0) ? message : message + detail;
+   }
+
+
+   @Override
+   public String toString()
+   {
+      return (line > 0) ? "line " + line + ": " + getMessage() : getMessage();
+   }
+
+}
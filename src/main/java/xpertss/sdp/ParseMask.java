@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.util.Arrays;
+
+/**
+ * Selects which parts of a description a {@link SessionParser} parses.
+ * <p>
+ * Lines which a mask excludes are still checked for ordering, and count towards the
+ * parser's limits, but their values are neither validated nor reported to the handler
+ * so no model objects are created for them. Excluded fields take the same defaults in
+ * the resulting Session Description as fields which are absent.
+ * <p>
+ * A mask can restrict the field types which are parsed, the media sections which are
+ * parsed by their media type, and the attributes which are parsed by their name. It
+ * can also drop attribute values, in which case attributes which differ only in their
+ * value are reduced to one.
+ * <p>
+ * Masks are immutable and may be shared. They are built using a {@link ParseMaskBuilder}.
+ * For example, to parse only the origin and the m= lines of each media section:
+ * <pre>
+ *   SessionParser parser = new SessionParser(ParseMaskBuilder.create().setFields("om").build());
+ * </pre>
+ */
+public final class ParseMask {
+
+   // every field type in the order it appears within a description
+   static final String FIELDS = "vosiuepcbtrzkam";
+
+   /**
+    * Parses everything, which is what a parser uses if no mask is given.
+    */
+   public static final ParseMask ALL = ParseMaskBuilder.create().build();
+
+   /**
+    * Parses the session level fields only, skipping every media section.
+    */
+   public static final ParseMask SESSION_ONLY = ParseMaskBuilder.create().setFields("vosiuepcbtrzka").build();
+
+   private final int fields;
+   private final String[] mediaTypes;
+   private final String[] attributeNames;
+   private final boolean attributeValues;
+
+   ParseMask(int fields, String[] mediaTypes, String[] attributeNames, boolean attributeValues)
+   {
+      this.fields = fields;
+      this.mediaTypes = mediaTypes;
+      this.attributeNames = attributeNames;
+      this.attributeValues = attributeValues;
+   }
+
+
+   /**
+    * Returns {@code true} if fields of the given type are parsed.
+    */
+   public boolean includes(char type)
+   {
+      return type >= 'a' && type <= 'z' && (fields & bit(type)) != 0;
+   }
+
+   /**
+    * Returns {@code true} if media sections of the given media type are parsed.
+    */
+   public boolean includesMedia(String type)
+   {
+      return includes('m') && (mediaTypes == null || matches(mediaTypes, type, 0, type.length()));
+   }
+
+   /**
+    * Returns {@code true} if attributes with the given name are parsed.
+    */
+   public boolean includesAttribute(String name)
+   {
+      return includes('a') && (attributeNames == null || matches(attributeNames, name, 0, name.length()));
+   }
+
+   /**
+    * Returns {@code true} if attribute values are parsed.
+    */
+   public boolean includesAttributeValues()
+   {
+      return attributeValues;
+   }
+
+
+   @Override
+   public String toString()
+   {
+      StringBuilder buf = new StringBuilder("ParseMask{fields=");
+      for(char type : FIELDS.toCharArray()) if(includes(type)) buf.append(type);
+      if(mediaTypes != null) buf.append(", media=").append(Arrays.toString(mediaTypes));
+      if(attributeNames != null) buf.append(", attributes=").append(Arrays.toString(attributeNames));
+      if(!attributeValues) buf.append(", no values");
+      return buf.append("}").toString();
+   }
+
+
+
+
+   /**
+    * Returns {@code true} if the m= line in the given line is to be parsed. Only its
+    * media type is examined.
+    */
+   boolean acceptsMedia(CharSequence line)
+   {
+      if(mediaTypes == null) return true;
+      int end = 2;
+      while(end < line.length() && line.charAt(end) > ' ') end++;
+      return matches(mediaTypes, line, 2, end);
+   }
+
+   /**
+    * Returns {@code true} if the a= line in the given line is to be parsed. Only its
+    * name is examined.
+    */
+   boolean acceptsAttribute(CharSequence line)
+   {
+      if(attributeNames == null) return true;
+      int end = 2;
+      while(end < line.length() && line.charAt(end) != ':') end++;
+      return matches(attributeNames, line, 2, end);
+   }
+
+   /**
+    * Returns a mask which parses only those of the given field types which this mask
+    * also parses.
+    */
+   ParseMask retain(String types)
+   {
+      int bits = 0;
+      for(int i = 0; i < types.length(); i++) bits |= bit(types.charAt(i));
+      return new ParseMask(fields & bits, mediaTypes, attributeNames, attributeValues);
+   }
+
+   private static boolean matches(String[] values, CharSequence seq, int start, int end)
+   {
+      outer:
+      for(String value : values) {
+         if(value.length() != end - start) continue;
+         for(int i = 0; i < value.length(); i++) {
+            if(value.charAt(i) != seq.charAt(start + i)) continue outer;
+         }
+         return true;
+      }
+      return false;
+   }
+
+   static int bit(char type)
+   {
+      return 1 << (type - 'a');
+   }
+
+}
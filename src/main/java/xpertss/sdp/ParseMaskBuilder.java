@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import static xpertss.sdp.ParseMask.FIELDS;
+import static xpertss.sdp.ParseMask.bit;
+
+/**
+ * Builder used to build {@link ParseMask} objects. A new builder parses everything
+ * until it is restricted.
+ * <pre>
+ *   ParseMask mask = ParseMaskBuilder.create().setFields("om").setMediaTypes("audio").build();
+ * </pre>
+ * An instance of mask builder is not thread safe.
+ */
+public final class ParseMaskBuilder {
+
+   private int fields;
+   private String[] mediaTypes;
+   private String[] attributeNames;
+   private boolean attributeValues = true;
+
+   private ParseMaskBuilder()
+   {
+      setFields(FIELDS);
+   }
+
+
+   /**
+    * Set the types of the fields to parse, for example {@code "om"}. The i, c, b, k
+    * and a types apply to both the session and media sections while excluding m
+    * skips every media section. Repeat times belong to their time so excluding t
+    * also excludes r.
+    *
+    * @throws NullPointerException If types is null
+    * @throws IllegalArgumentException If types contains an unknown field type
+    */
+   public ParseMaskBuilder setFields(String types)
+   {
+      int bits = 0;
+      for(char type : types.toCharArray()) {
+         if(FIELDS.indexOf(type) < 0) throw new IllegalArgumentException("unknown field type: " + type);
+         bits |= bit(type);
+      }
+      if((bits & bit('t')) == 0) bits &= ~bit('r');
+      this.fields = bits;
+      return this;
+   }
+
+   /**
+    * Parse only the media sections whose media type is one of those given, such
+    * as {@code "audio"}. All media sections are parsed if none are given.
+    */
+   public ParseMaskBuilder setMediaTypes(String ... types)
+   {
+      this.mediaTypes = (types == null || types.length == 0) ? null : types.clone();
+      return this;
+   }
+
+   /**
+    * Parse only the attributes whose name is one of those given, such as
+    * {@code "rtpmap"}. All attributes are parsed if none are given.
+    */
+   public ParseMaskBuilder setAttributeNames(String ... names)
+   {
+      this.attributeNames = (names == null || names.length == 0) ? null : names.clone();
+      return this;
+   }
+
+   /**
+    * Set whether attribute values are parsed. When they are not every attribute
+    * is reported without a value.
+    */
+   public ParseMaskBuilder setAttributeValues(boolean include)
+   {
+      this.attributeValues = include;
+      return this;
+   }
+
+
+   /**
+    * Build the mask.
+    */
+   public ParseMask build()
+   {
+      return new ParseMask(fields, mediaTypes, attributeNames, attributeValues);
+   }
+
+
+
+
+   /**
+    * Creates a builder which initially parses everything.
+    */
+   public static ParseMaskBuilder create()
+   {
+      return new ParseMaskBuilder();
+   }
+
+}
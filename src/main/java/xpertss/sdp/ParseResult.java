@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a parse which reports problems as values rather than by throwing:
+ * either the parsed Session Description or the error which prevented it from being
+ * parsed, along with any warnings about lines a lenient parse skipped.
+ *
+ * @see SessionParser#tryParse(java.nio.ByteBuffer)
+ * @see SessionParser#parseLenient(java.nio.ByteBuffer)
+ */
+public final class ParseResult {
+
+   private final SessionDescription description;
+   private final ParseError error;
+   private final List<ParseError> warnings;
+
+   private ParseResult(SessionDescription description, ParseError error, List<ParseError> warnings)
+   {
+      this.description = description;
+      this.error = error;
+      this.warnings = (warnings == null) ? Collections.<ParseError>emptyList()
+                                         : Collections.unmodifiableList(warnings);
+   }
+
+
+   /**
+    * Returns {@code true} if the contents were parsed into a Session Description.
+    */
+   public boolean isSuccess()
+   {
+      return error == null;
+   }
+
+   /**
+    * Returns the parsed Session Description, or {@code null} if the parse failed.
+    */
+   public SessionDescription getDescription()
+   {
+      return description;
+   }
+
+   /**
+    * Returns the error which caused the parse to fail, or {@code null} if it succeeded.
+    */
+   public ParseError getError()
+   {
+      return error;
+   }
+
+   /**
+    * Returns the problems which were skipped over by a lenient parse in the order they
+    * were found. This is always empty for a strict parse.
+    */
+   public List<ParseError> getWarnings()
+   {
+      return warnings;
+   }
+
+
+   @Override
+   public String toString()
+   {
+      return (error == null) ? "success" + ((warnings.isEmpty()) ? "" : " " + warnings) : "failure " + error;
+   }
+
+
+
+
+   static ParseResult success(SessionDescription description, List<ParseError> warnings)
+   {
+      return new ParseResult(description, null, warnings);
+   }
+
+   static ParseResult failure(ParseError error, List<ParseError> warnings)
+   {
+      return new ParseResult(null, error, warnings);
+   }
+
+}
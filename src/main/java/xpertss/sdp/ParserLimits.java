@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * Bounds on the size and shape of the descriptions a {@link SessionParser} will accept.
+ * <p>
+ * Limits are checked as each line is read and a violation aborts the parse immediately
+ * with the corresponding {@link ErrorCode}, even when parsing leniently. When parsing a
+ * ByteBuffer, a byte array, a CharSequence or a stream or channel of known length the
+ * lines are located in place, or the declared length is checked before anything is
+ * read, so nothing is allocated for a line which exceeds them. This gives the cost of
+ * parsing untrusted input a predictable upper bound.
+ * <p>
+ * The String, Path, Reader and unbounded InputStream entry points read their input
+ * through a {@link java.util.Scanner} which buffers each whole line before it can be
+ * measured. The limits still reject such a description, but only once the offending
+ * line has been read into memory, so those entry points should not be given untrusted
+ * input of unknown size.
+ * <p>
+ * Byte inputs are measured in bytes. Text inputs, such as strings and readers, are
+ * measured in characters with each line terminator counting as one.
+ * <p>
+ * Limits are immutable and may be shared. They are built using a
+ * {@link ParserLimitsBuilder} as follows:
+ * <pre>
+ *   ParserLimits limits = ParserLimitsBuilder.create().setMaxBytes(16 * 1024)
+ *                                                     .setMaxLineLength(1024)
+ *                                                     .setMaxMedia(8).build();
+ *   SessionParser parser = new SessionParser(limits);
+ * </pre>
+ */
+public final class ParserLimits {
+
+   /**
+    * No limits at all, which is what a parser uses if none are given.
+    */
+   public static final ParserLimits UNLIMITED = ParserLimitsBuilder.create().build();
+
+   private final int maxBytes;
+   private final int maxLineLength;
+   private final int maxMedia;
+   private final int maxAttributes;
+   private final int maxFormats;
+   private final int maxRepeatOffsets;
+
+   ParserLimits(int maxBytes, int maxLineLength, int maxMedia, int maxAttributes,
+                int maxFormats, int maxRepeatOffsets)
+   {
+      this.maxBytes = maxBytes;
+      this.maxLineLength = maxLineLength;
+      this.maxMedia = maxMedia;
+      this.maxAttributes = maxAttributes;
+      this.maxFormats = maxFormats;
+      this.maxRepeatOffsets = maxRepeatOffsets;
+   }
+
+
+   /**
+    * The maximum size of a description including its line terminators.
+    */
+   public int getMaxBytes()
+   {
+      return maxBytes;
+   }
+
+   /**
+    * The maximum length of a single line excluding its terminator.
+    */
+   public int getMaxLineLength()
+   {
+      return maxLineLength;
+   }
+
+   /**
+    * The maximum number of media descriptions.
+    */
+   public int getMaxMedia()
+   {
+      return maxMedia;
+   }
+
+   /**
+    * The maximum number of attribute lines in the session section or in any one
+    * media section.
+    */
+   public int getMaxAttributes()
+   {
+      return maxAttributes;
+   }
+
+   /**
+    * The maximum number of formats on a single m= line.
+    */
+   public int getMaxFormats()
+   {
+      return maxFormats;
+   }
+
+   /**
+    * The maximum number of offsets on a single r= line.
+    */
+   public int getMaxRepeatOffsets()
+   {
+      return maxRepeatOffsets;
+   }
+
+
+   @Override
+   public String toString()
+   {
+      return "ParserLimits{bytes=" + maxBytes + ", lineLength=" + maxLineLength + ", media=" + maxMedia +
+               ", attributes=" + maxAttributes + ", formats=" + maxFormats + ", repeatOffsets=" + maxRepeatOffsets + "}";
+   }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Numbers;
+
+/**
+ * Builder used to build {@link ParserLimits}. Each limit must be a positive number and
+ * any which are not set are unbounded.
+ * <pre>
+ *   ParserLimits limits = ParserLimitsBuilder.create().setMaxBytes(16 * 1024)
+ *                                                     .setMaxLineLength(1024).build();
+ * </pre>
+ * An instance of limits builder is not thread safe.
+ */
+public final class ParserLimitsBuilder {
+
+   private int maxBytes = Integer.MAX_VALUE;
+   private int maxLineLength = Integer.MAX_VALUE;
+   private int maxMedia = Integer.MAX_VALUE;
+   private int maxAttributes = Integer.MAX_VALUE;
+   private int maxFormats = Integer.MAX_VALUE;
+   private int maxRepeatOffsets = Integer.MAX_VALUE;
+
+   private ParserLimitsBuilder(ParserLimits src)
+   {
+      if(src != null) {
+         maxBytes = src.getMaxBytes();
+         maxLineLength = src.getMaxLineLength();
+         maxMedia = src.getMaxMedia();
+         maxAttributes = src.getMaxAttributes();
+         maxFormats = src.getMaxFormats();
+         maxRepeatOffsets = src.getMaxRepeatOffsets();
+      }
+   }
+
+
+   /**
+    * Set the maximum size of a description including its line terminators.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxBytes(int maxBytes)
+   {
+      this.maxBytes = Numbers.gt(0, maxBytes, "maxBytes must be positive");
+      return this;
+   }
+
+   /**
+    * Set the maximum length of a single line excluding its terminator.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxLineLength(int maxLineLength)
+   {
+      this.maxLineLength = Numbers.gt(0, maxLineLength, "maxLineLength must be positive");
+      return this;
+   }
+
+   /**
+    * Set the maximum number of media descriptions.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxMedia(int maxMedia)
+   {
+      this.maxMedia = Numbers.gt(0, maxMedia, "maxMedia must be positive");
+      return this;
+   }
+
+   /**
+    * Set the maximum number of attribute lines in the session section or in any
+    * one media section.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxAttributes(int maxAttributes)
+   {
+      this.maxAttributes = Numbers.gt(0, maxAttributes, "maxAttributes must be positive");
+      return this;
+   }
+
+   /**
+    * Set the maximum number of formats on a single m= line.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxFormats(int maxFormats)
+   {
+      this.maxFormats = Numbers.gt(0, maxFormats, "maxFormats must be positive");
+      return this;
+   }
+
+   /**
+    * Set the maximum number of offsets on a single r= line.
+    *
+    * @throws IllegalArgumentException If the limit is not positive
+    */
+   public ParserLimitsBuilder setMaxRepeatOffsets(int maxRepeatOffsets)
+   {
+      this.maxRepeatOffsets = Numbers.gt(0, maxRepeatOffsets, "maxRepeatOffsets must be positive");
+      return this;
+   }
+
+
+   /**
+    * Build the limits.
+    */
+   public ParserLimits build()
+   {
+      return new ParserLimits(maxBytes, maxLineLength, maxMedia, maxAttributes, maxFormats, maxRepeatOffsets);
+   }
+
+
+
+
+   /**
+    * Creates a builder whose limits are all initially unbounded.
+    */
+   public static ParserLimitsBuilder create()
+   {
+      return new ParserLimitsBuilder(null);
+   }
+
+   /**
+    * Creates a builder with its limits pre-set to those of the specified limits.
+    */
+   public static ParserLimitsBuilder create(ParserLimits src)
+   {
+      return new ParserLimitsBuilder(src);
+   }
+
+}
@@ -112,13 +112,11 @@ public final class RepeatTime extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=").append(Utils.toCompactTime(interval));
-      buf.append(" ").append(Utils.toCompactTime(duration));
-      for(long offset: offsets) buf.append(" ").append(Utils.toCompactTime(offset));
-      return buf.toString();
+      out.put(getTypeChar()).put('=').putTime(interval);
+      out.put(' ').putTime(duration);
+      for(long offset: offsets) out.put(' ').putTime(offset);
    }
 }
 
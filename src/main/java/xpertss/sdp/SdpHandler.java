@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+/**
+ * Receives the fields of an SDP as they are parsed by
+ * {@link SessionParser#parse(java.nio.ByteBuffer, SdpHandler)} and its siblings.
+ * <p>
+ * Callbacks arrive in document order and the parser enforces the same field ordering
+ * it does when building a {@link SessionDescription}, but no model objects are ever
+ * created. The i=, c=, b=, k= and a= fields are reported through the same callbacks at
+ * both the session and media level. Those which follow {@link #onMediaStart} and
+ * precede the matching {@link #onMediaEnd} belong to that media description.
+ * <p>
+ * The CharSequence arguments are views into the parser's input which are reused as
+ * soon as the callback returns. A handler which needs to retain a value must call
+ * {@code toString()} on it. When parsing bytes the views present each byte of the
+ * UTF-8 input as a char which is sufficient to compare the ASCII tokens that make up
+ * SDP. Their {@code toString()} decodes the value properly.
+ * <p>
+ * Every callback does nothing by default so a handler need only implement those it is
+ * interested in. A handler may abort the parse by throwing an unchecked exception
+ * which the parser will propagate to its caller.
+ */
+public interface SdpHandler {
+
+   /**
+    * Called with the protocol version (v=).
+    */
+   default void onVersion(int version) { }
+
+   /**
+    * Called with the components of the originator and session identifier (o=).
+    */
+   default void onOrigin(CharSequence username, CharSequence sessionId, long sessionVersion,
+                         CharSequence networkType, CharSequence addressType, CharSequence address) { }
+
+   /**
+    * Called with the session name (s=).
+    */
+   default void onSessionName(CharSequence name) { }
+
+   /**
+    * Called with the session or media information (i=).
+    */
+   default void onInfo(CharSequence info) { }
+
+   /**
+    * Called with the URI of the description (u=).
+    */
+   default void onUri(CharSequence uri) { }
+
+   /**
+    * Called once for each email address (e=).
+    */
+   default void onEmail(CharSequence email) { }
+
+   /**
+    * Called once for each phone number (p=).
+    */
+   default void onPhone(CharSequence phone) { }
+
+   /**
+    * Called with the session or media connection information (c=).
+    */
+   default void onConnection(CharSequence networkType, CharSequence addressType, CharSequence address) { }
+
+   /**
+    * Called once for each session or media bandwidth (b=).
+    */
+   default void onBandwidth(CharSequence type, int kbps) { }
+
+   /**
+    * Called with the start and stop times of each time description (t=) expressed
+    * as NTP seconds. Zero indicates an unbounded time.
+    */
+   default void onTime(long start, long stop) { }
+
+   /**
+    * Called once for each repeat time (r=) of the most recent time description. All
+    * values are expressed in seconds.
+    */
+   default void onRepeatTime(long interval, long duration, long[] offsets) { }
+
+   /**
+    * Called once for each adjustment listed in the time zones field (z=). The time is
+    * expressed as NTP seconds and the offset in seconds.
+    */
+   default void onTimeZone(long time, long offset) { }
+
+   /**
+    * Called with the session or media encryption key (k=). The key will be null if the
+    * method does not require one.
+    */
+   default void onKey(CharSequence method, CharSequence key) { }
+
+   /**
+    * Called once for each session or media attribute (a=). The value will be null for
+    * property attributes.
+    */
+   default void onAttribute(CharSequence name, CharSequence value) { }
+
+   /**
+    * Called with the media field (m=) which begins each media description.
+    */
+   default void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats) { }
+
+   /**
+    * Called when the current media description ends.
+    */
+   default void onMediaEnd() { }
+
+   /**
+    * Called once the entire session description has been successfully parsed.
+    */
+   default void onEnd() { }
+
+}
@@ -7,6 +7,8 @@ package xpertss.sdp;
 
 public class SdpParseException extends RuntimeException {
 
+   private transient ParseError error;
+
    public SdpParseException()
    {
       super();
@@ -27,5 +29,20 @@ public class SdpParseException extends RuntimeException {
       super(msg, cause);
    }
 
+   SdpParseException(ParseError error)
+   {
+      super(error.getMessage());
+      this.error = error;
+   }
+
+
+   /**
+    * Returns the structured description of the problem, or {@code null} if this
+    * exception did not originate from the parser's checks.
+    */
+   public ParseError getError()
+   {
+      return error;
+   }
 
 }
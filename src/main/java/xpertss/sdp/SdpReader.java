@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads a sequence of session descriptions from a single stream, such as a capture
+ * log, in which each description is separated from the next by one or more blank
+ * lines.
+ * <p>
+ * The stream is read in chunks and, when read through the {@link Iterator} interface
+ * or a sequential stream, only one description is held in memory at a time so
+ * arbitrarily large streams may be read. The reader's {@link #spliterator()
+ * spliterator} splits by handing off batches of complete, unparsed documents so that
+ * a parallel stream parses them concurrently while the stream itself is read
+ * sequentially:
+ * <pre>
+ *   try(SdpReader reader = parser.newReader(Files.newInputStream(capture))) {
+ *      StreamSupport.stream(reader.spliterator(), true).forEach(...);
+ *   }
+ * </pre>
+ * Each batch holds up to 1024 more documents than the one before it, but a batch is
+ * closed once it holds 4MB of document text. A parallel stream therefore holds about
+ * that much raw text for each batch it has split off and not yet parsed.
+ * <p>
+ * A malformed description causes an {@link SdpParseException} to be thrown for that
+ * description, after which an iterator may continue with the next one. An error
+ * reading the stream is thrown as an {@link UncheckedIOException}.
+ * <p>
+ * Readers are not thread safe, and the iterator and spliterator of a reader share its
+ * position in the stream so only one of them should be used.
+ */
+public final class SdpReader implements Iterator<SessionDescription>, Closeable {
+
+   // The number of documents handed off by the first split, which grows by the same
+   // amount with each subsequent split up to a bound on the batch's total size
+   private static final int BATCH_UNIT = 1024;
+   private static final int MAX_BATCH_BYTES = 4 << 20;
+
+   private final SessionParser parser;
+   private final InputStream in;
+   private final int maxBytes;
+
+   private byte[] buf = new byte[8192];
+   private int pos;
+   private int limit;
+   private boolean eof;
+
+   private byte[] next;
+
+   SdpReader(SessionParser parser, InputStream in)
+   {
+      this.parser = parser;
+      this.in = in;
+      this.maxBytes = parser.getLimits().getMaxBytes();
+   }
+
+
+   /**
+    * Returns {@code true} if the stream holds another description.
+    *
+    * @throws UncheckedIOException If an I/O error occurs reading the stream
+    */
+   @Override
+   public boolean hasNext()
+   {
+      if(next == null) next = read();
+      return next != null;
+   }
+
+   /**
+    * Parse and return the next description in the stream.
+    *
+    * @throws NoSuchElementException If there are no more descriptions
+    * @throws SdpParseException If the next description is malformed
+    * @throws UncheckedIOException If an I/O error occurs reading the stream
+    */
+   @Override
+   public SessionDescription next()
+   {
+      if(!hasNext()) throw new NoSuchElementException();
+      byte[] doc = next;
+      next = null;
+      return parser.parse(doc, 0, doc.length);
+   }
+
+   /**
+    * Returns a spliterator over the remaining descriptions in the stream which splits
+    * at document boundaries.
+    */
+   public Spliterator<SessionDescription> spliterator()
+   {
+      return new Documents();
+   }
+
+   /**
+    * Close the underlying stream.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      next = null;
+      in.close();
+   }
+
+
+
+
+   private byte[] read()
+   {
+      try {
+         return readDocument();
+      } catch(IOException e) {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   /**
+    * Returns the bytes of the next document, excluding the blank line which ends it,
+    * or {@code null} if the stream holds no more documents. A document larger than the
+    * parser's byte limit is truncated to one byte beyond it, so that parsing it fails,
+    * and the remainder is skipped without being retained.
+    */
+   private byte[] readDocument() throws IOException
+   {
+      byte[] oversized = null;
+      boolean empty = true;
+      int line = pos;         // start of the current line
+      int skipped = 0;        // bytes of the current line already discarded
+      int scan = pos;         // where the search for the current line's end resumes
+      while(true) {
+         int nl = indexOf('\n', scan);
+         if(nl < 0) {
+            if(eof) {
+               if(oversized != null) return finish(oversized, limit);
+               if(empty) pos = line;
+               if(pos == limit) return null;
+               return finish(Arrays.copyOfRange(buf, pos, limit), limit);
+            }
+            int start = (empty) ? line : pos;
+            if(oversized == null && limit - start > maxBytes) {
+               oversized = Arrays.copyOfRange(buf, start, start + maxBytes + 1);
+               empty = false;
+            }
+            if(oversized != null) {
+               // keep no more than a trailing CR which may precede the line's LF
+               int keep = (limit > line && buf[limit - 1] == '\r') ? limit - 1 : limit;
+               skipped += keep - line;
+               line = pos = keep;
+            } else if(empty) {
+               pos = line;
+            }
+            scan = limit;
+            int shift = fill();
+            line -= shift;
+            scan -= shift;
+         } else {
+            int end = (nl > line && buf[nl - 1] == '\r') ? nl - 1 : nl;
+            if(end == line && skipped == 0) {
+               if(!empty) return finish((oversized != null) ? oversized : Arrays.copyOfRange(buf, pos, line), nl + 1);
+            } else if(empty) {
+               pos = line;
+               empty = false;
+            }
+            line = scan = nl + 1;
+            skipped = 0;
+            if(oversized == null && !empty && line - pos > maxBytes) {
+               oversized = Arrays.copyOfRange(buf, pos, pos + maxBytes + 1);
+            }
+            if(oversized != null) pos = line;
+         }
+      }
+   }
+
+   private byte[] finish(byte[] doc, int next)
+   {
+      pos = next;
+      return doc;
+   }
+
+   private int indexOf(int b, int from)
+   {
+      for(int i = from; i < limit; i++) {
+         if(buf[i] == b) return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Discard the bytes preceding pos and read more of the stream, growing the buffer
+    * if it is full, returning the number of bytes by which the retained bytes moved.
+    */
+   private int fill() throws IOException
+   {
+      int shift = pos;
+      if(shift > 0) {
+         System.arraycopy(buf, shift, buf, 0, limit - shift);
+         limit -= shift;
+         pos = 0;
+      }
+      if(limit == buf.length) {
+         if(buf.length == Integer.MAX_VALUE - 8) throw new IOException("document exceeds maximum buffer size");
+         buf = Arrays.copyOf(buf, (int) Math.min((long) buf.length * 2, Integer.MAX_VALUE - 8));
+      }
+      int read = in.read(buf, limit, buf.length - limit);
+      if(read < 0) eof = true;
+      else limit += read;
+      return shift;
+   }
+
+
+
+
+   private final class Documents implements Spliterator<SessionDescription> {
+
+      private int batch;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super SessionDescription> action)
+      {
+         if(!hasNext()) return false;
+         action.accept(next());
+         return true;
+      }
+
+      @Override
+      public Spliterator<SessionDescription> trySplit()
+      {
+         int size = batch + BATCH_UNIT;
+         byte[][] docs = new byte[Math.min(size, BATCH_UNIT)][];
+         int count = 0;
+         long bytes = 0;
+         while(count < size && bytes < MAX_BATCH_BYTES && hasNext()) {
+            if(count == docs.length) docs = Arrays.copyOf(docs, Math.min(size, docs.length * 2));
+            bytes += next.length;
+            docs[count++] = next;
+            next = null;
+         }
+         if(count == 0) return null;
+         batch = count;
+         return new Batch(parser, docs, 0, count);
+      }
+
+      @Override
+      public long estimateSize()
+      {
+         return Long.MAX_VALUE;
+      }
+
+      @Override
+      public int characteristics()
+      {
+         return ORDERED | NONNULL;
+      }
+   }
+
+   private static final class Batch implements Spliterator<SessionDescription> {
+
+      private final SessionParser parser;
+      private final byte[][] docs;
+      private int index;
+      private final int end;
+
+      private Batch(SessionParser parser, byte[][] docs, int index, int end)
+      {
+         this.parser = parser;
+         this.docs = docs;
+         this.index = index;
+         this.end = end;
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super SessionDescription> action)
+      {
+         if(index >= end) return false;
+         byte[] doc = docs[index];
+         docs[index++] = null;
+         action.accept(parser.parse(doc, 0, doc.length));
+         return true;
+      }
+
+      @Override
+      public Spliterator<SessionDescription> trySplit()
+      {
+         int mid = (index + end) >>> 1;
+         if(mid <= index) return null;
+         Spliterator<SessionDescription> prefix = new Batch(parser, docs, index, mid);
+         index = mid;
+         return prefix;
+      }
+
+      @Override
+      public long estimateSize()
+      {
+         return end - index;
+      }
+
+      @Override
+      public int characteristics()
+      {
+         return ORDERED | NONNULL | SIZED | SUBSIZED;
+      }
+   }
+
+}
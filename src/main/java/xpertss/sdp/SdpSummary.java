@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Objects;
+
+import java.util.Arrays;
+
+/**
+ * A flat summary of the values most often used to route or deduplicate a session
+ * description: its origin, its connection addresses and the transport of each of its
+ * media sections.
+ * <p>
+ * A summary is produced by {@link SessionParser#summarize(java.nio.ByteBuffer)} in a
+ * single pass over the contents without building a Session Description. Media values
+ * are held in primitive arrays indexed by media section and are accessed by index so
+ * nothing is copied when they are read.
+ */
+public final class SdpSummary {
+
+   private static final String[] NO_STRINGS = new String[0];
+   private static final int[] NO_INTS = new int[0];
+
+   private final String username;
+   private final String sessionId;
+   private final long sessionVersion;
+   private final String address;
+
+   private final String[] types;
+   private final int[] ports;
+   private final String[] protocols;
+   private final String[] addresses;
+
+   // formats of media i are formats[offsets[i]] up to formats[offsets[i + 1]]
+   private final int[] offsets;
+   private final int[] formats;
+
+   private SdpSummary(Collector collector)
+   {
+      int count = collector.count;
+      this.username = collector.username;
+      this.sessionId = collector.sessionId;
+      this.sessionVersion = collector.sessionVersion;
+      this.address = collector.address;
+      this.types = (count == 0) ? NO_STRINGS : Arrays.copyOf(collector.types, count);
+      this.ports = (count == 0) ? NO_INTS : Arrays.copyOf(collector.ports, count);
+      this.protocols = (count == 0) ? NO_STRINGS : Arrays.copyOf(collector.protocols, count);
+      this.addresses = (count == 0) ? NO_STRINGS : Arrays.copyOf(collector.addresses, count);
+      this.offsets = Arrays.copyOf(collector.offsets, count + 1);
+      this.formats = Arrays.copyOf(collector.formats, collector.offsets[count]);
+   }
+
+
+   /**
+    * The origin's username.
+    */
+   public String getUsername()
+   {
+      return username;
+   }
+
+   /**
+    * The origin's session id.
+    */
+   public String getSessionId()
+   {
+      return sessionId;
+   }
+
+   /**
+    * The origin's session version.
+    */
+   public long getSessionVersion()
+   {
+      return sessionVersion;
+   }
+
+   /**
+    * The session level connection address or {@code null} if there is none.
+    */
+   public String getAddress()
+   {
+      return address;
+   }
+
+
+
+
+   /**
+    * The number of media sections.
+    */
+   public int getMediaCount()
+   {
+      return types.length;
+   }
+
+   /**
+    * The media type of the given media section, such as audio or video.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public String getMediaType(int media)
+   {
+      return types[media];
+   }
+
+   /**
+    * The transport port of the given media section.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public int getPort(int media)
+   {
+      return ports[media];
+   }
+
+   /**
+    * The transport protocol of the given media section.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public String getProtocol(int media)
+   {
+      return protocols[media];
+   }
+
+   /**
+    * The connection address of the given media section, which falls back to the
+    * session level address if the media section does not define its own.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public String getAddress(int media)
+   {
+      String result = addresses[media];
+      return (result == null) ? address : result;
+   }
+
+   /**
+    * The number of formats on the given media section.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public int getFormatCount(int media)
+   {
+      return offsets[media + 1] - offsets[media];
+   }
+
+   /**
+    * The format at the given index on the given media section.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section or format
+    */
+   public int getFormat(int media, int index)
+   {
+      if(index < 0 || index >= getFormatCount(media)) throw new IndexOutOfBoundsException("format " + index);
+      return formats[offsets[media] + index];
+   }
+
+   /**
+    * A copy of the formats on the given media section.
+    *
+    * @throws IndexOutOfBoundsException If there is no such media section
+    */
+   public int[] getFormats(int media)
+   {
+      return Arrays.copyOfRange(formats, offsets[media], offsets[media + 1]);
+   }
+
+
+
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if(obj instanceof SdpSummary) {
+         SdpSummary o = (SdpSummary) obj;
+         return sessionVersion == o.sessionVersion && Objects.equal(username, o.username) &&
+                  Objects.equal(sessionId, o.sessionId) && Objects.equal(address, o.address) &&
+                  Arrays.equals(types, o.types) && Arrays.equals(ports, o.ports) &&
+                  Arrays.equals(protocols, o.protocols) && Arrays.equals(addresses, o.addresses) &&
+                  Arrays.equals(offsets, o.offsets) && Arrays.equals(formats, o.formats);
+      }
+      return false;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      int result = Objects.hash(username, sessionId, sessionVersion, address);
+      result = 31 * result + Arrays.hashCode(ports);
+      return 31 * result + Arrays.hashCode(formats);
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder buf = new StringBuilder("SdpSummary{origin=");
+      buf.append(username).append(' ').append(sessionId).append(' ').append(sessionVersion);
+      if(address != null) buf.append(", address=").append(address);
+      for(int i = 0; i < types.length; i++) {
+         buf.append(", ").append(types[i]).append(' ').append(ports[i]).append(' ').append(protocols[i]);
+         for(int j = offsets[i]; j < offsets[i + 1]; j++) buf.append(' ').append(formats[j]);
+         if(addresses[i] != null) buf.append(" @").append(addresses[i]);
+      }
+      return buf.append("}").toString();
+   }
+
+
+
+
+   /**
+    * Collects the summarized values as they are reported by the parser. Its scratch
+    * arrays grow to fit the largest description seen and are reused thereafter.
+    */
+   static final class Collector implements SdpHandler {
+
+      private String username;
+      private String sessionId;
+      private long sessionVersion;
+      private String address;
+
+      private int count;
+      private String[] types = new String[4];
+      private int[] ports = new int[4];
+      private String[] protocols = new String[4];
+      private String[] addresses = new String[4];
+      private int[] offsets = new int[5];
+      private int[] formats = new int[16];
+
+      @Override
+      public void onOrigin(CharSequence username, CharSequence sessionId, long sessionVersion,
+                           CharSequence networkType, CharSequence addressType, CharSequence address)
+      {
+         this.username = username.toString();
+         this.sessionId = sessionId.toString();
+         this.sessionVersion = sessionVersion;
+      }
+
+      @Override
+      public void onConnection(CharSequence networkType, CharSequence addressType, CharSequence address)
+      {
+         if(count == 0) this.address = address.toString();
+         else addresses[count - 1] = address.toString();
+      }
+
+      @Override
+      public void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats)
+      {
+         if(count == types.length) {
+            types = Arrays.copyOf(types, count * 2);
+            ports = Arrays.copyOf(ports, count * 2);
+            protocols = Arrays.copyOf(protocols, count * 2);
+            addresses = Arrays.copyOf(addresses, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2 + 1);
+         }
+         int start = offsets[count];
+         if(start + formats.length > this.formats.length) {
+            this.formats = Arrays.copyOf(this.formats, Math.max(this.formats.length * 2, start + formats.length));
+         }
+         System.arraycopy(formats, 0, this.formats, start, formats.length);
+         types[count] = type.toString();
+         ports[count] = port;
+         protocols[count] = protocol.toString();
+         addresses[count] = null;
+         offsets[++count] = start + formats.length;
+      }
+
+      /**
+       * Returns a summary of the collected values.
+       */
+      SdpSummary build()
+      {
+         return new SdpSummary(this);
+      }
+
+      /**
+       * Clear the collected values so that the collector may be reused.
+       */
+      void reset()
+      {
+         Arrays.fill(types, 0, count, null);
+         Arrays.fill(protocols, 0, count, null);
+         Arrays.fill(addresses, 0, count, null);
+         username = sessionId = address = null;
+         sessionVersion = 0;
+         count = 0;
+      }
+   }
+
+}
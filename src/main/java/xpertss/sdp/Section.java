@@ -5,8 +5,156 @@
  */
 package xpertss.sdp;
 
+import xpertss.lang.Objects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.function.Consumer;
 
 abstract class Section implements Serializable, Cloneable {
 
+   // the encoded form written by writeTo, computed when first needed
+   private transient volatile byte[] encoded;
+
+
+   /**
+    * Returns the number of bytes this description occupies when written as UTF-8
+    * encoded, CRLF terminated lines by {@link #writeTo(ByteBuffer)} or
+    * {@link #writeTo(OutputStream)}.
+    * <p>
+    * The encoded form is computed once and retained so that subsequent calls to
+    * either of those methods are simply a copy of it.
+    */
+   public int serializedLength()
+   {
+      return encoded().length;
+   }
+
+   /**
+    * Write the lines of this description to the given Appendable, each terminated by
+    * CRLF as RFC 4566 requires. Each field is appended token by token without being
+    * assembled into a String first.
+    *
+    * @throws IOException If the Appendable throws one
+    * @throws NullPointerException If the Appendable is null
+    */
+   public void writeTo(Appendable out) throws IOException
+   {
+      try {
+         write(new OutputBuilder(Objects.notNull(out, "out"), OutputBuilder.CRLF));
+      } catch(UncheckedIOException e) {
+         throw e.getCause();
+      }
+   }
+
+   /**
+    * Write the lines of this description to the given buffer as UTF-8 encoded bytes,
+    * each terminated by CRLF, advancing its position past them.
+    *
+    * @throws BufferOverflowException If the buffer has insufficient space remaining,
+    *          in which case its position is unchanged
+    * @throws ReadOnlyBufferException If the buffer is read only
+    * @throws NullPointerException If the buffer is null
+    */
+   public void writeTo(ByteBuffer buf) throws BufferOverflowException, ReadOnlyBufferException
+   {
+      if(buf.isReadOnly()) throw new ReadOnlyBufferException();
+      if(isCacheable()) {
+         byte[] data = encoded();
+         if(buf.remaining() < data.length) throw new BufferOverflowException();
+         buf.put(data);
+         return;
+      }
+      try {
+         ByteSink sink = new ByteSink(buf);
+         write(new OutputBuilder(sink));
+         sink.flush();
+      } catch(IOException | UncheckedIOException e) {
+         throw new Error(e);
+      }
+   }
+
+   /**
+    * Write the lines of this description to the given stream as UTF-8 encoded bytes,
+    * each terminated by CRLF. The stream is neither flushed nor closed.
+    *
+    * @throws IOException If an I/O error occurs writing to the stream
+    * @throws NullPointerException If the stream is null
+    */
+   public void writeTo(OutputStream out) throws IOException
+   {
+      Objects.notNull(out, "out");
+      if(isCacheable()) {
+         out.write(encoded());
+         return;
+      }
+      ByteSink sink = new ByteSink(out);
+      try {
+         write(new OutputBuilder(sink));
+      } catch(UncheckedIOException e) {
+         throw e.getCause();
+      }
+      sink.flush();
+   }
+
+
+   @Override
+   public String toString()
+   {
+      OutputBuilder buf = new OutputBuilder();
+      write(buf);
+      return buf.toString();
+   }
+
+   /**
+    * Write each line of this section, including its line terminator, to the given
+    * output.
+    */
+   abstract void write(OutputBuilder out);
+
+   /**
+    * Returns {@code false} if the encoded form of this section should not be
+    * retained, as is the case for descriptions which are decoded on each access.
+    */
+   boolean isCacheable()
+   {
+      return true;
+   }
+
+   /**
+    * Returns the UTF-8 encoded, CRLF terminated form of this section which must not
+    * be modified.
+    */
+   byte[] encoded()
+   {
+      byte[] result = encoded;
+      if(result == null) {
+         result = encode(this::write);
+         if(isCacheable()) encoded = result;
+      }
+      return result;
+   }
+
+   /**
+    * Returns the UTF-8 encoded, CRLF terminated lines written by the given writer.
+    */
+   static byte[] encode(Consumer<OutputBuilder> writer)
+   {
+      ByteArrayOutputStream buf = new ByteArrayOutputStream(1024);
+      try {
+         ByteSink sink = new ByteSink(buf);
+         writer.accept(new OutputBuilder(sink));
+         sink.flush();
+      } catch(IOException e) {
+         throw new Error(e);
+      }
+      return buf.toByteArray();
+   }
+
 }
@@ -10,6 +10,14 @@ import java.net.InetAddress;
 
 public abstract class SectionBuilder<T extends SectionBuilder> {
 
+   /**
+    * Set the interner which supplies the tokens, such as attribute names, of the
+    * fields subsequently added to this builder. Nothing is interned by default.
+    *
+    * @throws NullPointerException If the interner is null
+    */
+   public abstract T setInterner(Interner interner);
+
    /**
     * Set the session info. This will be excluded if not specified.
     */
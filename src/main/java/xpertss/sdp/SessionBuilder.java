@@ -39,7 +39,7 @@ import static xpertss.sdp.SdpConstants.NETWORK_TYPE_INTERNET;
  * @see SessionDescription
  * @see OriginBuilder
  */
-public final class SessionBuilder {
+public final class SessionBuilder extends SectionBuilder<SessionBuilder> {
 
    private int version;
    private String name;
@@ -61,6 +61,8 @@ public final class SessionBuilder {
 
    private Set<Attribute> attributes = new LinkedHashSet<>();
 
+   private Interner interner = Interner.NONE;
+
 
    SessionBuilder(SessionDescription existing)
    {
@@ -84,6 +86,14 @@ public final class SessionBuilder {
    }
 
 
+   @Override
+   public SessionBuilder setInterner(Interner interner)
+   {
+      this.interner = Objects.notNull(interner, "interner");
+      return this;
+   }
+
+
    /**
     * Set the SDP version the Session description will use. This defaults to
     * zero if not specified.
@@ -335,7 +345,7 @@ public final class SessionBuilder {
     */
    public SessionBuilder setConnection(String address, String addressType, String networkType)
    {
-      connection = new Connection(address, addressType, networkType);
+      connection = new Connection(address, intern(addressType), intern(networkType));
       return this;
    }
 
@@ -385,7 +395,7 @@ public final class SessionBuilder {
     */
    public SessionBuilder addBandwidth(String type, int kbps)
    {
-      bandwidths.put(type, new BandWidth(type, kbps));
+      bandwidths.put(type, new BandWidth(intern(type), kbps));
       return this;
    }
 
@@ -433,7 +443,7 @@ public final class SessionBuilder {
     */
    public SessionBuilder setKey(String method, String key)
    {
-      this.key = new Key(method, key);
+      this.key = new Key(intern(method), key);
       return this;
    }
 
@@ -468,7 +478,7 @@ public final class SessionBuilder {
     */
    public SessionBuilder addAttribute(String name, String value)
    {
-      attributes.add(new Attribute(name, value));
+      attributes.add(interner.intern(new Attribute(intern(name), intern(value))));
       return this;
    }
 
@@ -632,6 +642,13 @@ public final class SessionBuilder {
 
 
 
+   private String intern(String value)
+   {
+      return (value == null) ? null : interner.intern(value);
+   }
+
+
+
 
    /**
     * Create a new uninitialized SessionBuilder.
@@ -11,6 +11,11 @@ import xpertss.lang.Numbers;
 import xpertss.lang.Objects;
 import xpertss.lang.Strings;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -49,6 +54,22 @@ public final class SessionDescription extends Section {
    private TimeDescription[] times;
    private MediaDescription[] medias;
 
+   // fields of a lazily parsed description which have yet to be materialized
+   private static final int BANDWIDTHS = 1;
+   private static final int KEY = 2;
+   private static final int ATTRIBUTES = 4;
+   private static final int MEDIAS = 8;
+   private static final int ALL = BANDWIDTHS | KEY | ATTRIBUTES | MEDIAS;
+
+   private transient DeferredSection deferred;
+   private transient volatile int pending;
+
+   // the section of a compact description from which fields are decoded on each access
+   private transient DeferredSection view;
+
+   // the encoded session level lines, computed when first needed
+   private transient volatile byte[] header;
+
 
 
    SessionDescription(int version, Origin origin, String name, String info, String uri, String[] emails,
@@ -71,6 +92,19 @@ public final class SessionDescription extends Section {
       this.medias = Utils.emptyIfNull(medias, MediaDescription[].class);
    }
 
+   SessionDescription(int version, Origin origin, String name, String info, String uri, String[] emails,
+                        String[] phones, TimeDescription[] times, TimeZones zones, Connection connection,
+                        DeferredSection deferred)
+   {
+      this(version, origin, name, info, uri, emails, phones, times, zones, connection, null, null, null, null);
+      if(Objects.notNull(deferred, "deferred may not be null").isCompact()) {
+         this.view = deferred;
+      } else {
+         this.deferred = deferred;
+         this.pending = ALL;
+      }
+   }
+
 
 
 
@@ -181,7 +215,7 @@ public final class SessionDescription extends Section {
     */
    public BandWidth[] getBandwidths()
    {
-      return bandwidths.clone();
+      return (view != null) ? view.bandwidths() : bandwidths().clone();
    }
 
 
@@ -193,7 +227,7 @@ public final class SessionDescription extends Section {
     */
    public BandWidth getBandwidth(String type)
    {
-      for(BandWidth bw : bandwidths) {
+      for(BandWidth bw : bandwidths()) {
          if(bw.getType().equals(type)) return bw;
       }
       return null;
@@ -205,7 +239,7 @@ public final class SessionDescription extends Section {
     */
    public Key getKey()
    {
-      return key;
+      return key();
    }
 
 
@@ -215,7 +249,7 @@ public final class SessionDescription extends Section {
     */
    public Attribute[] getAttributes()
    {
-      return attributes.clone();
+      return (view != null) ? view.attributes() : attributes().clone();
    }
 
    /**
@@ -226,7 +260,7 @@ public final class SessionDescription extends Section {
    public Attribute[] getAttributes(String name)
    {
       List<Attribute> result = new ArrayList<>();
-      for(Attribute att : attributes) {
+      for(Attribute att : attributes()) {
          if(att.getName().equals(name)) result.add(att);
       }
       return result.toArray(new Attribute[result.size()]);
@@ -241,7 +275,7 @@ public final class SessionDescription extends Section {
     */
    public Attribute getAttribute(String name)
    {
-      for(Attribute att : attributes) {
+      for(Attribute att : attributes()) {
          if(att.getName().equals(name)) return att;
       }
       return null;
@@ -255,7 +289,53 @@ public final class SessionDescription extends Section {
     */
    public MediaDescription[] getMediaDescriptions()
    {
-      return medias.clone();
+      return (view != null) ? view.medias() : medias().clone();
+   }
+
+   /**
+    * Returns the encoded form of this description as a sequence of read only buffers,
+    * the first holding the session level lines and each subsequent one a media
+    * description, in the same UTF-8 encoded, CRLF terminated form written by
+    * {@link #writeTo(OutputStream)}.
+    * <p>
+    * The buffers wrap the encoded form each section retains rather than a copy of
+    * it, so the media descriptions shared by many session descriptions are also
+    * shared by their buffers. Each call returns new buffers positioned at zero which
+    * may be handed to a gathering write.
+    */
+   public ByteBuffer[] toBuffers()
+   {
+      MediaDescription[] medias = medias();
+      ByteBuffer[] result = new ByteBuffer[medias.length + 1];
+      result[0] = ByteBuffer.wrap(header()).asReadOnlyBuffer();
+      for(int i = 0; i < medias.length; i++) {
+         result[i + 1] = ByteBuffer.wrap(medias[i].encoded()).asReadOnlyBuffer();
+      }
+      return result;
+   }
+
+   /**
+    * Write this description to the given channel as the buffers returned by
+    * {@link #toBuffers()} using as few gathering writes as the channel permits,
+    * returning the number of bytes written.
+    * <p>
+    * This returns once every byte has been written so it is intended for channels
+    * in blocking mode. A non-blocking channel would be written in a busy loop and
+    * should instead be given the buffers from {@code toBuffers()} as it is ready.
+    *
+    * @throws IOException If an I/O error occurs writing to the channel
+    * @throws NullPointerException If the channel is null
+    */
+   public long writeTo(GatheringByteChannel channel) throws IOException
+   {
+      Objects.notNull(channel, "channel");
+      ByteBuffer[] buffers = toBuffers();
+      long total = 0;
+      for(int first = 0; first < buffers.length; ) {
+         total += channel.write(buffers, first, buffers.length - first);
+         while(first < buffers.length && !buffers[first].hasRemaining()) first++;
+      }
+      return total;
    }
 
    // TODO It might be worth our time to add a method to get the medias for a particular type
@@ -266,6 +346,7 @@ public final class SessionDescription extends Section {
    @Override
    public SessionDescription clone()
    {
+      resolve(ALL);
       try {
          return (SessionDescription) super.clone();
       } catch(CloneNotSupportedException e) {
@@ -278,7 +359,7 @@ public final class SessionDescription extends Section {
    public int hashCode()
    {
       return Objects.hash(version, origin, name, info, uri, emails, phones,
-               times, zones, connection, bandwidths, key, attributes, medias);
+               times, zones, connection, bandwidths(), key(), attributes(), medias());
    }
 
    @Override
@@ -296,26 +377,110 @@ public final class SessionDescription extends Section {
                   Arrays.equals(times, s.getTimeDescriptions()) &&
                   Objects.equal(zones, s.getTimeZones()) &&
                   Objects.equal(connection, s.getConnection()) &&
-                  Arrays.equals(bandwidths, s.getBandwidths()) &&
-                  Objects.equal(key, s.getKey()) &&
-                  Arrays.equals(attributes, s.getAttributes()) &&
-                  Arrays.equals(medias, s.getMediaDescriptions());
+                  Arrays.equals(bandwidths(), s.bandwidths()) &&
+                  Objects.equal(key(), s.key()) &&
+                  Arrays.equals(attributes(), s.attributes()) &&
+                  Arrays.equals(medias(), s.medias());
       }
       return false;
    }
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
+   {
+      writeHeader(out);
+      out.appendAll(medias());
+   }
+
+   /**
+    * Write the session level lines, those preceding the first media description.
+    */
+   private void writeHeader(OutputBuilder out)
    {
-      OutputBuilder builder = new OutputBuilder();
-      builder.append("v", version).append(origin).append("s", name);
-      builder.append("i", info).append("u", uri).appendAll("e", emails);
-      builder.appendAll("p", phones).append(connection).appendAll(bandwidths);
-      builder.appendAll(times).append(zones).append(key).appendAll(attributes);
-      builder.appendAll(medias);
-      return builder.toString();
+      out.append("v", version).append(origin).append("s", name);
+      out.append("i", info).append("u", uri).appendAll("e", emails);
+      out.appendAll("p", phones).append(connection).appendAll(bandwidths());
+      out.appendAll(times).append(zones).append(key()).appendAll(attributes());
    }
 
+   private byte[] header()
+   {
+      byte[] result = header;
+      if(result == null) {
+         result = encode(this::writeHeader);
+         if(isCacheable()) header = result;
+      }
+      return result;
+   }
 
-}
 
+
+   @Override
+   boolean isCacheable()
+   {
+      return view == null;
+   }
+
+   private BandWidth[] bandwidths()
+   {
+      if(view != null) return view.bandwidths();
+      resolve(BANDWIDTHS);
+      return bandwidths;
+   }
+
+   private Key key()
+   {
+      if(view != null) return view.key();
+      resolve(KEY);
+      return key;
+   }
+
+   private Attribute[] attributes()
+   {
+      if(view != null) return view.attributes();
+      resolve(ATTRIBUTES);
+      return attributes;
+   }
+
+   private MediaDescription[] medias()
+   {
+      if(view != null) return view.medias();
+      resolve(MEDIAS);
+      return medias;
+   }
+
+   /**
+    * Materialize the specified deferred fields of a lazily parsed description if
+    * they have not already been materialized.
+    */
+   private void resolve(int fields)
+   {
+      if((pending & fields) != 0) {
+         synchronized(this) {
+            int unresolved = pending & fields;
+            if((unresolved & BANDWIDTHS) != 0) bandwidths = deferred.bandwidths();
+            if((unresolved & KEY) != 0) key = deferred.key();
+            if((unresolved & ATTRIBUTES) != 0) attributes = deferred.attributes();
+            if((unresolved & MEDIAS) != 0) medias = deferred.medias();
+            if((pending &= ~unresolved) == 0) deferred = null;
+         }
+      }
+   }
+
+   private void writeObject(ObjectOutputStream out) throws IOException
+   {
+      resolve(ALL);
+      out.defaultWriteObject();
+   }
+
+   /**
+    * A compact description is serialized as a fully materialized copy.
+    */
+   private Object writeReplace()
+   {
+      if(view == null) return this;
+      return new SessionDescription(version, origin, name, info, uri, emails, phones, times, zones,
+                                    connection, bandwidths(), key(), attributes(), medias());
+   }
+
+}
@@ -5,23 +5,31 @@
  */
 package xpertss.sdp;
 
-import xpertss.lang.Integers;
-import xpertss.lang.Longs;
 import xpertss.lang.Objects;
 import xpertss.lang.Strings;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
 import java.nio.file.Path;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Scanner;
-import java.util.Set;
-
-import static java.util.concurrent.TimeUnit.DAYS;
-import static java.util.concurrent.TimeUnit.HOURS;
-import static java.util.concurrent.TimeUnit.MINUTES;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Parser to parse SessionDescription objects from standard SDP files.
@@ -62,754 +70,1704 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  */
 public class SessionParser {
 
-   private static final Set<String> validchars = new HashSet<>();
+   // The context used by parses which are not supplied one
+   private static final ThreadLocal<ParseContext> CONTEXTS = ThreadLocal.withInitial(ParseContext::new);
+
+   // The most files parsed by a single task of a bulk parse
+   private static final int BATCH_SIZE = 64;
+
+   // The largest file which can be read into a single buffer
+   private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+   // The size below which a parallel parse is not worth its overhead
+   private static final int PARALLEL_THRESHOLD = 32 * 1024;
+
+   // Parser states, one for each field that may have been the last one parsed
+   private static final int START = 0;
+   private static final int VERSION = 1;
+   private static final int ORIGIN = 2;
+   private static final int NAME = 3;
+   private static final int INFO = 4;
+   private static final int URI = 5;
+   private static final int EMAIL = 6;
+   private static final int PHONE = 7;
+   private static final int CONNECTION = 8;
+   private static final int BANDWIDTH = 9;
+   private static final int TIME = 10;
+   private static final int ZONES = 11;
+   private static final int KEY = 12;
+   private static final int ATTRIBUTE = 13;
+   private static final int MEDIA = 14;
+   private static final int MEDIA_INFO = 15;
+   private static final int MEDIA_CONNECTION = 16;
+   private static final int MEDIA_BANDWIDTH = 17;
+   private static final int MEDIA_KEY = 18;
+   private static final int MEDIA_ATTRIBUTE = 19;
+
+   // Transition results which are not states
+   private static final byte MISPLACED = -1;
+   private static final byte INVALID = -2;
+
+   // The fields which may legally follow each state, indexed by state
+   private static final String[] ACCEPTS = {
+      "v", "o", "s", "iuepcbt", "uepcbt", "epcbt", "epcbt", "pcbt", "bt", "bt",
+      "trzkam", "kam", "am", "am", "icbkam", "cbkam", "bkam", "bkam", "am", "am"
+   };
+
+   // The error reported when a field is misplaced, indexed by state. Null
+   // indicates the misplaced line itself should be reported.
+   private static final String[] EXPECTING = {
+      "invalid session description: expecting version",
+      "invalid session description: expecting origin",
+      "invalid session description: expecting session name",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting time",
+      "invalid session description: expecting media",
+      "invalid session description: expecting media",
+      "invalid session description: expecting media",
+      "invalid session description: expecting media",
+      null, null, null, null, null, null
+   };
+
+   // The error reported when the input ends in a state, indexed by state. Null
+   // indicates the description is complete.
+   private static final String[] PREMATURE = {
+      "premature end of stream: expecting version",
+      "premature end of stream: expecting origin",
+      "premature end of stream: expecting session name",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      "premature end of stream: expecting time",
+      null, null, null, null, null, null, null, null, null, null
+   };
+
+   // The next state indexed by current state and field type char
+   private static final byte[][] TRANSITIONS = new byte[ACCEPTS.length][128];
+
+   // The state a lenient parse moves to when a misplaced session field skips ahead
+   // over required fields, indexed by current state and field type char. Fields
+   // which would move backwards remain misplaced, as does a repeat without a time.
+   private static final byte[][] FORWARD = new byte[ACCEPTS.length][];
+
    static {
-      validchars.add("v");
-      validchars.add("o");
-      validchars.add("s");
-      validchars.add("i");
-      validchars.add("u");
-      validchars.add("e");
-      validchars.add("p");
-      validchars.add("c");
-      validchars.add("b");
-      validchars.add("t");
-      validchars.add("r");
-      validchars.add("z");
-      validchars.add("k");
-      validchars.add("a");
-      validchars.add("m");
+      String session = "vosiuepcbtrzkam";
+      byte[] sessionStates = { VERSION, ORIGIN, NAME, INFO, URI, EMAIL, PHONE, CONNECTION,
+                               BANDWIDTH, TIME, TIME, ZONES, KEY, ATTRIBUTE, MEDIA };
+      String media = "icbkam";
+      byte[] mediaStates = { MEDIA_INFO, MEDIA_CONNECTION, MEDIA_BANDWIDTH, MEDIA_KEY, MEDIA_ATTRIBUTE, MEDIA };
+      for(int state = 0; state < ACCEPTS.length; state++) {
+         Arrays.fill(TRANSITIONS[state], INVALID);
+         for(int i = 0; i < session.length(); i++) TRANSITIONS[state][session.charAt(i)] = MISPLACED;
+         for(char type : ACCEPTS[state].toCharArray()) {
+            TRANSITIONS[state][type] = (state < MEDIA) ? sessionStates[session.indexOf(type)]
+                                                       : mediaStates[media.indexOf(type)];
+         }
+         FORWARD[state] = TRANSITIONS[state].clone();
+         for(int i = 0; i < session.length(); i++) {
+            char type = session.charAt(i);
+            if(FORWARD[state][type] == MISPLACED && type != 'r' && sessionStates[i] > state)
+               FORWARD[state][type] = sessionStates[i];
+         }
+      }
+   }
+
+
+   private final ParserLimits limits;
+   private final ParseMask mask;
+   private final ParseMask summaryMask;
+   private final Interner interner;
+
+
+   /**
+    * Create a parser which parses everything and places no limits on the descriptions
+    * it accepts.
+    */
+   public SessionParser()
+   {
+      this(ParserLimits.UNLIMITED, ParseMask.ALL);
+   }
+
+   /**
+    * Create a parser which rejects any description exceeding the given limits.
+    *
+    * @throws NullPointerException If the supplied limits are null
+    */
+   public SessionParser(ParserLimits limits) throws NullPointerException
+   {
+      this(limits, ParseMask.ALL);
+   }
+
+   /**
+    * Create a parser which parses only the parts of a description the given mask
+    * selects.
+    *
+    * @throws NullPointerException If the supplied mask is null
+    */
+   public SessionParser(ParseMask mask) throws NullPointerException
+   {
+      this(ParserLimits.UNLIMITED, mask);
+   }
+
+   /**
+    * Create a parser which parses only the parts of a description the given mask
+    * selects and rejects any description exceeding the given limits.
+    *
+    * @throws NullPointerException If the supplied limits or mask are null
+    */
+   public SessionParser(ParserLimits limits, ParseMask mask) throws NullPointerException
+   {
+      this(limits, mask, Interner.NONE);
+   }
+
+   /**
+    * Create a parser which parses everything and obtains the tokens of the descriptions
+    * it builds, such as attribute names and media types, from the given interner.
+    *
+    * @throws NullPointerException If the supplied interner is null
+    */
+   public SessionParser(Interner interner) throws NullPointerException
+   {
+      this(ParserLimits.UNLIMITED, ParseMask.ALL, interner);
+   }
+
+   /**
+    * Create a parser which parses only the parts of a description the given mask
+    * selects, rejects any description exceeding the given limits, and obtains the
+    * tokens of the descriptions it builds from the given interner.
+    *
+    * @throws NullPointerException If the supplied limits, mask or interner are null
+    */
+   public SessionParser(ParserLimits limits, ParseMask mask, Interner interner) throws NullPointerException
+   {
+      this.limits = Objects.notNull(limits, "limits");
+      this.mask = Objects.notNull(mask, "mask");
+      this.summaryMask = mask.retain("voscm");
+      this.interner = Objects.notNull(interner, "interner");
+   }
+
+
+   /**
+    * Returns the limits this parser enforces.
+    */
+   public ParserLimits getLimits()
+   {
+      return limits;
+   }
+
+   /**
+    * Returns the mask selecting what this parser parses.
+    */
+   public ParseMask getMask()
+   {
+      return mask;
+   }
+
+   /**
+    * Returns the interner which supplies the tokens of the descriptions this parser
+    * builds.
+    */
+   public Interner getInterner()
+   {
+      return interner;
+   }
+
+
+
+
+   /**
+    * Parse a string which represents an SDP file returning a Session Description if
+    * it successfully parsed the data.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source string is null
+    */
+   public SessionDescription parse(String str) throws SdpParseException, NullPointerException
+   {
+      return parse(new Scanner(str));
+   }
+
+   /**
+    * Parse the sdp contents of the given character sequence, such as a StringBuilder or
+    * a CharBuffer, returning a Session Description if it successfully parsed the data.
+    * <p>
+    * Lines are located directly within the sequence, which is not copied, and text is
+    * only extracted for the values held by the Session Description. Lines end with an
+    * LF or CRLF and the contents end at the first empty line. A CharBuffer is read from
+    * its position to its limit and those are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source sequence is null
+    */
+   public SessionDescription parse(CharSequence seq) throws SdpParseException, NullPointerException
+   {
+      Objects.notNull(seq);
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try {
+         if(!parse(state, context.chars.reset(seq))) throw state.exception();
+         return context.handler.build();
+      } finally {
+         context.release();
+      }
+   }
+
+   /**
+    * Parse the contents of a given sdp file identified by a Path object returning a Session
+    * Description if it successfully parsed the data.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source path is null
+    * @throws IOException If an I/O error occurs opening source
+    */
+   public SessionDescription parse(Path path) throws SdpParseException, NullPointerException, IOException
+   {
+      return parse(new Scanner(path, "UTF-8"));
+   }
+
+   /**
+    * Parse the sdp contents from a given Reader object returning a Session Description if it
+    * successfully parsed the data.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source reader is null
+    */
+   public SessionDescription parse(Reader reader) throws SdpParseException, NullPointerException
+   {
+      return parse(new Scanner(reader));
+   }
+
+   /**
+    * Parse the sdp contents from a given InputStream object returning a Session Description if it
+    * successfully parsed the data.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source stream is null
+    */
+   public SessionDescription parse(InputStream stream) throws SdpParseException, NullPointerException
+   {
+      return parse(new Scanner(stream, "UTF-8"));
+   }
+
+
+
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit returning a Session Description if it successfully parsed the data.
+    * <p>
+    * Lines are located directly within the buffer and only those fields which hold
+    * text are decoded. The buffer's position, limit and mark are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public SessionDescription parse(ByteBuffer buf) throws SdpParseException, NullPointerException
+   {
+      return parse(context(), buf);
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array returning a Session Description if it successfully parsed the data.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public SessionDescription parse(byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
+   {
+      return parse(context(), ByteBuffer.wrap(data, offset, length));
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit using the given context returning a Session Description if it successfully
+    * parsed the data.
+    *
+    * @see #parse(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer or context is null
+    * @throws IllegalStateException If the context is in use by another parse
+    */
+   public SessionDescription parse(ParseContext context, ByteBuffer buf)
+      throws SdpParseException, NullPointerException, IllegalStateException
+   {
+      Objects.notNull(buf);
+      ParseState state = acquire(context);
+      try {
+         if(!parse(state, context.lines.reset(buf))) throw state.exception();
+         return context.handler.build();
+      } finally {
+         context.release();
+      }
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array using the given context returning a Session Description if it
+    * successfully parsed the data.
+    *
+    * @see #parse(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array or context is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    * @throws IllegalStateException If the context is in use by another parse
+    */
+   public SessionDescription parse(ParseContext context, byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException, IllegalStateException
+   {
+      return parse(context, ByteBuffer.wrap(data, offset, length));
+   }
+
+
+   /**
+    * Parse exactly {@code contentLength} bytes of UTF-8 encoded sdp contents from the
+    * given InputStream returning a Session Description if it successfully parsed the
+    * data.
+    * <p>
+    * Unlike {@link #parse(InputStream)} this never reads beyond the specified length so
+    * the stream is left positioned at the start of whatever follows the description, as
+    * is needed when the sdp is the body of a message on a persistent connection. The
+    * bytes are read into a buffer which is reused by subsequent parses on the same thread
+    * and parsed in place. The stream is not closed.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source stream is null
+    * @throws IllegalArgumentException If the content length is negative
+    * @throws EOFException If the stream ends before content length bytes are read
+    * @throws IOException If an I/O error occurs reading the stream
+    */
+   public SessionDescription parse(InputStream stream, int contentLength)
+      throws SdpParseException, NullPointerException, IllegalArgumentException, IOException
+   {
+      return parse(context(), stream, contentLength);
+   }
+
+   /**
+    * Parse exactly {@code contentLength} bytes of UTF-8 encoded sdp contents from the
+    * given InputStream using the given context, and its read buffer, returning a Session
+    * Description if it successfully parsed the data.
+    *
+    * @see #parse(InputStream, int)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source stream or context is null
+    * @throws IllegalArgumentException If the content length is negative
+    * @throws IllegalStateException If the context is in use by another parse
+    * @throws EOFException If the stream ends before content length bytes are read
+    * @throws IOException If an I/O error occurs reading the stream
+    */
+   public SessionDescription parse(ParseContext context, InputStream stream, int contentLength)
+      throws SdpParseException, NullPointerException, IllegalArgumentException, IllegalStateException, IOException
+   {
+      Objects.notNull(stream);
+      ParseState state = acquire(context);
+      try {
+         if(!state.measure(contentLength, 0)) throw state.exception();
+         ByteBuffer buf = context.buffer(contentLength);
+         int count = 0;
+         while(count < contentLength) {
+            int read = stream.read(buf.array(), count, contentLength - count);
+            if(read < 0) throw new EOFException("expected " + contentLength + " bytes but found " + count);
+            count += read;
+         }
+         if(!parse(state, context.lines.reset(buf))) throw state.exception();
+         return context.handler.build();
+      } finally {
+         context.release();
+      }
+   }
+
+   /**
+    * Parse exactly {@code contentLength} bytes of UTF-8 encoded sdp contents from the
+    * given blocking channel returning a Session Description if it successfully parsed
+    * the data.
+    * <p>
+    * This never reads beyond the specified length. Non-blocking channels should instead
+    * feed an {@link #newIncrementalParser() incremental parser} as bytes become available.
+    *
+    * @see #parse(InputStream, int)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source channel is null
+    * @throws IllegalArgumentException If the content length is negative
+    * @throws IllegalBlockingModeException If the channel is in non-blocking mode
+    * @throws EOFException If the channel ends before content length bytes are read
+    * @throws IOException If an I/O error occurs reading the channel
+    */
+   public SessionDescription parse(ReadableByteChannel channel, int contentLength)
+      throws SdpParseException, NullPointerException, IllegalArgumentException, IOException
+   {
+      return parse(context(), channel, contentLength);
+   }
+
+   /**
+    * Parse exactly {@code contentLength} bytes of UTF-8 encoded sdp contents from the
+    * given blocking channel using the given context, and its read buffer, returning a
+    * Session Description if it successfully parsed the data.
+    *
+    * @see #parse(ReadableByteChannel, int)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source channel or context is null
+    * @throws IllegalArgumentException If the content length is negative
+    * @throws IllegalBlockingModeException If the channel is in non-blocking mode
+    * @throws IllegalStateException If the context is in use by another parse
+    * @throws EOFException If the channel ends before content length bytes are read
+    * @throws IOException If an I/O error occurs reading the channel
+    */
+   public SessionDescription parse(ParseContext context, ReadableByteChannel channel, int contentLength)
+      throws SdpParseException, NullPointerException, IllegalArgumentException, IllegalStateException, IOException
+   {
+      Objects.notNull(channel);
+      if(channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+         throw new IllegalBlockingModeException();
+      ParseState state = acquire(context);
+      try {
+         if(!state.measure(contentLength, 0)) throw state.exception();
+         ByteBuffer buf = context.buffer(contentLength);
+         while(buf.hasRemaining()) {
+            if(channel.read(buf) < 0) throw new EOFException("expected " + contentLength + " bytes but found " + buf.position());
+         }
+         ((Buffer) buf).flip();
+         if(!parse(state, context.lines.reset(buf))) throw state.exception();
+         return context.handler.build();
+      } finally {
+         context.release();
+      }
+   }
+
+
+
+
+   /**
+    * Lazily parse the UTF-8 encoded sdp contents between the given buffer's position
+    * and its limit returning a Session Description if it successfully parsed the data.
+    * <p>
+    * The contents are copied and scanned once to enforce field ordering and record the
+    * location of each line. Session level fields and the time descriptions are parsed
+    * immediately. Session level bandwidths, key and attributes, and the media descriptions,
+    * are materialized from the copied contents when first accessed and cached thereafter.
+    * Media descriptions likewise defer their bandwidths, key and attributes.
+    * <p>
+    * As a consequence a malformed deferred field is reported by the accessor which first
+    * materializes it rather than by this method. The buffer's position, limit and mark
+    * are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public SessionDescription parseLazy(ByteBuffer buf) throws SdpParseException, NullPointerException
+   {
+      return parseDeferred(buf, false);
+   }
+
+   /**
+    * Lazily parse the UTF-8 encoded sdp contents found in the specified range of the
+    * given byte array returning a Session Description if it successfully parsed the
+    * data.
+    *
+    * @see #parseLazy(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public SessionDescription parseLazy(byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
+   {
+      return parseLazy(ByteBuffer.wrap(data, offset, length));
+   }
+
+
+
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit into a compact Session Description which retains little more than a copy of
+    * the contents.
+    * <p>
+    * The contents are scanned exactly as by {@link #parseLazy(ByteBuffer)}, after which
+    * the description holds the copied bytes and a table of line offsets in place of its
+    * bandwidths, key, attributes and media descriptions. Those are decoded from the bytes
+    * each time they are accessed and are not retained, and the media descriptions
+    * returned are compact in the same way. This suits large, long lived collections of
+    * descriptions which are read infrequently, at the cost of decoding on every access.
+    * <p>
+    * A malformed deferred field is reported by each accessor which decodes it. The
+    * buffer's position, limit and mark are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public SessionDescription parseCompact(ByteBuffer buf) throws SdpParseException, NullPointerException
+   {
+      return parseDeferred(buf, true);
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array into a compact Session Description.
+    *
+    * @see #parseCompact(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public SessionDescription parseCompact(byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
+   {
+      return parseCompact(ByteBuffer.wrap(data, offset, length));
+   }
+
+   private SessionDescription parseDeferred(ByteBuffer buf, boolean compact)
+   {
+      byte[] data = new byte[buf.remaining()];
+      buf.duplicate().get(data);
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try {
+         state.deferred = new DeferredSection(data, mask, interner, compact);
+         state.lines = context.lines.reset(ByteBuffer.wrap(data));
+         if(!parse(state, state.lines)) throw state.exception();
+         if(compact) state.deferred.trim();
+         return context.handler.build(state.deferred);
+      } finally {
+         context.release();
+      }
+   }
+
+
+
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit, parsing its media sections concurrently, returning a Session Description
+    * if it successfully parsed the data.
+    * <p>
+    * The contents are first scanned once, parsing the session level fields, enforcing
+    * field ordering and the limits, and locating each m= line. The media sections are
+    * then parsed in batches on the common fork/join pool and assembled in order. The
+    * result is identical to that of {@link #parse(ByteBuffer)} and if the contents are
+    * invalid they are parsed again sequentially so that the same error is reported.
+    * <p>
+    * This only pays off for large descriptions with many media sections, so contents
+    * smaller than 32KB are simply parsed sequentially.
+    * The buffer's position, limit and mark are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public SessionDescription parseParallel(ByteBuffer buf) throws SdpParseException, NullPointerException
+   {
+      if(buf.remaining() < PARALLEL_THRESHOLD) return parse(context(), buf);
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try {
+         state.splitting = true;
+         state.lines = context.lines.reset(buf);
+         int base = buf.position();
+         if(parse(state, state.lines)) {
+            MediaDescription[] medias = parseSections(buf, state.sections, state.sectionCount, base + state.offset);
+            if(medias != null) return context.handler.build(medias);
+         }
+      } finally {
+         context.release();
+      }
+      // the first error in the contents is found by parsing them in order
+      return parse(context(), buf);
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array, parsing its media sections concurrently, returning a Session
+    * Description if it successfully parsed the data.
+    *
+    * @see #parseParallel(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public SessionDescription parseParallel(byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
+   {
+      return parseParallel(ByteBuffer.wrap(data, offset, length));
+   }
+
+
+
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit returning a result which holds either the Session Description or the error
+    * which prevented it from being parsed.
+    * <p>
+    * Malformed contents are reported through the result rather than by throwing an
+    * exception, so no stack trace is captured and no message is assembled unless it is
+    * asked for. The error identifies the line, byte offset and field at fault. The
+    * buffer's position, limit and mark are not modified.
+    *
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public ParseResult tryParse(ByteBuffer buf) throws NullPointerException
+   {
+      return parse(buf, context(), false);
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array returning a result which holds either the Session Description or the
+    * error which prevented it from being parsed.
+    *
+    * @see #tryParse(ByteBuffer)
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public ParseResult tryParse(byte[] data, int offset, int length)
+      throws NullPointerException, IndexOutOfBoundsException
+   {
+      return parse(ByteBuffer.wrap(data, offset, length), context(), false);
+   }
+
+   /**
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit using the given context returning a result which holds either the Session
+    * Description or the error which prevented it from being parsed.
+    *
+    * @see #tryParse(ByteBuffer)
+    * @throws NullPointerException If the supplied source buffer or context is null
+    * @throws IllegalStateException If the context is in use by another parse
+    */
+   public ParseResult tryParse(ParseContext context, ByteBuffer buf)
+      throws NullPointerException, IllegalStateException
+   {
+      return parse(buf, context, false);
+   }
+
+   /**
+    * Parse the UTF-8 encoded contents of the given sdp file returning a result which
+    * holds either the Session Description or the error which prevented it from being
+    * parsed.
+    * <p>
+    * A file which cannot be read is reported as an {@link ErrorCode#UNREADABLE} error
+    * rather than by throwing an exception. The file is read into the calling thread's
+    * reusable read buffer and a file larger than the parser's byte limit, or too large
+    * to be held in a single buffer, is rejected as {@link ErrorCode#CONTENT_TOO_LARGE}
+    * without being read.
+    *
+    * @see #tryParse(ByteBuffer)
+    * @throws NullPointerException If the supplied source path is null
+    */
+   public ParseResult tryParse(Path path) throws NullPointerException
+   {
+      Objects.notNull(path);
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try(FileChannel channel = FileChannel.open(path)) {
+         long size = channel.size();
+         if(!state.measure(size, 0)) return ParseResult.failure(state.error, state.warnings);
+         if(size > MAX_ARRAY_SIZE) {
+            ParseError error = new ParseError(ErrorCode.CONTENT_TOO_LARGE, "file of " + size + " bytes is too large to read",
+                                              "", 0, -1, (char) 0);
+            return ParseResult.failure(error, null);
+         }
+         ByteBuffer buf = context.buffer((int) size);
+         while(buf.hasRemaining()) {
+            if(channel.read(buf) < 0) break;
+         }
+         ((Buffer) buf).flip();
+         if(!parse(state, context.lines.reset(buf))) return ParseResult.failure(state.error, state.warnings);
+         return ParseResult.success(context.handler.build(), state.warnings);
+      } catch(IOException e) {
+         ParseError error = new ParseError(ErrorCode.UNREADABLE, "unable to read " + path + ": ",
+                                           String.valueOf(e.getMessage()), 0, -1, (char) 0);
+         return ParseResult.failure(error, null);
+      } finally {
+         context.release();
+      }
+   }
+
+   /**
+    * Leniently parse the UTF-8 encoded sdp contents between the given buffer's position
+    * and its limit returning a result which holds the Session Description along with a
+    * warning for each problem which was skipped over.
+    * <p>
+    * Rather than failing, invalid lines are skipped, as are the remaining lines of a
+    * media section whose m= line is invalid. A misplaced session field which follows a
+    * missing required field is accepted with a warning and the defaults are used for the
+    * fields which were missed, while one which would move backwards is skipped. The
+    * parse fails only if no field at all could be parsed. The buffer's position, limit
+    * and mark are not modified.
+    *
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public ParseResult parseLenient(ByteBuffer buf) throws NullPointerException
+   {
+      return parse(buf, context(), true);
+   }
+
+   /**
+    * Leniently parse the UTF-8 encoded sdp contents found in the specified range of the
+    * given byte array returning a result which holds the Session Description along with
+    * a warning for each problem which was skipped over.
+    *
+    * @see #parseLenient(ByteBuffer)
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public ParseResult parseLenient(byte[] data, int offset, int length)
+      throws NullPointerException, IndexOutOfBoundsException
+   {
+      return parse(ByteBuffer.wrap(data, offset, length), context(), true);
+   }
+
+   /**
+    * Leniently parse the UTF-8 encoded sdp contents between the given buffer's position
+    * and its limit using the given context returning a result which holds the Session
+    * Description along with a warning for each problem which was skipped over.
+    *
+    * @see #parseLenient(ByteBuffer)
+    * @throws NullPointerException If the supplied source buffer or context is null
+    * @throws IllegalStateException If the context is in use by another parse
+    */
+   public ParseResult parseLenient(ParseContext context, ByteBuffer buf)
+      throws NullPointerException, IllegalStateException
+   {
+      return parse(buf, context, true);
+   }
+
+
+
+   /**
+    * Parse each of the given sdp files in parallel returning a stream of their results
+    * in the same order as the paths.
+    * <p>
+    * The files are parsed by the common fork/join pool as the returned stream is
+    * consumed, each worker reusing its own parse state from one file to the next. Each
+    * file is parsed as by {@link #tryParse(Path)} so a file which is unreadable or
+    * malformed yields a failed result rather than aborting the others.
+    *
+    * @throws NullPointerException If the supplied stream is null
+    */
+   public Stream<ParseResult> parseAll(Stream<Path> paths) throws NullPointerException
+   {
+      return paths.parallel().map(this::tryParse);
+   }
+
+   /**
+    * Parse each of the given sdp files using the given executor returning a list of
+    * their results in the same order as the paths.
+    * <p>
+    * The paths are divided into batches which are submitted to the executor so that
+    * each worker thread reuses its own parse state across the files of a batch. Each
+    * file is parsed as by {@link #tryParse(Path)} so a file which is unreadable or
+    * malformed yields a failed result rather than aborting the others. This blocks
+    * until every file has been parsed.
+    *
+    * @throws NullPointerException If the supplied paths, any path or the executor is null
+    * @throws RejectedExecutionException If the executor rejects a batch
+    */
+   public List<ParseResult> parseAll(Collection<Path> paths, Executor executor)
+      throws NullPointerException, RejectedExecutionException
+   {
+      Objects.notNull(executor);
+      Path[] files = paths.toArray(new Path[0]);
+      for(Path path : files) Objects.notNull(path);
+      ParseResult[] results = new ParseResult[files.length];
+
+      int batch = Math.max(1, Math.min(BATCH_SIZE, files.length / (4 * Runtime.getRuntime().availableProcessors())));
+      List<CompletableFuture<Void>> batches = new ArrayList<>(files.length / batch + 1);
+      for(int start = 0; start < files.length; start += batch) {
+         final int from = start, to = Math.min(files.length, start + batch);
+         batches.add(CompletableFuture.runAsync(() -> {
+            for(int i = from; i < to; i++) results[i] = tryParse(files[i]);
+         }, executor));
+      }
+      CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+      return Arrays.asList(results);
+   }
+
+
+
+
+   /**
+    * Parse a string which represents an SDP file reporting each field to the given
+    * handler as it is encountered.
+    * <p>
+    * Field ordering is enforced exactly as it is when building a Session Description
+    * but no model objects are created. Fields which precede a structural error will
+    * already have been reported when the exception is thrown.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source string or handler is null
+    */
+   public void parse(String str, SdpHandler handler) throws SdpParseException, NullPointerException
+   {
+      parse(new Scanner(str), Objects.notNull(handler));
+   }
+
+   /**
+    * Parse the sdp contents of the given character sequence reporting each field to the
+    * given handler as it is encountered.
+    * <p>
+    * The values passed to the handler are views directly over the sequence so nothing
+    * is copied unless the handler asks for it.
+    *
+    * @see #parse(CharSequence)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source sequence or handler is null
+    */
+   public void parse(CharSequence seq, SdpHandler handler) throws SdpParseException, NullPointerException
+   {
+      Objects.notNull(seq);
+      ParseContext context = context();
+      ParseState state = context.acquire(Objects.notNull(handler), limits, mask);
+      try {
+         if(!parse(state, context.chars.reset(seq))) throw state.exception();
+      } finally {
+         context.release();
+      }
+   }
+
+   /**
+    * Parse the contents of a given sdp file identified by a Path object reporting each
+    * field to the given handler as it is encountered.
+    *
+    * @see #parse(String, SdpHandler)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source path or handler is null
+    * @throws IOException If an I/O error occurs opening source
+    */
+   public void parse(Path path, SdpHandler handler) throws SdpParseException, NullPointerException, IOException
+   {
+      Objects.notNull(handler);
+      parse(new Scanner(path, "UTF-8"), handler);
    }
 
    /**
-    * Parse a string which represents an SDP file returning a Session Description if
-    * it successfully parsed the data.
+    * Parse the sdp contents from a given Reader object reporting each field to the given
+    * handler as it is encountered.
     *
+    * @see #parse(String, SdpHandler)
     * @throws SdpParseException If an error occurs parsing the structure of the document
-    * @throws NullPointerException If the supplied source string is null
+    * @throws NullPointerException If the supplied source reader or handler is null
     */
-   public SessionDescription parse(String str) throws SdpParseException, NullPointerException
+   public void parse(Reader reader, SdpHandler handler) throws SdpParseException, NullPointerException
    {
-      return parse(new Scanner(str));
+      parse(new Scanner(reader), Objects.notNull(handler));
    }
 
    /**
-    * Parse the contents of a given sdp file identified by a Path object returning a Session
-    * Description if it successfully parsed the data.
+    * Parse the sdp contents from a given InputStream object reporting each field to the
+    * given handler as it is encountered.
     *
+    * @see #parse(String, SdpHandler)
     * @throws SdpParseException If an error occurs parsing the structure of the document
-    * @throws NullPointerException If the supplied source path is null
-    * @throws IOException If an I/O error occurs opening source
+    * @throws NullPointerException If the supplied source stream or handler is null
     */
-   public SessionDescription parse(Path path) throws SdpParseException, NullPointerException, IOException
+   public void parse(InputStream stream, SdpHandler handler) throws SdpParseException, NullPointerException
    {
-      return parse(new Scanner(path, "UTF-8"));
+      parse(new Scanner(stream, "UTF-8"), Objects.notNull(handler));
    }
 
    /**
-    * Parse the sdp contents from a given Reader object returning a Session Description if it
-    * successfully parsed the data.
+    * Parse the UTF-8 encoded sdp contents between the given buffer's position and its
+    * limit reporting each field to the given handler as it is encountered.
+    * <p>
+    * The values passed to the handler are views directly over the buffer so nothing is
+    * decoded unless the handler asks for it. The buffer's position, limit and mark are
+    * not modified.
     *
+    * @see #parse(String, SdpHandler)
     * @throws SdpParseException If an error occurs parsing the structure of the document
-    * @throws NullPointerException If the supplied source reader is null
+    * @throws NullPointerException If the supplied source buffer or handler is null
     */
-   public SessionDescription parse(Reader reader) throws SdpParseException, NullPointerException
+   public void parse(ByteBuffer buf, SdpHandler handler) throws SdpParseException, NullPointerException
    {
-      return parse(new Scanner(reader));
+      Objects.notNull(buf);
+      ParseContext context = context();
+      ParseState state = context.acquire(Objects.notNull(handler), limits, mask);
+      try {
+         if(!parse(state, context.lines.reset(buf))) throw state.exception();
+      } finally {
+         context.release();
+      }
    }
 
    /**
-    * Parse the sdp contents from a given InputStream object returning a Session Description if it
-    * successfully parsed the data.
+    * Parse the UTF-8 encoded sdp contents found in the specified range of the given
+    * byte array reporting each field to the given handler as it is encountered.
     *
+    * @see #parse(ByteBuffer, SdpHandler)
     * @throws SdpParseException If an error occurs parsing the structure of the document
-    * @throws NullPointerException If the supplied source stream is null
+    * @throws NullPointerException If the supplied source array or handler is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
     */
-   public SessionDescription parse(InputStream stream) throws SdpParseException, NullPointerException
+   public void parse(byte[] data, int offset, int length, SdpHandler handler)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
    {
-      return parse(new Scanner(stream, "UTF-8"));
+      parse(ByteBuffer.wrap(data, offset, length), handler);
    }
 
 
 
 
-   private SessionDescription parse(Scanner scanner)  throws SdpParseException
+   /**
+    * Summarize the UTF-8 encoded sdp contents between the given buffer's position and
+    * its limit in a single pass returning the origin, connection addresses and media
+    * transports without building a Session Description.
+    * <p>
+    * The structure of the whole description is validated as it would be by a parse,
+    * but only the origin, connection and media lines are decoded. The buffer's
+    * position, limit and mark are not modified.
+    *
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source buffer is null
+    */
+   public SdpSummary summarize(ByteBuffer buf) throws SdpParseException, NullPointerException
    {
+      Objects.notNull(buf);
+      ParseContext context = context();
+      ParseState state = context.acquire(context.summary, limits, summaryMask);
       try {
-         SessionBuilder builder = SessionBuilder.create();
-         SessionFieldParser chain = createParserChain();
-         while(scanner.hasNextLine()) {
-            String line = scanner.nextLine();
-            if(Strings.isEmpty(line)) break;
-            if(line.length() < 3 || line.charAt(1) != '=') throw new SdpParseException("invalid line format: " + line);
-            if(!validchars.contains(Character.toString(line.charAt(0))))
-               throw new SdpParseException("invalid field: " + line);
-            chain = chain.parse(builder, line);
-         }
-         chain.finish(builder);
-
-         return builder.build();
+         if(!parse(state, context.lines.reset(buf))) throw state.exception();
+         return context.summary.build();
       } finally {
-         scanner.close();
+         context.release();
       }
    }
 
-
-   private SessionFieldParser createParserChain()
+   /**
+    * Summarize the UTF-8 encoded sdp contents found in the specified range of the
+    * given byte array.
+    *
+    * @see #summarize(ByteBuffer)
+    * @throws SdpParseException If an error occurs parsing the structure of the document
+    * @throws NullPointerException If the supplied source array is null
+    * @throws IndexOutOfBoundsException If the offset and length do not describe a valid
+    *          range within the array
+    */
+   public SdpSummary summarize(byte[] data, int offset, int length)
+      throws SdpParseException, NullPointerException, IndexOutOfBoundsException
    {
-      SessionFieldParser parser = new MediaFieldParser();
-      parser = new KeyFieldParser(new AttributeFieldParser(parser));
-      parser = new TimeFieldParser(new TimeZonesFieldParser(parser));
-      parser = new ConnectionFieldParser(new BandwidthFieldParser(parser));
-      parser = new EmailFieldParser(new PhoneFieldParser(parser));
-      parser = new InfoFieldParser(new UriFieldParser(parser));
-      parser = new OriginFieldParser(new SessionNameFieldParser(parser));
-      return new VersionFieldParser((parser));
+      return summarize(ByteBuffer.wrap(data, offset, length));
    }
 
 
-   private interface SessionFieldParser {
-
-      public SessionFieldParser parse(SessionBuilder builder, String line);
-      public void finish(SessionBuilder builder);
-   }
 
-   private interface MediaSubFieldParser {
 
-      public MediaSubFieldParser parse(MediaBuilder builder, String line);
-      public void finish(MediaBuilder builder);
+   /**
+    * Create a parser to which the UTF-8 encoded sdp contents may be pushed a chunk at a
+    * time as they arrive, producing a Session Description once the contents have been
+    * {@link IncrementalParser#finish() finished}.
+    */
+   public IncrementalParser newIncrementalParser()
+   {
+      return new IncrementalParser(new DescriptionHandler(interner), limits, mask);
    }
 
+   /**
+    * Create a parser to which the UTF-8 encoded sdp contents may be pushed a chunk at a
+    * time as they arrive, reporting each field to the given handler as soon as the line
+    * containing it is complete.
+    *
+    * @throws NullPointerException If the supplied handler is null
+    */
+   public IncrementalParser newIncrementalParser(SdpHandler handler) throws NullPointerException
+   {
+      return new IncrementalParser(Objects.notNull(handler), limits, mask);
+   }
 
-   private class VersionFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
 
-      public VersionFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
-      }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("v")) {
-            int version = Integers.parse(line.substring(2), -1);
-            if(version < 0) throw new SdpParseException("invalid version specified: " + line.substring(2));
-            builder.setVersion(version);
-            return next;
-         }
-         throw new SdpParseException("invalid session description: expecting version");
-      }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         throw new SdpParseException("premature end of stream: expecting version");
-      }
+   /**
+    * Create a reader over a stream holding any number of UTF-8 encoded descriptions
+    * separated by blank lines, each of which is parsed by this parser.
+    *
+    * @see SdpReader
+    * @throws NullPointerException If the supplied stream is null
+    */
+   public SdpReader newReader(InputStream stream) throws NullPointerException
+   {
+      return new SdpReader(this, Objects.notNull(stream));
    }
 
-   private class OriginFieldParser implements SessionFieldParser {
 
-      private SessionFieldParser next;
 
-      public OriginFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
-      }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("o")) {
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length != 6) throw new SdpParseException("invalid origin line: " + line.substring(2));
-            OriginBuilder origin = OriginBuilder.create().setUsername(parts[0]);
-            origin.setSessionId(parts[1]);
-            long version = Longs.parse(parts[2], -1);
-            if(version < 0) throw new SdpParseException("invalid origin session version: " + parts[2]);
-            origin.setSessionVersion(version);
-            origin.setNetworkType(parts[3]).setAddressType(parts[4]).setAddress(parts[5]);
-            builder.setOrigin(origin.build());
-            return next;
-         }
-         throw new SdpParseException("invalid session description: expecting origin");
+   private SessionDescription parse(Scanner scanner)  throws SdpParseException
+   {
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try {
+         if(!parse(state, scanner)) throw state.exception();
+         return context.handler.build();
+      } finally {
+         context.release();
       }
+   }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         throw new SdpParseException("premature end of stream: expecting origin");
+   private void parse(Scanner scanner, SdpHandler handler)  throws SdpParseException
+   {
+      ParseContext context = context();
+      ParseState state = context.acquire(handler, limits, mask);
+      try {
+         if(!parse(state, scanner)) throw state.exception();
+      } finally {
+         context.release();
       }
    }
 
-   private class SessionNameFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
-
-      public SessionNameFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
+   private ParseResult parse(ByteBuffer buf, ParseContext context, boolean lenient)
+   {
+      Objects.notNull(buf);
+      ParseState state = acquire(context);
+      try {
+         state.lenient = lenient;
+         if(!parse(state, context.lines.reset(buf))) return ParseResult.failure(state.error, state.warnings);
+         return ParseResult.success(context.handler.build(), state.warnings);
+      } finally {
+         context.release();
       }
+   }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("s")) {
-            builder.setSessionName(line.substring(2));
-            return next;
+   private static boolean parse(ParseState state, Scanner scanner)
+   {
+      try {
+         long consumed = 0;
+         while(scanner.hasNextLine()) {
+            String line = scanner.nextLine();
+            if(Strings.isEmpty(line)) break;
+            consumed += line.length() + 1;
+            if(!parseLine(state, line, consumed)) return false;
          }
-         throw new SdpParseException("invalid session description: expecting session name");
+         return finish(state);
+      } finally {
+         scanner.close();
       }
+   }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         throw new SdpParseException("premature end of stream: expecting session name");
+   private static boolean parse(ParseState state, CharLine line)
+   {
+      long consumed = 0;
+      while(line.next() && line.length() > 0) {
+         // as with the other text inputs each line terminator counts as one
+         consumed += line.length() + 1;
+         if(!parseLine(state, line, consumed)) return false;
       }
+      return finish(state);
    }
 
-   private class InfoFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
+   private static boolean parse(ParseState state, ByteLine line)
+   {
+      int base = line.start();
+      while(line.next() && line.length() > 0) {
+         state.offset = line.start() - base;
+         if(!parseLine(state, line, line.position() - base)) return false;
+      }
+      // the contents end at the blank line, if there is one
+      state.offset = ((line.length() == 0) ? line.start() : line.position()) - base;
+      return finish(state);
+   }
 
-      public InfoFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
+   /**
+    * Parse the media sections which start at the given offsets, the last of which ends
+    * at the given offset, concurrently returning their media descriptions in order or
+    * {@code null} if any of them is invalid.
+    */
+   private MediaDescription[] parseSections(ByteBuffer buf, int[] sections, int count, int end)
+   {
+      if(count == 0) return new MediaDescription[0];
+      int batches = Math.min(count, 4 * ForkJoinPool.getCommonPoolParallelism());
+      MediaDescription[][] results = IntStream.range(0, batches).parallel().mapToObj(batch -> {
+         int first = (int) ((long) count * batch / batches);
+         int last = (int) ((long) count * (batch + 1) / batches);
+         return parseSections(buf, sections[first], (last < count) ? sections[last] : end);
+      }).toArray(MediaDescription[][]::new);
+
+      int total = 0;
+      for(MediaDescription[] result : results) {
+         if(result == null) return null;
+         total += result.length;
+      }
+      MediaDescription[] medias = new MediaDescription[total];
+      for(int i = 0, n = 0; i < results.length; n += results[i++].length) {
+         System.arraycopy(results[i], 0, medias, n, results[i].length);
       }
+      return medias;
+   }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("i")) {
-            builder.setInfo(line.substring(2));
-            return next;
+   /**
+    * Parse the consecutive media sections occupying the given range of the buffer using
+    * the calling thread's context returning their media descriptions or {@code null}
+    * if any of them is invalid.
+    */
+   private MediaDescription[] parseSections(ByteBuffer buf, int start, int end)
+   {
+      ByteBuffer range = buf.duplicate();
+      ((Buffer) range).limit(end);
+      ((Buffer) range).position(start);
+      ParseContext context = context();
+      ParseState state = acquire(context);
+      try {
+         // the state in which the scan left off before the first of these sections
+         state.current = ATTRIBUTE;
+         ByteLine line = context.lines.reset(range);
+         while(line.next() && line.length() > 0) {
+            if(!parseLine(state, line, line.position() - start)) return null;
          }
-         return next.parse(builder, line);
+         if(state.inMedia) state.handler.onMediaEnd();
+         return context.handler.medias();
+      } finally {
+         context.release();
       }
+   }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
-      }
+   /**
+    * Claim the given context for a parse which builds a Session Description.
+    */
+   private ParseState acquire(ParseContext context)
+   {
+      ParseState state = context.acquire(context.handler, limits, mask);
+      context.handler.setInterner(interner);
+      return state;
    }
 
-   private class UriFieldParser implements SessionFieldParser {
+   /**
+    * Returns the calling thread's context, or a new one if a handler running on this
+    * thread has started a nested parse.
+    */
+   private static ParseContext context()
+   {
+      ParseContext context = CONTEXTS.get();
+      return context.isBusy() ? new ParseContext() : context;
+   }
 
-      private SessionFieldParser next;
 
-      public UriFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
+   /**
+    * Parse a single line, through which the given amount of the contents have been
+    * read, returning {@code false} if it is invalid, in which case the state holds the
+    * error. A lenient parse records the error as a warning, skips the line and returns
+    * {@code true} unless a limit was exceeded.
+    */
+   static boolean parseLine(ParseState state, CharSequence line, long consumed)
+   {
+      if(!state.measure(consumed, line.length())) return false;
+      state.line++;
+      return parseField(state, line) || state.recover();
+   }
+
+   /**
+    * Verify the description is whole once the last line has been parsed returning
+    * {@code false} if it is not, in which case the state holds the error.
+    */
+   static boolean finish(ParseState state)
+   {
+      String premature = PREMATURE[state.current];
+      if(premature != null) {
+         state.line++;
+         state.field = 0;
+         state.fail(ErrorCode.PREMATURE_END, premature, 0, 0);
+         // a lenient parse fails only if no field was found at all
+         if(state.current == START || !state.recover()) return false;
       }
+      if(state.inMedia) state.handler.onMediaEnd();
+      state.handler.onEnd();
+      return true;
+   }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("u")) {
-            builder.setUri(line.substring(2));
-            return next;
+   private static boolean parseField(ParseState state, CharSequence line)
+   {
+      Tokenizer tokens = state.tokens.reset(line, 2);
+      state.field = 0;
+      if(line.length() < 3 || line.charAt(1) != '=')
+         return state.fail(ErrorCode.INVALID_LINE, "invalid line format: ", 0, line.length());
+      char type = line.charAt(0);
+      state.field = type;
+      int next = (type < 128) ? TRANSITIONS[state.current][type] : INVALID;
+      if(next == INVALID) return state.fail(ErrorCode.UNKNOWN_FIELD, "invalid field: ", 0, line.length());
+
+      // the media level fields of a section whose m= line was skipped go with it
+      if(state.discarding && type != 'm' && TRANSITIONS[MEDIA][type] > MEDIA) return true;
+
+      if(next == MISPLACED) {
+         String expecting = EXPECTING[state.current];
+         if(state.lenient) next = FORWARD[state.current][type];
+         if(next == MISPLACED) {
+            return (expecting != null) ? state.fail(ErrorCode.MISPLACED_FIELD, expecting, 0, 0)
+                                       : state.fail(ErrorCode.MISPLACED_FIELD, "misplaced field: ", 0, line.length());
          }
-         return next.parse(builder, line);
+         state.warn(state.error(ErrorCode.MISPLACED_FIELD, expecting, 0, 0));
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
+      ParserLimits limits = state.limits;
+      if(type == 'm') {
+         if(++state.media > limits.getMaxMedia())
+            return state.failLimit(ErrorCode.TOO_MANY_MEDIA, "media exceed the maximum of " + limits.getMaxMedia());
+         state.attributes = 0;
+      } else if(type == 'a' && ++state.attributes > limits.getMaxAttributes()) {
+         return state.failLimit(ErrorCode.TOO_MANY_ATTRIBUTES, "attributes exceed the maximum of " + limits.getMaxAttributes());
       }
-   }
-
-   private class EmailFieldParser implements SessionFieldParser {
 
-      private SessionFieldParser next;
-
-      public EmailFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
+      if(state.splitting && next >= MEDIA) {
+         // media sections are only located here and are parsed afterwards
+         if(type == 'm') state.split(state.lines.start());
+         state.current = next;
+         return true;
       }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("e")) {
-            builder.addEmail(line.substring(2));
-            return this;
+      ParseMask mask = state.mask;
+      if(type == 'm') state.skipping = !mask.includes('m') || !mask.acceptsMedia(line);
+      if((state.skipping && next >= MEDIA) || !mask.includes(type) || (type == 'a' && !mask.acceptsAttribute(line))) {
+         if(type == 'm' && state.inMedia) {
+            state.inMedia = false;
+            state.handler.onMediaEnd();
          }
-         return next.parse(builder, line);
+         state.current = next;
+         return true;
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
+      if(state.deferred != null && (next >= MEDIA || type == 'b' || type == 'k' || type == 'a')) {
+         // formats are otherwise counted by parseMedia which is deferred
+         if(type == 'm' && limits.getMaxFormats() < Integer.MAX_VALUE && tokens.count() - 3 > limits.getMaxFormats())
+            return state.failLimit(ErrorCode.TOO_MANY_FORMATS, "formats exceed the maximum of " + limits.getMaxFormats());
+         state.defer(type, next >= MEDIA);
+         state.current = next;
+         return true;
       }
+
+      SdpHandler handler = state.handler;
+      boolean valid = true;
+      switch(type) {
+         case 'v': valid = parseVersion(state); break;
+         case 'o': valid = parseOrigin(state); break;
+         case 's': handler.onSessionName(tokens.slice(0, 2, line.length())); break;
+         case 'i': handler.onInfo(tokens.slice(0, 2, line.length())); break;
+         case 'u': handler.onUri(tokens.slice(0, 2, line.length())); break;
+         case 'e': handler.onEmail(tokens.slice(0, 2, line.length())); break;
+         case 'p': handler.onPhone(tokens.slice(0, 2, line.length())); break;
+         case 'c': valid = parseConnection(state); break;
+         case 'b': valid = parseBandwidth(state); break;
+         case 't': valid = parseTime(state); break;
+         case 'r': valid = parseRepeatTime(state); break;
+         case 'z': valid = parseTimeZones(state); break;
+         case 'k': valid = parseKey(state); break;
+         case 'a': valid = parseAttribute(state); break;
+         case 'm': valid = parseMedia(state); break;
+      }
+      if(valid) state.current = next;
+      return valid;
    }
 
-   private class PhoneFieldParser implements SessionFieldParser {
 
-      private SessionFieldParser next;
 
-      public PhoneFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
-      }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("p")) {
-            builder.addPhone(line.substring(2));
-            return this;
-         }
-         return next.parse(builder, line);
-      }
+   // Each field parser validates the entire field before reporting it to the handler
+   // so that an invalid line is never partially reported.
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
-      }
+   private static boolean parseVersion(ParseState state)
+   {
+      CharSequence line = state.tokens.line();
+      int version = Tokenizer.parseInt(line, 2, line.length(), -1);
+      if(version < 0) return state.failValue(ErrorCode.INVALID_VERSION, "invalid version specified: ");
+      state.handler.onVersion(version);
+      return true;
    }
 
-   private class ConnectionFieldParser implements SessionFieldParser {
+   private static boolean parseOrigin(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      if(tokens.count() != 6) return state.failValue(ErrorCode.INVALID_ORIGIN, "invalid origin line: ");
+      tokens.next();
+      CharSequence username = tokens.token(0);
+      tokens.next();
+      CharSequence sessionId = tokens.token(1);
+      tokens.next();
+      long version = tokens.longValue(-1);
+      if(version < 0) return state.failToken(ErrorCode.INVALID_ORIGIN, "invalid origin session version: ");
+      tokens.next();
+      CharSequence networkType = tokens.token(2);
+      tokens.next();
+      CharSequence addressType = tokens.token(3);
+      tokens.next();
+      state.handler.onOrigin(username, sessionId, version, networkType, addressType, tokens.token(4));
+      return true;
+   }
 
-      private SessionFieldParser next;
+   static boolean parseConnection(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      if(tokens.count() != 3) return state.failValue(ErrorCode.INVALID_CONNECTION, "invalid connection line: ");
+      tokens.next();
+      if(tokens.start() == tokens.end()) return state.failValue(ErrorCode.INVALID_CONNECTION, "invalid connection line: ");
+      CharSequence networkType = tokens.token(0);
+      tokens.next();
+      CharSequence addressType = tokens.token(1);
+      tokens.next();
+      state.handler.onConnection(networkType, addressType, tokens.token(2));
+      return true;
+   }
 
-      public ConnectionFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
-      }
+   static boolean parseBandwidth(ParseState state)
+   {
+      // a single colon must separate type and value, though trailing colons are ignored
+      Tokenizer tokens = state.tokens;
+      CharSequence line = tokens.line();
+      int end = line.length();
+      while(end > 2 && line.charAt(end - 1) == ':') end--;
+      int idx = indexOf(line, ':', 2, end);
+      if(idx < 0 || indexOf(line, ':', idx + 1, end) >= 0 || isBlank(line, 2, idx))
+         return state.failValue(ErrorCode.INVALID_BANDWIDTH, "invalid bandwidth line: ");
+      int kbps = Tokenizer.parseInt(line, idx + 1, end, -1);
+      if(kbps < 0) return state.fail(ErrorCode.INVALID_BANDWIDTH, "invalid bandwidth value specified: ", idx + 1, end);
+      state.handler.onBandwidth(tokens.slice(0, 2, idx), kbps);
+      return true;
+   }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("c")) {
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length != 3) throw new SdpParseException("invalid connection line: " + line.substring(2));
-            builder.setConnection(parts[2], parts[1], parts[0]);
-            return next;
-         }
-         return next.parse(builder, line);
-      }
+   private static boolean parseTime(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      if(tokens.count() != 2) return state.failValue(ErrorCode.INVALID_TIME, "invalid time field: ");
+      tokens.next();
+      long start = tokens.longValue(-1);
+      if(start < 0) return state.failToken(ErrorCode.INVALID_TIME, "invalid start time: ");
+      tokens.next();
+      long stop = tokens.longValue(-1);
+      if(stop < 0) return state.failToken(ErrorCode.INVALID_TIME, "invalid stop time: ");
+      if(start > 0 && stop > 0 && stop <= start) return state.failToken(ErrorCode.INVALID_TIME, "stop time precedes start time: ");
+      state.startless = (start == 0);
+      state.handler.onTime(start, stop);
+      return true;
+   }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
+   private static boolean parseRepeatTime(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      int count = tokens.count();
+      if(count < 3) return state.failValue(ErrorCode.INVALID_REPEAT_TIME, "invalid repeat time field: ");
+      if(count - 2 > state.limits.getMaxRepeatOffsets())
+         return state.failLimit(ErrorCode.TOO_MANY_REPEAT_OFFSETS, "repeat offsets exceed the maximum of " + state.limits.getMaxRepeatOffsets());
+      tokens.next();
+      long interval = tokens.isCompactTime() ? tokens.compactTime() : -1;
+      if(interval < 1) return state.failToken(ErrorCode.INVALID_REPEAT_TIME, "invalid repeat time interval: ");
+      tokens.next();
+      long duration = tokens.isCompactTime() ? tokens.compactTime() : -1;
+      if(duration < 1) return state.failToken(ErrorCode.INVALID_REPEAT_TIME, "invalid repeat time duration: ");
+      long[] offsets = new long[count - 2];
+      for(int i = 0; i < offsets.length; i++) {
+         tokens.next();
+         offsets[i] = tokens.isCompactTime() ? tokens.compactTime() : -1;
+         if(offsets[i] < 0) return state.failToken(ErrorCode.INVALID_REPEAT_TIME, "invalid repeat time offset: ");
       }
+      if(state.startless)
+         return state.fail(ErrorCode.INVALID_REPEAT_TIME, "times with unspecified start times cannot define repeat times", 0, 0);
+      state.handler.onRepeatTime(interval, duration, offsets);
+      return true;
    }
 
-   private class BandwidthFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
+   private static boolean parseTimeZones(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      if(tokens.count() % 2 != 0) return state.failValue(ErrorCode.INVALID_TIME_ZONE, "invalid timezones field: ");
+      while(tokens.next()) {
+         if(tokens.longValue(-1) < 1) return state.failToken(ErrorCode.INVALID_TIME_ZONE, "invalid date found: ");
+         tokens.next();
+         if(!tokens.isCompactTime()) return state.failToken(ErrorCode.INVALID_TIME_ZONE, "invalid time zone offset: ");
+      }
+      tokens.reset(tokens.line(), 2);
+      while(tokens.next()) {
+         long date = tokens.longValue(-1);
+         tokens.next();
+         state.handler.onTimeZone(date, tokens.compactTime());
+      }
+      return true;
+   }
 
-      public BandwidthFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
+   static boolean parseKey(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      CharSequence line = tokens.line();
+      int idx = indexOf(line, ':', 2, line.length());
+      if(isBlank(line, 2, (idx < 0) ? line.length() : idx))
+         return state.failValue(ErrorCode.INVALID_KEY, "invalid key line: ");
+      if(idx < 0) {
+         state.handler.onKey(tokens.slice(0, 2, line.length()), null);
+      } else if(idx < line.length() - 1) {
+         state.handler.onKey(tokens.slice(0, 2, idx), tokens.slice(1, idx + 1, line.length()));
+      } else {
+         state.handler.onKey(tokens.slice(0, 2, idx), null);
       }
+      return true;
+   }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
-      {
-         if(line.startsWith("b")) {
-            String[] parts = line.substring(2).split(":");
-            if(parts.length != 2) throw new SdpParseException("invalid bandwidth line: " + line.substring(2));
-            int kbps = Integers.parse(parts[1], -1);
-            if(kbps < 0) throw new SdpParseException("invalid bandwidth value specified: " + parts[1]);
-            builder.addBandwidth(parts[0], kbps);
-            return this;
-         }
-         return next.parse(builder, line);
+   static boolean parseAttribute(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      CharSequence line = tokens.line();
+      int idx = indexOf(line, ':', 2, line.length());
+      if(isBlank(line, 2, (idx < 0) ? line.length() : idx))
+         return state.failValue(ErrorCode.INVALID_ATTRIBUTE, "invalid attribute line: ");
+      if(idx >= 0 && !state.mask.includesAttributeValues()) {
+         state.handler.onAttribute(tokens.slice(0, 2, idx), null);
+      } else if(idx < 0) {
+         state.handler.onAttribute(tokens.slice(0, 2, line.length()), null);
+      } else if(idx == line.length() - 1) {
+         state.handler.onAttribute(tokens.slice(0, 2, idx), null);
+      } else {
+         state.handler.onAttribute(tokens.slice(0, 2, idx), tokens.slice(1, idx + 1, line.length()));
       }
+      return true;
+   }
 
-      @Override
-      public void finish(SessionBuilder builder)
-      {
-         next.finish(builder);
+   static boolean parseMedia(ParseState state)
+   {
+      Tokenizer tokens = state.tokens;
+      int count = tokens.count();
+      if(count < 4) return state.failValue(ErrorCode.INVALID_MEDIA, "incomplete media field: ");
+      if(count - 3 > state.limits.getMaxFormats())
+         return state.failLimit(ErrorCode.TOO_MANY_FORMATS, "formats exceed the maximum of " + state.limits.getMaxFormats());
+      tokens.next();
+      if(tokens.start() == tokens.end()) return state.failValue(ErrorCode.INVALID_MEDIA, "incomplete media field: ");
+      CharSequence type = tokens.token(0);
+
+      tokens.next();
+      int slash = tokens.indexOf('/');
+      int portEnd = (slash < 0) ? tokens.end() : slash;
+      int port = tokens.intValue(tokens.start(), portEnd, -1);
+      if(port < 0 || port > 65535) return state.fail(ErrorCode.INVALID_MEDIA, "found invalid port: ", tokens.start(), portEnd);
+      int ports = (slash < 0) ? 1 : tokens.intValue(slash + 1, tokens.end(), -1);
+      if(ports < 1) return state.fail(ErrorCode.INVALID_MEDIA, "found invalid port count: ", slash + 1, tokens.end());
+
+      tokens.next();
+      CharSequence protocol = tokens.token(1);
+
+      int[] formats = new int[count - 3];
+      for(int i = 0; i < formats.length; i++) {
+         tokens.next();
+         formats[i] = tokens.intValue(-1);
+         if(formats[i] < 0) return state.failToken(ErrorCode.INVALID_MEDIA, "invalid format found: ");
       }
+      if(state.inMedia) state.handler.onMediaEnd();
+      state.discarding = false;
+      state.inMedia = true;
+      state.handler.onMediaStart(type, port, ports, protocol, formats);
+      return true;
    }
 
-   private class TimeFieldParser implements  SessionFieldParser {
 
-      private SessionFieldParser next;
-      private TimeBuilder time;
 
-      public TimeFieldParser(SessionFieldParser next)
-      {
-         this.next = Objects.notNull(next, "next may not be null");
-      }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
+   /**
+    * The handler and position of a single parse as it walks the state table.
+    */
+   static final class ParseState {
+
+      private final Tokenizer tokens = new Tokenizer();
+      private SdpHandler handler;
+      private ParserLimits limits;
+      private ParseMask mask;
+      private int current = START;
+      private int media;
+      private int attributes;
+
+      // where the current line is, the offset is -1 unless parsing bytes
+      private int line;
+      private int offset;
+      private char field;
+
+      private boolean lenient;
+      private boolean discarding;
+      private boolean skipping;
+      private boolean inMedia;
+      private boolean startless;
+      private boolean fatal;
+      private ParseError error;
+      private List<ParseError> warnings;
+
+      // only present for lazy parses
+      private DeferredSection deferred;
+      private DeferredSection deferredMedia;
+      private ByteLine lines;
+
+      // the start of each m= line when media sections are split out to be parsed
+      // separately, its scratch array is reused between parses
+      private boolean splitting;
+      private int[] sections = new int[16];
+      private int sectionCount;
+
+      /**
+       * Reset this state to begin a new unlimited and unmasked parse reporting to
+       * the given handler returning this state.
+       */
+      ParseState reset(SdpHandler handler)
       {
-         if(line.startsWith("t")) {
-            if(time != null) builder.addTimeDescription(time.build());
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length != 2) throw new SdpParseException("invalid time field: " + line.substring(2));
-            long start = Longs.parse(parts[0], -1);
-            if(start < 0) throw new SdpParseException("invalid start time: " + parts[0]);
-            long stop = Longs.parse(parts[1], -1);
-            if(stop < 0) throw new SdpParseException("invalid stop time: " + parts[1]);
-            time = TimeBuilder.create().setTime(Utils.toDate(start), Utils.toDate(stop));
-            return this;
-         } else if(line.startsWith("r")) {
-            if(time == null) throw new SdpParseException("invalid session description: expecting time");
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length < 3) throw new SdpParseException("invalid repeat time field: " + line.substring(2));
-            long interval = fromCompactTime(parts[0]);
-            if(interval < 1) throw new SdpParseException("invalid repeat time interval: " + parts[0]);
-            long duration = fromCompactTime(parts[1]);
-            if(duration < 1) throw new SdpParseException("invalid repeat time duration: " + parts[1]);
-            long[] offsets = new long[parts.length - 2];
-            for(int i = 0; i < offsets.length; i++) {
-               offsets[i] = fromCompactTime(parts[i+2]);
-               if(offsets[i] < 0) throw new SdpParseException("invalid repeat time offset: " + parts[i+2]);
-            }
-            time.addRepeatTime(interval, duration, offsets);
-            return this;
-         } else if(time != null) {
-            builder.addTimeDescription(time.build());
-            return next.parse(builder, line);
-         }
-         throw new SdpParseException("invalid session description: expecting time");
+         return reset(handler, ParserLimits.UNLIMITED, ParseMask.ALL);
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
+      /**
+       * Reset this state to begin a new parse within the given limits of the parts
+       * selected by the given mask reporting to the given handler returning this
+       * state.
+       */
+      ParseState reset(SdpHandler handler, ParserLimits limits, ParseMask mask)
       {
-         if(time != null) builder.addTimeDescription(time.build());
-         else throw new SdpParseException("premature end of stream: expecting time");
+         this.handler = handler;
+         this.limits = limits;
+         this.mask = mask;
+         this.current = START;
+         this.media = 0;
+         this.attributes = 0;
+         this.line = 0;
+         this.offset = -1;
+         this.field = 0;
+         this.lenient = false;
+         this.discarding = false;
+         this.skipping = false;
+         this.inMedia = false;
+         this.startless = false;
+         this.fatal = false;
+         this.error = null;
+         this.warnings = null;
+         this.deferred = null;
+         this.deferredMedia = null;
+         this.lines = null;
+         this.splitting = false;
+         this.sectionCount = 0;
+         tokens.reset("", 0);
+         return this;
       }
-   }
-
-   private class TimeZonesFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
 
-      public TimeZonesFieldParser(SessionFieldParser next)
+      /**
+       * Position this state's tokenizer at the value of the given line returning
+       * this state, as is needed to call a field parser directly.
+       */
+      ParseState select(CharSequence line)
       {
-         this.next = Objects.notNull(next, "next may not be null");
+         tokens.reset(line, 2);
+         return this;
       }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
+      /**
+       * Check the amount of the contents read so far, and the length of the line
+       * about to be parsed, against the limits returning {@code false} with the
+       * error set if either is exceeded.
+       */
+      boolean measure(long consumed, int length)
       {
-         if(line.startsWith("z")) {
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length % 2 != 0) throw new SdpParseException("invalid timezones field: " + line.substring(2));
-            for(int i = 0; i < parts.length - 1; i += 2) {
-               long date = Longs.parse(parts[i], -1);
-               if(date < 0) throw new SdpParseException("invalid date found: " + parts[i]);
-               builder.addTimeAdjustment(Utils.toDate(date), fromCompactTime(parts[i + 1]));
-            }
-            return next;
+         if(consumed > limits.getMaxBytes()) {
+            return exceeded(ErrorCode.CONTENT_TOO_LARGE, "content exceeds the maximum of " + limits.getMaxBytes() + " bytes");
+         } else if(length > limits.getMaxLineLength()) {
+            return exceeded(ErrorCode.LINE_TOO_LONG, "line exceeds the maximum length of " + limits.getMaxLineLength());
          }
-         return next.parse(builder, line);
+         return true;
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
+      /**
+       * Returns an exception describing the error which stopped the parse.
+       */
+      SdpParseException exception()
       {
-         next.finish(builder);
+         return new SdpParseException(error);
       }
-   }
-
-   private class KeyFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
 
-      public KeyFieldParser(SessionFieldParser next)
+      private void split(int start)
       {
-         this.next = Objects.notNull(next, "next may not be null");
+         if(sectionCount == sections.length) sections = Arrays.copyOf(sections, sectionCount * 2);
+         sections[sectionCount++] = start;
       }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
+      private void defer(char type, boolean inMedia)
       {
-         if(line.startsWith("k")) {
-            int idx = line.indexOf(":");
-            if(idx < 0) {
-               builder.setKey(line.substring(2), null);
-            } else if(idx < line.length() - 1) {
-               builder.setKey(line.substring(2, idx), line.substring(idx + 1));
-            } else {
-               builder.setKey(line.substring(2, idx), null);
-            }
-            return next;
+         if(type == 'm') {
+            deferredMedia = deferred.addMedia(lines.start(), lines.end());
+         } else {
+            ((inMedia) ? deferredMedia : deferred).add(type, lines.start(), lines.end());
          }
-         return next.parse(builder, line);
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
+      private boolean fail(ErrorCode code, String message, int start, int end)
       {
-         next.finish(builder);
+         error = error(code, message, start, end);
+         return false;
       }
-   }
-
-   private class AttributeFieldParser implements SessionFieldParser {
-
-      private SessionFieldParser next;
 
-      public AttributeFieldParser(SessionFieldParser next)
+      private boolean failToken(ErrorCode code, String message)
       {
-         this.next = Objects.notNull(next, "next may not be null");
+         return fail(code, message, tokens.start(), tokens.end());
       }
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
+      private boolean failValue(ErrorCode code, String message)
       {
-         if(line.startsWith("a")) {
-            int idx = line.indexOf(":");
-            if(idx < 0) {
-               builder.addAttribute(line.substring(2), null);
-            } else if(idx == line.length() - 1) {
-               builder.addAttribute(line.substring(2, idx), null);
-            } else {
-               builder.addAttribute(line.substring(2, idx), line.substring(idx+1));
-            }
-            return this;
-         }
-         return next.parse(builder, line);
+         return fail(code, message, 2, tokens.line().length());
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
+      private boolean failLimit(ErrorCode code, String message)
       {
-         next.finish(builder);
+         fatal = true;
+         return fail(code, message, 0, 0);
       }
-   }
-
-   private class MediaFieldParser implements SessionFieldParser {
-
-      private MediaBuilder media;
-      private MediaSubFieldParser chain;
 
-      @Override
-      public SessionFieldParser parse(SessionBuilder builder, String line)
+      // a limit exceeded before the line it concerns has been parsed
+      private boolean exceeded(ErrorCode code, String message)
       {
-         if(line.startsWith("m")) {
-            if(media != null) {
-               builder.addMediaDescription(media.build());
-            }
-            media = MediaBuilder.create();
-            chain = createParserChain();
-            String[] parts = line.substring(2).split("\\s+");
-            if(parts.length < 4) throw new SdpParseException("incomplete media field: " + line.substring(2));
-
-            String[] ports = parts[1].split("/", 2);
-            int port = Integers.parse(ports[0], -1);
-            if(port < 0 || port > 65535) throw new SdpParseException("found invalid port: " + ports[0]);
-            int count = (ports.length < 2) ? 1 : Integers.parse(ports[1], -1);
-            if(count < 1) throw new SdpParseException("found invalid port count: " + ports[1]);
-
-            int[] formats = new int[parts.length - 3];
-            for(int i = 0; i < formats.length; i++) {
-               formats[i] = Integers.parse(parts[i+3], -1);
-               if(formats[i] < 0) throw new SdpParseException("invalid format found: " + parts[i+3]);
-            }
-            media.setMedia(parts[0], port, count, parts[2], formats);
-         } else if(media != null) {
-            chain = chain.parse(media, line);
-         } else {
-            throw new SdpParseException("invalid session description: expecting media");
-         }
-         return this;
+         fatal = true;
+         error = new ParseError(code, message, "", line + 1, offset, (char) 0);
+         return false;
       }
 
-      @Override
-      public void finish(SessionBuilder builder)
+      private ParseError error(ErrorCode code, String message, int start, int end)
       {
-         if(media != null) {
-            chain.finish(media);
-            builder.addMediaDescription(media.build());
-         }
+         String detail = (start < end) ? tokens.line().subSequence(start, end).toString() : "";
+         return new ParseError(code, message, detail, line, (offset < 0) ? -1 : offset + start, field);
       }
 
-
-
-
-      private MediaSubFieldParser createParserChain()
+      private void warn(ParseError warning)
       {
-         MediaSubFieldParser parser = new AttributeMediaSubFieldParser();
-         parser = new KeyMediaSubFieldParser(parser);
-         parser = new BandwidthMediaSubFieldParser(parser);
-         parser = new ConnectionMediaSubFieldParser(parser);
-         return new InfoMediaSubFieldParser(parser);
-      }
-
-
-      private class InfoMediaSubFieldParser implements MediaSubFieldParser {
-
-         private MediaSubFieldParser next;
-
-         public InfoMediaSubFieldParser(MediaSubFieldParser next)
-         {
-            this.next = Objects.notNull(next, "next may not be null");
-         }
-
-         @Override
-         public MediaSubFieldParser parse(MediaBuilder builder, String line)
-         {
-            if(line.startsWith("i")) {
-               builder.setInfo(line.substring(2));
-               return next;
-            }
-            return next.parse(builder, line);
-         }
-
-         @Override
-         public void finish(MediaBuilder builder)
-         {
-            next.finish(builder);
-         }
-      }
-
-      private class ConnectionMediaSubFieldParser implements MediaSubFieldParser {
-
-         private MediaSubFieldParser next;
-
-         public ConnectionMediaSubFieldParser(MediaSubFieldParser next)
-         {
-            this.next = Objects.notNull(next, "next may not be null");
-         }
-
-         @Override
-         public MediaSubFieldParser parse(MediaBuilder builder, String line)
-         {
-            if(line.startsWith("c")) {
-               String[] parts = line.substring(2).split("\\s+");
-               if(parts.length != 3) throw new SdpParseException("invalid connection line: " + line.substring(2));
-               builder.setConnection(parts[2], parts[1], parts[0]);
-               return next;
-            }
-            return next.parse(builder, line);
-         }
-
-         @Override
-         public void finish(MediaBuilder builder)
-         {
-            next.finish(builder);
-         }
+         if(warnings == null) warnings = new ArrayList<>();
+         warnings.add(warning);
       }
 
-      private class BandwidthMediaSubFieldParser implements MediaSubFieldParser {
-
-         private MediaSubFieldParser next;
-
-         public BandwidthMediaSubFieldParser(MediaSubFieldParser next)
-         {
-            this.next = Objects.notNull(next, "next may not be null");
-         }
-
-         @Override
-         public MediaSubFieldParser parse(MediaBuilder builder, String line)
-         {
-            if(line.startsWith("b")) {
-               String[] parts = line.substring(2).split(":");
-               if(parts.length != 2) throw new SdpParseException("invalid bandwidth line: " + line.substring(2));
-               int kbps = Integers.parse(parts[1], -1);
-               if(kbps < 0) throw new SdpParseException("invalid bandwidth value specified: " + parts[1]);
-               builder.addBandwidth(parts[0], kbps);
-               return this;
-            }
-            return next.parse(builder, line);
-         }
-
-         @Override
-         public void finish(MediaBuilder builder)
-         {
-            next.finish(builder);
-         }
+      private boolean recover()
+      {
+         if(!lenient || fatal) return false;
+         warn(error);
+         if(field == 'm') discarding = true;
+         error = null;
+         return true;
       }
+   }
 
-      private class KeyMediaSubFieldParser implements MediaSubFieldParser {
-
-         private MediaSubFieldParser next;
-
-         public KeyMediaSubFieldParser(MediaSubFieldParser next)
-         {
-            this.next = Objects.notNull(next, "next may not be null");
-         }
-
-         @Override
-         public MediaSubFieldParser parse(MediaBuilder builder, String line)
-         {
-            if(line.startsWith("k")) {
-               int idx = line.indexOf(":");
-               if(idx < 0) {
-                  builder.setKey(line.substring(2), null);
-               } else if(idx < line.length() - 1) {
-                  builder.setKey(line.substring(2, idx), line.substring(idx + 1));
-               } else {
-                  builder.setKey(line.substring(2, idx), null);
-               }
-               return next;
-            }
-            return next.parse(builder, line);
-         }
-
-         @Override
-         public void finish(MediaBuilder builder)
-         {
-            next.finish(builder);
-         }
-      }
 
-      private class AttributeMediaSubFieldParser implements MediaSubFieldParser {
-
-         @Override
-         public MediaSubFieldParser parse(MediaBuilder builder, String line)
-         {
-            if(line.startsWith("a")) {
-               int idx = line.indexOf(":");
-               if(idx < 0) {
-                  builder.addAttribute(line.substring(2), null);
-               } else if(idx == line.length() - 1) {
-                  builder.addAttribute(line.substring(2, idx), null);
-               } else {
-                  builder.addAttribute(line.substring(2, idx), line.substring(idx+1));
-               }
-               return this;
-            }
-            throw new SdpParseException("misplaced field: " + line);
-         }
 
-         @Override
-         public void finish(MediaBuilder builder)
-         {
-            // what to do??
-         }
+   private static int indexOf(CharSequence line, char c, int start, int end)
+   {
+      for(int i = start; i < end; i++) {
+         if(line.charAt(i) == c) return i;
       }
-
-
+      return -1;
    }
 
-
-   private static long fromCompactTime(String compact)
+   private static boolean isBlank(CharSequence line, int start, int end)
    {
-      try {
-         char lastChar = compact.charAt(compact.length() - 1);
-         if(!Character.isDigit(lastChar)) {
-            long value = Long.parseLong(compact.substring(0, compact.length() - 1));
-            if(lastChar == 'd') {
-               return DAYS.toSeconds(value);
-            } else if(lastChar == 'h') {
-               return HOURS.toSeconds(value);
-            } else if(lastChar == 'm') {
-               return MINUTES.toSeconds(value);
-            } else if(lastChar == 's') {
-               return SECONDS.toSeconds(value);
-            }
-            throw new SdpParseException("unknown time unit found: " + compact);
-         } else {
-            return Long.parseLong(compact);
-         }
-      } catch(NumberFormatException nfe) {
-         throw new SdpParseException("invalid time unit found: " + compact);
+      for(int i = start; i < end; i++) {
+         if(line.charAt(i) > ' ') return false;
       }
+      return true;
    }
 
 }
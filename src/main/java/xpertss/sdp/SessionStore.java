@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Numbers;
+import xpertss.lang.Objects;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A table of session descriptions, keyed by a long such as the origin's session id,
+ * which are held in their text form in direct memory rather than as objects on the
+ * heap.
+ * <p>
+ * A store holds millions of descriptions as nothing more than a few primitive arrays
+ * and a list of direct buffers, so they add almost nothing to the work of the garbage
+ * collector. Descriptions are written into fixed size slots carved from large direct
+ * buffer arenas and a description is parsed again, using the store's parser, each time
+ * it is read. A removed or replaced description's slot is reused by the next
+ * description of a similar size.
+ * <pre>
+ *   SessionStore store = new SessionStore(new SessionParser());
+ *   store.put(Long.parseLong(desc.getOrigin().getSessionId()), desc);
+ *   ...
+ *   SessionDescription current = store.get(sessionId);
+ * </pre>
+ * Stores are safe for concurrent use. Writers are serialized while readers proceed
+ * optimistically, copying a description out of its slot without taking a lock and
+ * only retrying should a writer have changed the store while it did so. Parsing takes
+ * place outside of any lock.
+ */
+public final class SessionStore {
+
+   private static final int MIN_SLOT = 64;
+   private static final int HEADER = 4;
+
+   private static final long EMPTY = 0;
+   private static final long REMOVED = -1;
+
+   private final StampedLock lock = new StampedLock();
+   private final SessionParser parser;
+   private final int arenaSize;
+
+   private final List<ByteBuffer> arenas = new ArrayList<>();
+   private final long[][] free;
+   private final int[] freeCount;
+   private int offset;
+
+   // open addressed index of key to slot handle plus one
+   private long[] keys = new long[64];
+   private long[] handles = new long[64];
+   private int size;
+   private int used;
+
+
+   /**
+    * Create a store which parses descriptions with the given parser and allocates
+    * direct memory in arenas of 1MB.
+    *
+    * @throws NullPointerException If the parser is null
+    */
+   public SessionStore(SessionParser parser)
+   {
+      this(parser, 1 << 20);
+   }
+
+   /**
+    * Create a store which parses descriptions with the given parser and allocates
+    * direct memory in arenas of the given size. The arena size, rounded up to a power
+    * of two, bounds the size of the descriptions the store can hold.
+    *
+    * @throws NullPointerException If the parser is null
+    * @throws IllegalArgumentException If the arena size is less than 1KB
+    */
+   public SessionStore(SessionParser parser, int arenaSize)
+   {
+      this.parser = Objects.notNull(parser, "parser");
+      Numbers.gte(1024, arenaSize, "arenaSize must be at least 1024");
+      this.arenaSize = Integer.highestOneBit(Math.min(arenaSize, 1 << 30) - 1) << 1;
+      int classes = Integer.numberOfTrailingZeros(this.arenaSize / MIN_SLOT) + 1;
+      this.free = new long[classes][];
+      this.freeCount = new int[classes];
+      for(int i = 0; i < classes; i++) free[i] = new long[16];
+      this.offset = this.arenaSize;
+   }
+
+
+   /**
+    * Store the given description under the given key replacing any description
+    * already stored under it. Returns {@code true} if a description was replaced.
+    *
+    * @throws NullPointerException If the description is null
+    * @throws IllegalArgumentException If the description is larger than the store's
+    *          arena size
+    */
+   public boolean put(long key, SessionDescription desc)
+   {
+      byte[] data = desc.encoded();
+      int sizeClass = sizeClass(data.length + HEADER);
+      if(sizeClass >= free.length) throw new IllegalArgumentException("description exceeds arena size");
+      long stamp = lock.writeLock();
+      try {
+         long handle = allocate(sizeClass);
+         ByteBuffer arena = arenas.get(arena(handle)).duplicate();
+         ((Buffer) arena).position(offset(handle));
+         arena.putInt(data.length).put(data);
+
+         int index = find(keys, handles, key);
+         if(index >= 0) {
+            release(handles[index] - 1);
+            handles[index] = handle + 1;
+            return true;
+         }
+         insert(key, handle + 1);
+         return false;
+      } finally {
+         lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Returns the description stored under the given key parsed afresh, or {@code null}
+    * if there is none.
+    *
+    * @throws SdpParseException If the store's parser rejects the stored description
+    */
+   public SessionDescription get(long key)
+   {
+      byte[] data = read(key);
+      return (data == null) ? null : parser.parse(data, 0, data.length);
+   }
+
+   /**
+    * Parse the description stored under the given key into the given handler returning
+    * {@code false} if there is none. This allows a description to be inspected without
+    * creating its object graph.
+    *
+    * @throws NullPointerException If the handler is null
+    * @throws SdpParseException If the store's parser rejects the stored description
+    */
+   public boolean get(long key, SdpHandler handler)
+   {
+      Objects.notNull(handler, "handler");
+      byte[] data = read(key);
+      if(data == null) return false;
+      parser.parse(data, 0, data.length, handler);
+      return true;
+   }
+
+   /**
+    * Returns {@code true} if a description is stored under the given key.
+    */
+   public boolean contains(long key)
+   {
+      long stamp = lock.tryOptimisticRead();
+      if(stamp != 0) {
+         try {
+            boolean result = find(keys, handles, key) >= 0;
+            if(lock.validate(stamp)) return result;
+         } catch(RuntimeException e) {
+            // a writer moved things under us, validate would have failed
+         }
+      }
+      stamp = lock.readLock();
+      try {
+         return find(keys, handles, key) >= 0;
+      } finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Remove the description stored under the given key returning {@code true} if
+    * there was one.
+    */
+   public boolean remove(long key)
+   {
+      long stamp = lock.writeLock();
+      try {
+         int index = find(keys, handles, key);
+         if(index < 0) return false;
+         release(handles[index] - 1);
+         handles[index] = REMOVED;
+         size--;
+         return true;
+      } finally {
+         lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Returns the number of descriptions in this store.
+    */
+   public int size()
+   {
+      long stamp = lock.readLock();
+      try {
+         return size;
+      } finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Returns the number of bytes of direct memory this store has allocated.
+    */
+   public long allocated()
+   {
+      long stamp = lock.readLock();
+      try {
+         return (long) arenas.size() * arenaSize;
+      } finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+
+
+
+   /**
+    * Copy the bytes stored under the given key optimistically, falling back to a
+    * read lock if a writer intervenes.
+    */
+   private byte[] read(long key)
+   {
+      long stamp = lock.tryOptimisticRead();
+      if(stamp != 0) {
+         try {
+            byte[] data = copy(key);
+            if(lock.validate(stamp)) return data;
+         } catch(RuntimeException e) {
+            // a writer moved things under us, validate would have failed
+         }
+      }
+      stamp = lock.readLock();
+      try {
+         return copy(key);
+      } finally {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   private byte[] copy(long key)
+   {
+      long[] keys = this.keys, handles = this.handles;
+      int index = find(keys, handles, key);
+      if(index < 0) return null;
+      long handle = handles[index] - 1;
+      ByteBuffer arena = arenas.get(arena(handle)).duplicate();
+      int pos = offset(handle);
+      int length = arena.getInt(pos);
+      if(length < 0 || length > arenaSize - HEADER) return null;
+      byte[] data = new byte[length];
+      ((Buffer) arena).position(pos + HEADER);
+      arena.get(data);
+      return data;
+   }
+
+   private static int find(long[] keys, long[] handles, long key)
+   {
+      int mask = keys.length - 1;
+      int i = hash(key) & mask;
+      for(int probes = 0; probes <= mask && handles[i] != EMPTY; probes++, i = (i + 1) & mask) {
+         if(handles[i] != REMOVED && keys[i] == key) return i;
+      }
+      return -1;
+   }
+
+   private void insert(long key, long value)
+   {
+      if((used + 1) * 2 > keys.length) rehash((size + 1) * 4 > keys.length ? keys.length * 2 : keys.length);
+      int mask = keys.length - 1;
+      int i = hash(key) & mask;
+      while(handles[i] != EMPTY && handles[i] != REMOVED) i = (i + 1) & mask;
+      if(handles[i] == EMPTY) used++;
+      keys[i] = key;
+      handles[i] = value;
+      size++;
+   }
+
+   private void rehash(int capacity)
+   {
+      long[] oldKeys = keys, oldHandles = handles;
+      long[] newKeys = new long[capacity], newHandles = new long[capacity];
+      int mask = capacity - 1;
+      for(int j = 0; j < oldKeys.length; j++) {
+         if(oldHandles[j] == EMPTY || oldHandles[j] == REMOVED) continue;
+         int i = hash(oldKeys[j]) & mask;
+         while(newHandles[i] != EMPTY) i = (i + 1) & mask;
+         newKeys[i] = oldKeys[j];
+         newHandles[i] = oldHandles[j];
+      }
+      // publish the new tables together, readers validate their stamp afterward
+      keys = newKeys;
+      handles = newHandles;
+      used = size;
+   }
+
+   private static int hash(long key)
+   {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+   }
+
+
+
+
+   private long allocate(int sizeClass)
+   {
+      if(freeCount[sizeClass] > 0) return free[sizeClass][--freeCount[sizeClass]];
+      int slot = MIN_SLOT << sizeClass;
+      if(offset + slot > arenaSize) {
+         arenas.add(ByteBuffer.allocateDirect(arenaSize));
+         offset = 0;
+      }
+      long handle = ((long) (arenas.size() - 1) << 32) | offset;
+      offset += slot;
+      return handle;
+   }
+
+   private void release(long handle)
+   {
+      ByteBuffer arena = arenas.get(arena(handle));
+      int sizeClass = sizeClass(arena.getInt(offset(handle)) + HEADER);
+      if(freeCount[sizeClass] == free[sizeClass].length) {
+         free[sizeClass] = Arrays.copyOf(free[sizeClass], free[sizeClass].length * 2);
+      }
+      free[sizeClass][freeCount[sizeClass]++] = handle;
+   }
+
+   private static int sizeClass(int length)
+   {
+      if(length <= MIN_SLOT) return 0;
+      return 32 - Integer.numberOfLeadingZeros((length - 1) / MIN_SLOT);
+   }
+
+   private static int arena(long handle)
+   {
+      return (int) (handle >>> 32);
+   }
+
+   private static int offset(long handle)
+   {
+      return (int) handle;
+   }
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Objects;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A session description compiled into its encoded form with named slots, such as the
+ * origin's session id or a media description's port, left open to be filled in when
+ * the description is rendered.
+ * <p>
+ * A template is created once, using a {@link TemplateBuilder}, and then rendered
+ * repeatedly by a {@link Renderer} which does no more than copy the template's fixed
+ * bytes around the formatted value of each slot. No description, field or string
+ * objects are created.
+ * <pre>
+ *   SessionTemplate template = TemplateBuilder.create(answer)
+ *                                .setSessionId("id").setConnectionAddress("addr")
+ *                                .setPort(0, "port").build();
+ *   SessionTemplate.Renderer renderer = template.newRenderer();
+ *   renderer.set("id", callId).set("addr", localAddress).set("port", rtpPort);
+ *   renderer.writeTo(buffer);
+ * </pre>
+ * A slot which has not been set renders the value it had in the description the
+ * template was compiled from. Variants of a template, for example one per
+ * participant of a conference, may be created by {@link #bind(String, CharSequence)
+ * binding} some of its slots to fixed values.
+ * <p>
+ * Templates are immutable and may be shared. Renderers are not safe for concurrent
+ * use and would normally be held one per thread.
+ */
+public final class SessionTemplate {
+
+   private final byte[] text;     // fixed bytes with the slot values removed
+   private final int[] holes;     // offset in text at which each slot value is written
+   private final int[] slots;     // the slot written at each hole
+
+   private final String[] names;
+   private final boolean[] numeric;
+   private final boolean[] token;
+   private final byte[][] defaults;
+
+
+   SessionTemplate(byte[] text, int[] holes, int[] slots, String[] names,
+                   boolean[] numeric, boolean[] token, byte[][] defaults)
+   {
+      this.text = text;
+      this.holes = holes;
+      this.slots = slots;
+      this.names = names;
+      this.numeric = numeric;
+      this.token = token;
+      this.defaults = defaults;
+   }
+
+
+   /**
+    * Returns the names of this template's slots in the order of their indexes.
+    */
+   public String[] getSlotNames()
+   {
+      return names.clone();
+   }
+
+   /**
+    * Returns the index of the named slot. Indexes are specific to a template, a
+    * template returned by {@code bind} numbers its slots afresh.
+    *
+    * @throws IllegalArgumentException If this template has no such slot
+    */
+   public int slot(String name)
+   {
+      for(int i = 0; i < names.length; i++) {
+         if(names[i].equals(name)) return i;
+      }
+      throw new IllegalArgumentException("no slot named " + name);
+   }
+
+   /**
+    * Returns {@code true} if the slot at the given index holds a number, such as a
+    * port or session version, which may only be set with {@link Renderer#set(int, long)}.
+    *
+    * @throws IndexOutOfBoundsException If there is no slot at the given index
+    */
+   public boolean isNumeric(int slot)
+   {
+      return numeric[slot];
+   }
+
+   /**
+    * Returns a new renderer for this template with each slot holding its default
+    * value.
+    */
+   public Renderer newRenderer()
+   {
+      return new Renderer();
+   }
+
+
+
+   /**
+    * Returns a template which renders the given value in place of the named slot and
+    * no longer has that slot.
+    *
+    * @throws IllegalArgumentException If this template has no such slot, if it is
+    *          numeric, or if the value contains a character the slot does not allow
+    * @throws NullPointerException If the value is null
+    */
+   public SessionTemplate bind(String name, CharSequence value)
+   {
+      int slot = slot(name);
+      if(numeric[slot]) throw new IllegalArgumentException(name + " must be bound to a number");
+      return bind(slot, encode(slot, Objects.notNull(value, "value")));
+   }
+
+   /**
+    * Returns a template which renders the given value in place of the named slot and
+    * no longer has that slot.
+    *
+    * @throws IllegalArgumentException If this template has no such slot or the value
+    *          is negative
+    */
+   public SessionTemplate bind(String name, long value)
+   {
+      if(value < 0) throw new IllegalArgumentException(name + " must not be negative");
+      return bind(slot(name), Long.toString(value).getBytes(UTF_8));
+   }
+
+   private SessionTemplate bind(int slot, byte[] value)
+   {
+      int count = 0;
+      for(int s : slots) if(s == slot) count++;
+      byte[] result = new byte[text.length + count * value.length];
+      int[] newHoles = new int[holes.length - count];
+      int[] newSlots = new int[holes.length - count];
+      int pos = 0, from = 0, j = 0;
+      for(int i = 0; i < holes.length; i++) {
+         int len = holes[i] - from;
+         System.arraycopy(text, from, result, pos, len);
+         pos += len;
+         from = holes[i];
+         if(slots[i] == slot) {
+            System.arraycopy(value, 0, result, pos, value.length);
+            pos += value.length;
+         } else {
+            newHoles[j] = pos;
+            newSlots[j++] = (slots[i] > slot) ? slots[i] - 1 : slots[i];
+         }
+      }
+      System.arraycopy(text, from, result, pos, text.length - from);
+      return new SessionTemplate(result, newHoles, newSlots, remove(names, slot),
+                                 remove(numeric, slot), remove(token, slot), remove(defaults, slot));
+   }
+
+
+
+
+   /**
+    * Encode the given text value of the given slot.
+    */
+   private byte[] encode(int slot, CharSequence value)
+   {
+      if(!validate(slot, value)) return value.toString().getBytes(UTF_8);
+      byte[] result = new byte[value.length()];
+      for(int i = 0; i < result.length; i++) result[i] = (byte) value.charAt(i);
+      return result;
+   }
+
+   /**
+    * Validate that the given value of the given slot will not break the line, or for
+    * a slot within a field's tokens the token, it is written into returning {@code true}
+    * if it is entirely ASCII.
+    */
+   private boolean validate(int slot, CharSequence value)
+   {
+      boolean ascii = true;
+      for(int i = 0; i < value.length(); i++) {
+         char c = value.charAt(i);
+         if(c == '\r' || c == '\n' || c == 0 || (token[slot] && (c == ' ' || c == '\t'))) {
+            throw new IllegalArgumentException(names[slot] + " contains an illegal character");
+         }
+         if(c >= 0x80) ascii = false;
+      }
+      return ascii;
+   }
+
+   private static String[] remove(String[] src, int index)
+   {
+      String[] result = Arrays.copyOf(src, src.length - 1);
+      System.arraycopy(src, index + 1, result, index, src.length - index - 1);
+      return result;
+   }
+
+   private static boolean[] remove(boolean[] src, int index)
+   {
+      boolean[] result = Arrays.copyOf(src, src.length - 1);
+      System.arraycopy(src, index + 1, result, index, src.length - index - 1);
+      return result;
+   }
+
+   private static byte[][] remove(byte[][] src, int index)
+   {
+      byte[][] result = Arrays.copyOf(src, src.length - 1);
+      System.arraycopy(src, index + 1, result, index, src.length - index - 1);
+      return result;
+   }
+
+
+
+
+   /**
+    * Renders the template it was created by with the values most recently set for
+    * each slot. The values are formatted into buffers owned by the renderer which
+    * are reused from one rendering to the next.
+    */
+   public final class Renderer {
+
+      private final byte[][] values = new byte[names.length][];
+      private final int[] lengths = new int[names.length];
+
+      private Renderer()
+      {
+         reset();
+      }
+
+
+      /**
+       * Set the named slot to the given text.
+       *
+       * @throws IllegalArgumentException If there is no such slot, if it is numeric,
+       *          or if the value contains a line break or, for a slot which is one of
+       *          a field's tokens such as an address, white space
+       * @throws NullPointerException If the value is null
+       */
+      public Renderer set(String name, CharSequence value)
+      {
+         return set(slot(name), value);
+      }
+
+      /**
+       * Set the slot at the given index to the given text.
+       *
+       * @throws IllegalArgumentException If the slot is numeric, or if the value
+       *          contains a line break or, for a slot which is one of a field's tokens
+       *          such as an address, white space
+       * @throws NullPointerException If the value is null
+       * @throws IndexOutOfBoundsException If there is no slot at the given index
+       */
+      public Renderer set(int slot, CharSequence value)
+      {
+         Objects.notNull(value, "value");
+         if(numeric[slot]) throw new IllegalArgumentException(names[slot] + " must be set to a number");
+         if(validate(slot, value)) {
+            int len = value.length();
+            byte[] buf = ensure(slot, len);
+            for(int i = 0; i < len; i++) buf[i] = (byte) value.charAt(i);
+            lengths[slot] = len;
+         } else {
+            byte[] data = value.toString().getBytes(UTF_8);
+            System.arraycopy(data, 0, ensure(slot, data.length), 0, data.length);
+            lengths[slot] = data.length;
+         }
+         return this;
+      }
+
+      /**
+       * Set the named slot to the given number.
+       *
+       * @throws IllegalArgumentException If there is no such slot or the value is
+       *          negative
+       */
+      public Renderer set(String name, long value)
+      {
+         return set(slot(name), value);
+      }
+
+      /**
+       * Set the slot at the given index to the given number. A slot which holds text,
+       * such as the origin's session id, may also be set to a number.
+       *
+       * @throws IllegalArgumentException If the value is negative
+       * @throws IndexOutOfBoundsException If there is no slot at the given index
+       */
+      public Renderer set(int slot, long value)
+      {
+         if(value < 0) throw new IllegalArgumentException(names[slot] + " must not be negative");
+         byte[] buf = ensure(slot, 19);
+         int len = 1;
+         for(long v = value; v >= 10; v /= 10) len++;
+         for(int i = len - 1; i >= 0; i--) {
+            buf[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+         }
+         lengths[slot] = len;
+         return this;
+      }
+
+      /**
+       * Restore every slot to its default value.
+       */
+      public Renderer reset()
+      {
+         for(int i = 0; i < values.length; i++) {
+            byte[] data = defaults[i];
+            System.arraycopy(data, 0, ensure(i, data.length), 0, data.length);
+            lengths[i] = data.length;
+         }
+         return this;
+      }
+
+
+
+      /**
+       * Returns the number of bytes the description currently renders to.
+       */
+      public int length()
+      {
+         int result = text.length;
+         for(int slot : slots) result += lengths[slot];
+         return result;
+      }
+
+      /**
+       * Write the description to the given buffer as UTF-8 encoded bytes with each
+       * line terminated by CRLF.
+       *
+       * @throws BufferOverflowException If the buffer has insufficient space remaining,
+       *          in which case its position is unchanged
+       * @throws ReadOnlyBufferException If the buffer is read only
+       * @throws NullPointerException If the buffer is null
+       */
+      public void writeTo(ByteBuffer buf) throws BufferOverflowException, ReadOnlyBufferException
+      {
+         if(buf.isReadOnly()) throw new ReadOnlyBufferException();
+         if(buf.remaining() < length()) throw new BufferOverflowException();
+         int from = 0;
+         for(int i = 0; i < holes.length; i++) {
+            buf.put(text, from, holes[i] - from);
+            buf.put(values[slots[i]], 0, lengths[slots[i]]);
+            from = holes[i];
+         }
+         buf.put(text, from, text.length - from);
+      }
+
+      /**
+       * Write the description to the given stream as UTF-8 encoded bytes with each
+       * line terminated by CRLF. The stream is neither flushed nor closed.
+       *
+       * @throws IOException If an I/O error occurs writing to the stream
+       * @throws NullPointerException If the stream is null
+       */
+      public void writeTo(OutputStream out) throws IOException
+      {
+         Objects.notNull(out, "out");
+         int from = 0;
+         for(int i = 0; i < holes.length; i++) {
+            out.write(text, from, holes[i] - from);
+            out.write(values[slots[i]], 0, lengths[slots[i]]);
+            from = holes[i];
+         }
+         out.write(text, from, text.length - from);
+      }
+
+      /**
+       * Returns the description as UTF-8 encoded bytes with each line terminated by
+       * CRLF.
+       */
+      public byte[] toByteArray()
+      {
+         ByteBuffer buf = ByteBuffer.allocate(length());
+         writeTo(buf);
+         return buf.array();
+      }
+
+      /**
+       * Returns the description with each line terminated by CRLF.
+       */
+      @Override
+      public String toString()
+      {
+         return new String(toByteArray(), UTF_8);
+      }
+
+
+      private byte[] ensure(int slot, int length)
+      {
+         byte[] buf = values[slot];
+         if(buf == null || buf.length < length) {
+            buf = values[slot] = new byte[Math.max(length, 32)];
+         }
+         return buf;
+      }
+
+   }
+
+}
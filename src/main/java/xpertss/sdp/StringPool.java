@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Numbers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A bounded, lock free {@link Interner} for the short ASCII tokens which recur across
+ * session descriptions.
+ * <p>
+ * The pool consists of a fixed dictionary of well known tokens, seeded from
+ * {@link SdpConstants} and the common attribute names, media types and protocols,
+ * and a cache of a fixed number of recently seen tokens. The cache never grows, a new
+ * token simply displaces an older one, so a pool may be used indefinitely on varied
+ * input. Tokens are looked up without creating a String so a token found in the pool
+ * costs no allocation at all.
+ * <p>
+ * Values longer than 64 characters, or which contain non ASCII characters, are never
+ * pooled. Pools are safe for concurrent use and are intended to be shared, for example
+ * by every parser feeding the same session registry:
+ * <pre>
+ *   SessionParser parser = new SessionParser(new StringPool(8192));
+ * </pre>
+ */
+public final class StringPool implements Interner {
+
+   private static final int MAX_LENGTH = 64;
+
+   private static final String[] DICTIONARY = dictionary();
+
+   private final String[] dictionary;
+   private final String[] cache;
+   private final int mask;
+
+
+   /**
+    * Create a pool which caches up to 4096 tokens besides its dictionary.
+    */
+   public StringPool()
+   {
+      this(4096);
+   }
+
+   /**
+    * Create a pool which caches up to the given number of tokens besides its
+    * dictionary. The capacity is rounded up to a power of two.
+    *
+    * @throws IllegalArgumentException If the capacity is not positive
+    */
+   public StringPool(int capacity)
+   {
+      Numbers.gt(0, capacity, "capacity must be positive");
+      int size = Math.max(2, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+      this.cache = new String[size];
+      this.mask = size - 1;
+
+      this.dictionary = new String[Integer.highestOneBit(DICTIONARY.length * 4)];
+      for(String token : DICTIONARY) {
+         int i = hash(token) & (dictionary.length - 1);
+         while(dictionary[i] != null && !dictionary[i].equals(token)) i = (i + 1) & (dictionary.length - 1);
+         dictionary[i] = token;
+      }
+   }
+
+
+   /**
+    * Returns the pooled instance of the given value, adding it to the pool if it is not
+    * already there.
+    *
+    * @throws NullPointerException If the value is null
+    */
+   @Override
+   public String intern(CharSequence value)
+   {
+      int hash = hash(value);
+      if(hash == 0) return value.toString();
+
+      for(int i = hash & (dictionary.length - 1); dictionary[i] != null; i = (i + 1) & (dictionary.length - 1)) {
+         if(matches(dictionary[i], value)) return dictionary[i];
+      }
+
+      // two way set associative, a miss replaces the entry the hash favours
+      int slot = hash & mask & ~1;
+      String first = cache[slot], second = cache[slot + 1];
+      if(first != null && matches(first, value)) return first;
+      if(second != null && matches(second, value)) return second;
+      String result = value.toString();
+      cache[slot + ((hash >>> 16) & 1)] = result;
+      return result;
+   }
+
+   /**
+    * The number of tokens this pool may cache besides its dictionary.
+    */
+   public int capacity()
+   {
+      return cache.length;
+   }
+
+
+
+
+   /**
+    * Returns a non zero hash of the given value or zero if it is not to be pooled.
+    */
+   private static int hash(CharSequence value)
+   {
+      int length = value.length();
+      if(length > MAX_LENGTH) return 0;
+      int h = length;
+      for(int i = 0; i < length; i++) {
+         char c = value.charAt(i);
+         if(c >= 0x80) return 0;
+         h = 31 * h + c;
+      }
+      h ^= (h >>> 16);
+      return (h == 0) ? 1 : h;
+   }
+
+   private static boolean matches(String token, CharSequence value)
+   {
+      int length = token.length();
+      if(length != value.length()) return false;
+      for(int i = 0; i < length; i++) {
+         if(token.charAt(i) != value.charAt(i)) return false;
+      }
+      return true;
+   }
+
+   private static String[] dictionary()
+   {
+      List<String> tokens = new ArrayList<>(Arrays.asList(
+         SdpConstants.NETWORK_TYPE_INTERNET, SdpConstants.ADDRESS_TYPE_IP4, SdpConstants.ADDRESS_TYPE_IP6,
+         SdpConstants.BANDWIDTH_TYPE_CT, SdpConstants.BANDWIDTH_TYPE_AS, SdpConstants.BANDWIDTH_TYPE_TIAS,
+         SdpConstants.BANDWIDTH_TYPE_RS, SdpConstants.BANDWIDTH_TYPE_RR,
+         SdpConstants.RTP_AVP, "RTP/SAVP", "RTP/AVPF", "RTP/SAVPF", "UDP/TLS/RTP/SAVPF", "udp", "TCP", "UDP",
+         "audio", "video", "text", "application", "message", "-", "*",
+         SdpConstants.RTPMAP, SdpConstants.FMTP, "control", "range", "ptime", "maxptime", "rtcp", "rtcp-mux",
+         "rtcp-fb", "sendrecv", "sendonly", "recvonly", "inactive", "mid", "msid", "ssrc", "ssrc-group",
+         "group", "extmap", "candidate", "ice-ufrag", "ice-pwd", "ice-options", "fingerprint", "setup",
+         "actpass", "active", "passive", "framerate", "framesize", "tool", "type", "charset", "lang",
+         "sdplang", "orient", "etag", "npt=0-", "clear", "base64", "uri", "prompt"));
+      for(int i = 0; i < SdpConstants.avpTypeNames.length; i++) {
+         int rate = SdpConstants.avpClockRates[i];
+         if(rate > 0) tokens.add(i + " " + SdpConstants.avpTypeNames[i] + "/" + rate);
+      }
+      return tokens.toArray(new String[tokens.size()]);
+   }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import xpertss.lang.Objects;
+import xpertss.lang.Strings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Builder used to compile a SessionDescription into a {@link SessionTemplate}.
+ * <p>
+ * Each of the builder's setters names the slot which will replace a value of the
+ * description. The same name may be given to several values, the origin's address
+ * and the session's connection address for example, which will then all render
+ * the value set for that slot. A slot's default value is the one it replaces.
+ * <pre>
+ *   SessionTemplate template = TemplateBuilder.create(answer)
+ *                                .setSessionId("id").setSessionVersion("version")
+ *                                .setOriginAddress("addr").setConnectionAddress("addr")
+ *                                .setPort(0, "audio").setPort(1, "video")
+ *                                .setAttributeValue(0, "ptime", "ptime")
+ *                                .build();
+ * </pre>
+ *
+ * @see SessionTemplate
+ */
+public final class TemplateBuilder {
+
+   private final SessionDescription desc;
+   private final MediaDescription[] medias;
+
+   // keyed by the position of the value so a later setter replaces an earlier one
+   private final Map<String,Hole> holes = new LinkedHashMap<>();
+
+
+   private TemplateBuilder(SessionDescription desc)
+   {
+      this.desc = Objects.notNull(desc, "desc");
+      this.medias = desc.getMediaDescriptions();
+   }
+
+
+   /**
+    * Replace the origin's session id with the named slot.
+    *
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setSessionId(String slot)
+   {
+      return add(new Hole(slot, -1, 'o', 1, null, false));
+   }
+
+   /**
+    * Replace the origin's session version with the named numeric slot.
+    *
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setSessionVersion(String slot)
+   {
+      return add(new Hole(slot, -1, 'o', 2, null, true));
+   }
+
+   /**
+    * Replace the origin's address with the named slot.
+    *
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setOriginAddress(String slot)
+   {
+      return add(new Hole(slot, -1, 'o', 5, null, false));
+   }
+
+   /**
+    * Replace the address of the session's connection with the named slot.
+    *
+    * @throws IllegalArgumentException If the description has no session connection
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setConnectionAddress(String slot)
+   {
+      if(desc.getConnection() == null) throw new IllegalArgumentException("description has no connection");
+      return add(new Hole(slot, -1, 'c', 2, null, false));
+   }
+
+   /**
+    * Replace the address of the connection of the media description at the given
+    * index with the named slot.
+    *
+    * @throws IllegalArgumentException If there is no such media description or it
+    *          has no connection
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setConnectionAddress(int media, String slot)
+   {
+      if(media(media).getConnection() == null) throw new IllegalArgumentException("media has no connection");
+      return add(new Hole(slot, media, 'c', 2, null, false));
+   }
+
+   /**
+    * Replace the port of the media description at the given index with the named
+    * numeric slot.
+    *
+    * @throws IllegalArgumentException If there is no such media description
+    * @throws NullPointerException If the slot name is null
+    */
+   public TemplateBuilder setPort(int media, String slot)
+   {
+      media(media);
+      return add(new Hole(slot, media, 'm', 1, null, true));
+   }
+
+   /**
+    * Replace the value of the first session attribute with the given name with the
+    * named slot.
+    *
+    * @throws IllegalArgumentException If the description has no such attribute or it
+    *          has no value
+    * @throws NullPointerException If the attribute or slot name is null
+    */
+   public TemplateBuilder setAttributeValue(String name, String slot)
+   {
+      check(desc.getAttribute(Objects.notNull(name, "name")));
+      return add(new Hole(slot, -1, 'a', 0, name, false));
+   }
+
+   /**
+    * Replace the value of the first attribute with the given name of the media
+    * description at the given index with the named slot.
+    *
+    * @throws IllegalArgumentException If there is no such media description, if it
+    *          has no such attribute, or if the attribute has no value
+    * @throws NullPointerException If the attribute or slot name is null
+    */
+   public TemplateBuilder setAttributeValue(int media, String name, String slot)
+   {
+      check(media(media).getAttribute(Objects.notNull(name, "name")));
+      return add(new Hole(slot, media, 'a', 0, name, false));
+   }
+
+
+
+   /**
+    * Compile the description and the slots defined so far into a template.
+    *
+    * @throws IllegalArgumentException If a slot name is used for both a numeric and
+    *          a text value
+    */
+   public SessionTemplate build()
+   {
+      Map<String,Integer> index = new LinkedHashMap<>();
+      List<Boolean> numeric = new ArrayList<>();
+      List<Boolean> token = new ArrayList<>();
+      for(Hole hole : holes.values()) {
+         Integer slot = index.get(hole.name);
+         if(slot == null) {
+            index.put(hole.name, index.size());
+            numeric.add(hole.numeric);
+            token.add(hole.type != 'a');
+         } else if(numeric.get(slot) != hole.numeric) {
+            throw new IllegalArgumentException(hole.name + " is used for both numbers and text");
+         } else if(hole.type != 'a') {
+            token.set(slot, true);
+         }
+      }
+
+      // locate each value within the encoded description, recording start, end and slot
+      byte[] data = desc.encoded();
+      List<int[]> found = new ArrayList<>();
+      Hole[] pending = holes.values().toArray(new Hole[holes.size()]);
+      int media = -1;
+      for(int start = 0; start < data.length; ) {
+         int end = start;
+         while(end < data.length && data[end] != '\r' && data[end] != '\n') end++;
+         if(data[start] == 'm') media++;
+         for(int i = 0; i < pending.length; i++) {
+            Hole hole = pending[i];
+            if(hole == null || hole.media != media || hole.type != data[start]) continue;
+            int[] range = hole.locate(data, start, end);
+            if(range != null) {
+               found.add(new int[] { range[0], range[1], index.get(hole.name) });
+               pending[i] = null;
+            }
+         }
+         start = (end + 1 < data.length && data[end] == '\r' && data[end + 1] == '\n') ? end + 2 : end + 1;
+      }
+      found.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+      byte[] text = new byte[data.length];
+      int[] offsets = new int[found.size()];
+      int[] slots = new int[found.size()];
+      byte[][] defaults = new byte[index.size()][];
+      int pos = 0, from = 0;
+      for(int i = 0; i < found.size(); i++) {
+         int[] range = found.get(i);
+         System.arraycopy(data, from, text, pos, range[0] - from);
+         pos += range[0] - from;
+         from = range[1];
+         offsets[i] = pos;
+         slots[i] = range[2];
+         if(defaults[range[2]] == null) defaults[range[2]] = Arrays.copyOfRange(data, range[0], range[1]);
+      }
+      System.arraycopy(data, from, text, pos, data.length - from);
+      pos += data.length - from;
+
+      boolean[] numerics = new boolean[index.size()];
+      boolean[] tokens = new boolean[index.size()];
+      for(int i = 0; i < numerics.length; i++) {
+         numerics[i] = numeric.get(i);
+         tokens[i] = token.get(i);
+         if(defaults[i] == null) defaults[i] = new byte[0];
+      }
+      return new SessionTemplate(Arrays.copyOf(text, pos), offsets, slots,
+                                 index.keySet().toArray(new String[index.size()]),
+                                 numerics, tokens, defaults);
+   }
+
+
+
+
+   private TemplateBuilder add(Hole hole)
+   {
+      holes.put(hole.media + ":" + hole.type + ":" + hole.token + ":" + hole.attribute, hole);
+      return this;
+   }
+
+   private MediaDescription media(int media)
+   {
+      if(media < 0 || media >= medias.length) throw new IllegalArgumentException("no media at index " + media);
+      return medias[media];
+   }
+
+   private static void check(Attribute attr)
+   {
+      if(attr == null) throw new IllegalArgumentException("no such attribute");
+      if(Strings.isEmpty(attr.getValue())) throw new IllegalArgumentException("attribute has no value");
+   }
+
+
+
+
+   /**
+    * Returns a new template builder which compiles the given description.
+    *
+    * @throws NullPointerException If the description is null
+    */
+   public static TemplateBuilder create(SessionDescription desc)
+   {
+      return new TemplateBuilder(desc);
+   }
+
+
+
+
+   /**
+    * The position of a value within the description, identified by the media
+    * description it belongs to (-1 for the session), the type of its line and either
+    * its token index or, for attributes, the attribute's name.
+    */
+   private static class Hole {
+
+      private final String name;
+      private final int media;
+      private final char type;
+      private final int token;
+      private final String attribute;
+      private final boolean numeric;
+
+      private Hole(String name, int media, char type, int token, String attribute, boolean numeric)
+      {
+         this.name = Objects.notNull(name, "slot");
+         this.media = media;
+         this.type = type;
+         this.token = token;
+         this.attribute = attribute;
+         this.numeric = numeric;
+      }
+
+      /**
+       * Returns the range of this value within the given line, or {@code null} if
+       * the line does not hold it.
+       */
+      private int[] locate(byte[] data, int start, int end)
+      {
+         if(end - start < 2 || data[start + 1] != '=') return null;
+         if(attribute != null) {
+            byte[] prefix = ("a=" + attribute + ":").getBytes(UTF_8);
+            if(end - start < prefix.length) return null;
+            for(int i = 0; i < prefix.length; i++) {
+               if(data[start + i] != prefix[i]) return null;
+            }
+            return new int[] { start + prefix.length, end };
+         }
+         int from = start + 2;
+         for(int i = 0; i < token; i++) {
+            while(from < end && data[from] != ' ') from++;
+            from++;
+         }
+         if(from > end) return null;
+         int to = from;
+         // a media's port may be followed by its port count
+         while(to < end && data[to] != ' ' && !(type == 'm' && data[to] == '/')) to++;
+         return new int[] { from, to };
+      }
+   }
+
+}
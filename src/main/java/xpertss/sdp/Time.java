@@ -99,11 +99,10 @@ public final class Time extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder().append(getTypeChar()).append("=");
-      buf.append(start).append(" ").append(stop);
-      return buf.toString();
+      out.put(getTypeChar()).put('=');
+      out.put(start).put(' ').put(stop);
    }
 
 }
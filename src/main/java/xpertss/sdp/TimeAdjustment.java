@@ -103,9 +103,14 @@ public final class TimeAdjustment implements Serializable, Cloneable {
    @Override
    public String toString()
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(time).append(" ").append(Utils.toCompactTime(offset));
+      OutputBuilder buf = new OutputBuilder();
+      write(buf);
       return buf.toString();
    }
+
+   void write(OutputBuilder out)
+   {
+      out.put(time).put(' ').putTime(offset);
+   }
 }
 
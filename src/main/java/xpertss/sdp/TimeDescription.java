@@ -89,11 +89,18 @@ public final class TimeDescription extends Section {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      OutputBuilder buf = new OutputBuilder();
-      buf.append(time).appendAll(repeats);
-      return buf.toString();
+      out.append(time).appendAll(repeats);
+   }
+
+   /**
+    * Time descriptions are a line or two so their encoded form is not retained.
+    */
+   @Override
+   boolean isCacheable()
+   {
+      return false;
    }
 
 }
@@ -85,15 +85,13 @@ public final class TimeZones extends Field {
 
 
    @Override
-   public String toString()
+   void write(OutputBuilder out)
    {
-      StringBuilder buf = new StringBuilder();
-      buf.append(getTypeChar()).append("=");
+      out.put(getTypeChar()).put('=');
       for(int i = 0; i < adjustments.length; i++) {
-         if(i > 0) buf.append(" ");
-         buf.append(adjustments[i]);
+         if(i > 0) out.put(' ');
+         adjustments[i].write(out);
       }
-      return buf.toString();
    }
 
 }
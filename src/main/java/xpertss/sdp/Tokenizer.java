@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/16/2026
+ */
+package xpertss.sdp;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A reusable whitespace tokenizer which walks the value of an SDP line in place.
+ * <p>
+ * Tokens are reported as index ranges into the line so that numeric values can
+ * be parsed without creating intermediate strings. Tokenization matches that of
+ * {@code value.split("\\s+")}: leading whitespace yields an initial empty token,
+ * trailing whitespace yields nothing, and an empty value yields a single empty
+ * token.
+ */
+final class Tokenizer {
+
+   private final CharSlice[] slices = new CharSlice[6];
+
+   private CharSequence line;
+   private int limit;
+   private int from;
+   private int pos;
+   private int start;
+   private int end;
+   private boolean first;
+   private boolean done;
+
+
+   /**
+    * Reset this tokenizer to walk the given line starting at the specified
+    * index.
+    */
+   public Tokenizer reset(CharSequence line, int from)
+   {
+      this.line = line;
+      this.limit = line.length();
+      this.from = from;
+      this.pos = from;
+      this.start = this.end = from;
+      this.first = true;
+      this.done = false;
+      return this;
+   }
+
+
+   /**
+    * Advance to the next token returning {@code false} if there are no more
+    * tokens in the line.
+    */
+   public boolean next()
+   {
+      if(done) return false;
+      if(first) {
+         first = false;
+         if(pos == limit) {
+            start = end = pos;
+            done = true;
+            return true;
+         } else if(isWhitespace(line.charAt(pos))) {
+            int empty = pos;
+            pos = skipWhitespace(pos);
+            if(pos == limit) {
+               done = true;
+               return false;
+            }
+            start = end = empty;
+            return true;
+         }
+      }
+      if(pos >= limit) {
+         done = true;
+         return false;
+      }
+      start = pos;
+      while(pos < limit && !isWhitespace(line.charAt(pos))) pos++;
+      end = pos;
+      pos = skipWhitespace(pos);
+      return true;
+   }
+
+   /**
+    * Returns the total number of tokens in the line without disturbing the
+    * position of this tokenizer.
+    */
+   public int count()
+   {
+      int savedPos = pos, savedStart = start, savedEnd = end;
+      boolean savedFirst = first, savedDone = done;
+      reset(line, from);
+      int count = 0;
+      while(next()) count++;
+      pos = savedPos; start = savedStart; end = savedEnd;
+      first = savedFirst; done = savedDone;
+      return count;
+   }
+
+
+   /**
+    * The start index of the current token within the line.
+    */
+   public int start()
+   {
+      return start;
+   }
+
+   /**
+    * The end index (exclusive) of the current token within the line.
+    */
+   public int end()
+   {
+      return end;
+   }
+
+   /**
+    * Returns the index of the given char within the current token or -1 if
+    * the token does not contain it.
+    */
+   public int indexOf(char c)
+   {
+      for(int i = start; i < end; i++) {
+         if(line.charAt(i) == c) return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Returns the line this tokenizer was last reset to.
+    */
+   public CharSequence line()
+   {
+      return line;
+   }
+
+   /**
+    * Returns a view of the current token using the given slot. Views are reused
+    * so a view obtained from a slot is only valid until that slot is used again
+    * or this tokenizer is reset.
+    */
+   public CharSequence token(int slot)
+   {
+      return slice(slot, start, end);
+   }
+
+   /**
+    * Returns a view of the given range of the line using the given slot.
+    *
+    * @see #token(int)
+    */
+   public CharSequence slice(int slot, int start, int end)
+   {
+      CharSlice slice = slices[slot];
+      if(slice == null) slice = slices[slot] = new CharSlice();
+      return slice.set(line, start, end);
+   }
+
+   /**
+    * Parse the current token as an int returning the given default if it is
+    * not a valid int.
+    */
+   public int intValue(int def)
+   {
+      return parseInt(line, start, end, def);
+   }
+
+   /**
+    * Parse the given range of the line as an int returning the given default if
+    * it is not a valid int.
+    */
+   public int intValue(int start, int end, int def)
+   {
+      return parseInt(line, start, end, def);
+   }
+
+   /**
+    * Parse the current token as a long returning the given default if it is
+    * not a valid long.
+    */
+   public long longValue(long def)
+   {
+      return parseLong(line, start, end, def);
+   }
+
+   /**
+    * Parse the current token as a compact time (a number of seconds optionally
+    * followed by one of the d, h, m or s units) returning it in seconds.
+    *
+    * @throws SdpParseException If the token is not a valid compact time
+    */
+   public long compactTime()
+   {
+      return parseCompactTime(line, start, end);
+   }
+
+   /**
+    * Returns {@code true} if the current token is a valid compact time.
+    */
+   public boolean isCompactTime()
+   {
+      return isCompactTime(line, start, end);
+   }
+
+
+
+
+   /**
+    * Parse the specified range of the given sequence as a decimal int returning
+    * the given default if it is not a valid int. This accepts the same input as
+    * {@link Integer#parseInt(String)}.
+    */
+   static int parseInt(CharSequence seq, int start, int end, int def)
+   {
+      long result = parseLong(seq, start, end, Long.MIN_VALUE);
+      if(result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) return def;
+      return (int) result;
+   }
+
+   /**
+    * Parse the specified range of the given sequence as a decimal long returning
+    * the given default if it is not a valid long. This accepts the same input as
+    * {@link Long#parseLong(String)}.
+    */
+   static long parseLong(CharSequence seq, int start, int end, long def)
+   {
+      if(start >= end) return def;
+      boolean negative = false;
+      long limit = -Long.MAX_VALUE;
+      int i = start;
+      char c = seq.charAt(i);
+      if(c == '-' || c == '+') {
+         if(end - start == 1) return def;
+         if(c == '-') {
+            negative = true;
+            limit = Long.MIN_VALUE;
+         }
+         i++;
+      }
+      long multmin = limit / 10;
+      long result = 0;
+      for(; i < end; i++) {
+         int digit = Character.digit(seq.charAt(i), 10);
+         if(digit < 0 || result < multmin) return def;
+         result *= 10;
+         if(result < limit + digit) return def;
+         result -= digit;
+      }
+      return negative ? result : -result;
+   }
+
+   /**
+    * Parse the specified range of the given sequence as a compact time (a number
+    * of seconds optionally followed by one of the d, h, m or s units) returning
+    * it in seconds.
+    *
+    * @throws SdpParseException If the range is not a valid compact time
+    */
+   static long parseCompactTime(CharSequence seq, int start, int end)
+   {
+      if(start >= end) throw new SdpParseException("invalid time unit found: ");
+      char lastChar = seq.charAt(end - 1);
+      if(!Character.isDigit(lastChar)) {
+         long value = parseLong(seq, start, end - 1, Long.MIN_VALUE);
+         if(value == Long.MIN_VALUE && !isMinValue(seq, start, end - 1))
+            throw new SdpParseException("invalid time unit found: " + seq.subSequence(start, end));
+         if(lastChar == 'd') {
+            return DAYS.toSeconds(value);
+         } else if(lastChar == 'h') {
+            return HOURS.toSeconds(value);
+         } else if(lastChar == 'm') {
+            return MINUTES.toSeconds(value);
+         } else if(lastChar == 's') {
+            return SECONDS.toSeconds(value);
+         }
+         throw new SdpParseException("unknown time unit found: " + seq.subSequence(start, end));
+      } else {
+         long value = parseLong(seq, start, end, Long.MIN_VALUE);
+         if(value == Long.MIN_VALUE && !isMinValue(seq, start, end))
+            throw new SdpParseException("invalid time unit found: " + seq.subSequence(start, end));
+         return value;
+      }
+   }
+
+
+
+
+   /**
+    * Returns {@code true} if the specified range of the given sequence is a valid
+    * compact time, which is to say {@link #parseCompactTime} would not throw.
+    */
+   static boolean isCompactTime(CharSequence seq, int start, int end)
+   {
+      if(start >= end) return false;
+      char lastChar = seq.charAt(end - 1);
+      if(!Character.isDigit(lastChar)) {
+         if(lastChar != 'd' && lastChar != 'h' && lastChar != 'm' && lastChar != 's') return false;
+         end--;
+      }
+      return parseLong(seq, start, end, Long.MIN_VALUE) != Long.MIN_VALUE || isMinValue(seq, start, end);
+   }
+
+
+
+
+   private static boolean isMinValue(CharSequence seq, int start, int end)
+   {
+      return parseLong(seq, start, end, 0L) == Long.MIN_VALUE;
+   }
+
+   private int skipWhitespace(int idx)
+   {
+      while(idx < limit && isWhitespace(line.charAt(idx))) idx++;
+      return idx;
+   }
+
+   private static boolean isWhitespace(char c)
+   {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+   }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class DescriptionPoolTest {
+
+   private static final String AUDIO = "m=audio 4000 RTP/AVP 0 101\r\na=rtpmap:0 PCMU/8000\r\n" +
+                                       "a=rtpmap:101 telephone-event/8000\r\na=fmtp:101 0-15\r\na=ptime:20\r\n";
+
+
+   @Test
+   public void testParsedMediaShared()
+   {
+      SessionParser parser = new SessionParser(new DescriptionPool());
+      SessionDescription one = parser.parse(call(1));
+      SessionDescription two = parser.parse(call(2));
+      assertNotSame(one, two);
+      assertSame(one.getMediaDescriptions()[0], two.getMediaDescriptions()[0]);
+      assertSame(one.getAttribute("tool"), two.getAttribute("tool"));
+      assertEquals(new SessionParser().parse(call(1)), one);
+   }
+
+   @Test
+   public void testDifferentMediaNotShared()
+   {
+      SessionParser parser = new SessionParser(new DescriptionPool());
+      SessionDescription one = parser.parse(call(1));
+      SessionDescription two = parser.parse(call(1).replace("4000", "4002"));
+      MediaDescription first = one.getMediaDescriptions()[0];
+      MediaDescription second = two.getMediaDescriptions()[0];
+      assertNotSame(first, second);
+      assertEquals(4002, second.getMedia().getPort());
+      assertSame(first.getAttribute("fmtp"), second.getAttribute("fmtp"));
+   }
+
+   @Test
+   public void testLazyMediaNotPooled()
+   {
+      SessionParser parser = new SessionParser(new DescriptionPool());
+      SessionDescription one = parser.parseLazy(ByteBuffer.wrap(call(1).getBytes()));
+      SessionDescription two = parser.parseLazy(ByteBuffer.wrap(call(1).getBytes()));
+      assertNotSame(one.getMediaDescriptions()[0], two.getMediaDescriptions()[0]);
+      assertEquals(one, two);
+   }
+
+   @Test
+   public void testBuilder()
+   {
+      DescriptionPool pool = new DescriptionPool();
+      MediaDescription one = MediaBuilder.create().setInterner(pool).setMedia("audio", 4000, 1, "RTP/AVP", 0)
+                                         .addAttribute("rtpmap", "0 PCMU/8000").build();
+      MediaDescription two = MediaBuilder.create().setInterner(pool).setMedia("audio", 4000, 1, "RTP/AVP", 0)
+                                         .addAttribute("rtpmap", "0 PCMU/8000").build();
+      assertSame(one, two);
+      SessionDescription session = SessionBuilder.create().setInterner(pool).addAttribute("rtpmap", "0 PCMU/8000").build();
+      assertSame(one.getAttribute("rtpmap"), session.getAttribute("rtpmap"));
+   }
+
+   @Test
+   public void testBounded()
+   {
+      DescriptionPool pool = new DescriptionPool(Interner.NONE, 8);
+      assertEquals(8, pool.capacity());
+      for(int i = 0; i < 1000; i++) {
+         Attribute attr = new Attribute("x-seq", Integer.toString(i));
+         assertSame(attr, pool.intern(attr));
+      }
+      assertEquals("abc", pool.intern(new StringBuilder("abc")));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testZeroCapacity()
+   {
+      new DescriptionPool(Interner.NONE, 0);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullStrings()
+   {
+      new DescriptionPool(null, 16);
+   }
+
+
+
+   private static String call(int id)
+   {
+      return "v=0\r\no=- " + id + " 1 IN IP4 10.0.0.1\r\ns=-\r\nc=IN IP4 10.0.0." + id + "\r\nt=0 0\r\n" +
+               "a=tool:gateway\r\n" + AUDIO;
+   }
+
+}
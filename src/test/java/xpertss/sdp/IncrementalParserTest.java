@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Before;
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IncrementalParserTest {
+
+   private SessionParser objectUnderTest;
+
+   @Before
+   public void setUp()
+   {
+      objectUnderTest = new SessionParser();
+   }
+
+
+   @Test
+   public void testEverySplitMatchesParse()
+   {
+      byte[] data = ("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=Café\r\nt=0 0\r\nm=audio 4000 RTP/AVP 0\r\na=label:über\r\n").getBytes(UTF_8);
+      SessionDescription expected = objectUnderTest.parse(data, 0, data.length);
+      for(int split = 0; split <= data.length; split++) {
+         IncrementalParser parser = objectUnderTest.newIncrementalParser();
+         assertFalse(parser.feed(ByteBuffer.wrap(data, 0, split)));
+         assertFalse(parser.feed(ByteBuffer.wrap(data, split, data.length - split)));
+         assertEquals("split at " + split, expected, parser.finish());
+      }
+   }
+
+   @Test
+   public void testByteAtATime() throws Exception
+   {
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      for(byte b : data) {
+         ByteBuffer chunk = ByteBuffer.wrap(new byte[] { b });
+         assertFalse(parser.feed(chunk));
+         assertFalse(chunk.hasRemaining());
+      }
+      assertEquals(objectUnderTest.parse(data, 0, data.length), parser.finish());
+   }
+
+   @Test
+   public void testUnterminatedFinalLine()
+   {
+      byte[] data = "v=0\no=- 1 1 IN IP4 0.0.0.0\ns=-\nt=0 0".getBytes(UTF_8);
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      parser.feed(ByteBuffer.wrap(data));
+      SessionDescription desc = parser.finish();
+      assertEquals(1, desc.getTimeDescriptions().length);
+   }
+
+   @Test
+   public void testBlankLineCompletes()
+   {
+      byte[] data = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n\r\nINVITE".getBytes(UTF_8);
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      ByteBuffer chunk = ByteBuffer.wrap(data);
+      assertTrue(parser.feed(chunk));
+      assertTrue(parser.isComplete());
+      assertEquals("INVITE", UTF_8.decode(chunk).toString());
+      assertTrue(parser.feed(ByteBuffer.wrap("x=junk\r\n".getBytes(UTF_8))));
+      assertEquals("-", parser.finish().getSessionName());
+   }
+
+   @Test
+   public void testErrorReportedEarly()
+   {
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      parser.feed(ByteBuffer.wrap("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\n".getBytes(UTF_8)));
+      parser.feed(ByteBuffer.wrap("t=0".getBytes(UTF_8)));
+      try {
+         parser.feed(ByteBuffer.wrap(" 0\r\n".getBytes(UTF_8)));
+         fail("expected misplaced time to fail");
+      } catch(SdpParseException e) {
+         assertEquals("invalid session description: expecting session name", e.getMessage());
+      }
+      try {
+         parser.finish();
+         fail("expected failed parser to be closed");
+      } catch(IllegalStateException e) {
+         // expected
+      }
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testPrematureFinish()
+   {
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      parser.feed(ByteBuffer.wrap("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\n".getBytes(UTF_8)));
+      parser.finish();
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void testFeedAfterFinish()
+   {
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      parser.feed(ByteBuffer.wrap("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n".getBytes(UTF_8)));
+      parser.finish();
+      parser.feed(ByteBuffer.allocate(0));
+   }
+
+   @Test
+   public void testHandlerReceivesFieldsAsLinesComplete()
+   {
+      final List<String> names = new ArrayList<>();
+      IncrementalParser parser = objectUnderTest.newIncrementalParser(new SdpHandler() {
+         @Override
+         public void onAttribute(CharSequence name, CharSequence value)
+         {
+            names.add(name.toString());
+         }
+      });
+      parser.feed(ByteBuffer.wrap("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\na=recv".getBytes(UTF_8)));
+      assertTrue(names.isEmpty());
+      parser.feed(ByteBuffer.wrap("only\r\na=tool".getBytes(UTF_8)));
+      assertEquals(1, names.size());
+      assertNull(parser.finish());
+      assertEquals("recvonly", names.get(0));
+      assertEquals("tool", names.get(1));
+   }
+
+   @Test
+   public void testDirectChunks() throws Exception
+   {
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      IncrementalParser parser = objectUnderTest.newIncrementalParser();
+      for(int i = 0; i < data.length; i += 7) {
+         ByteBuffer chunk = ByteBuffer.allocateDirect(7);
+         chunk.put(data, i, Math.min(7, data.length - i)).flip();
+         parser.feed(chunk);
+      }
+      assertEquals(objectUnderTest.parse(data, 0, data.length), parser.finish());
+   }
+
+
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Before;
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class ParseContextTest {
+
+   private SessionParser objectUnderTest;
+   private ParseContext context;
+
+   @Before
+   public void setUp()
+   {
+      objectUnderTest = new SessionParser();
+      context = new ParseContext();
+   }
+
+
+   @Test
+   public void testReuseMatchesFreshParse() throws Exception
+   {
+      String[] names = { "/manheim.sdp", "/example.sdp", "/minimal.sdp", "/dual-repeat.sdp", "/example.sdp" };
+      for(String name : names) {
+         byte[] data = load(name).getBytes(UTF_8);
+         assertEquals(name, objectUnderTest.parse(load(name)), objectUnderTest.parse(context, data, 0, data.length));
+      }
+   }
+
+   @Test
+   public void testResultsAreIndependent() throws Exception
+   {
+      byte[] first = load("/manheim.sdp").getBytes(UTF_8);
+      byte[] second = load("/example.sdp").getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parse(context, first, 0, first.length);
+      String expected = desc.toString();
+      objectUnderTest.parse(context, second, 0, second.length);
+      assertEquals(expected, desc.toString());
+   }
+
+   @Test
+   public void testReusableAfterError() throws Exception
+   {
+      byte[] invalid = load("/invalid-bandwidth.sdp").getBytes(UTF_8);
+      try {
+         objectUnderTest.parse(context, invalid, 0, invalid.length);
+         fail("expected invalid bandwidth to fail");
+      } catch(SdpParseException e) {
+         // expected
+      }
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      assertEquals(objectUnderTest.parse(load("/example.sdp")), objectUnderTest.parse(context, data, 0, data.length));
+   }
+
+   @Test
+   public void testDuplicateAttributesDiscarded()
+   {
+      byte[] data = ("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\na=recvonly\r\na=tool:x\r\na=recvonly\r\n" +
+                     "m=audio 4000 RTP/AVP 0\r\nb=AS:64\r\nb=TIAS:1000\r\nb=AS:32\r\na=ptime:20\r\na=ptime:20\r\n").getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parse(context, data, 0, data.length);
+      assertEquals(2, desc.getAttributes().length);
+      MediaDescription media = desc.getMediaDescriptions()[0];
+      assertEquals(1, media.getAttributes().length);
+      assertEquals(2, media.getBandwidths().length);
+      assertEquals(32, media.getBandwidth("AS").getValue());
+      assertEquals("AS", media.getBandwidths()[0].getType());
+   }
+
+   @Test
+   public void testManyAttributes()
+   {
+      StringBuilder sdp = new StringBuilder("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n");
+      for(int i = 0; i < 100; i++) sdp.append("a=candidate:").append(i % 60).append("\r\n");
+      byte[] data = sdp.toString().getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parse(context, data, 0, data.length);
+      assertEquals(60, desc.getAttributes().length);
+      assertEquals("59", desc.getAttributes()[59].getValue());
+   }
+
+   @Test
+   public void testBoundedReads() throws Exception
+   {
+      byte[] data = load("/manheim.sdp").getBytes(UTF_8);
+      SessionDescription expected = objectUnderTest.parse(data, 0, data.length);
+      assertEquals(expected, objectUnderTest.parse(context, new ByteArrayInputStream(data), data.length));
+      assertEquals(expected, objectUnderTest.parse(context, Channels.newChannel(new ByteArrayInputStream(data)), data.length));
+   }
+
+   @Test
+   public void testBusyContextRejected() throws Exception
+   {
+      final byte[] data = load("/example.sdp").getBytes(UTF_8);
+      final ParseContext shared = context;
+      objectUnderTest.parse(ByteBuffer.wrap(data), new SdpHandler() {
+         @Override
+         public void onSessionName(CharSequence name)
+         {
+            // the default context is replaced for nested parses
+            assertNotNull(objectUnderTest.parse(data, 0, data.length));
+            assertNotNull(objectUnderTest.parse(shared, data, 0, data.length));
+         }
+      });
+      shared.acquire(shared.handler, ParserLimits.UNLIMITED, ParseMask.ALL);
+      try {
+         objectUnderTest.parse(shared, data, 0, data.length);
+         fail("expected busy context to be rejected");
+      } catch(IllegalStateException e) {
+         // expected
+      } finally {
+         shared.release();
+      }
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullContext()
+   {
+      objectUnderTest.parse((ParseContext) null, ByteBuffer.allocate(0));
+   }
+
+
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
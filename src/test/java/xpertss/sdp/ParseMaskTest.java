@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParseMaskTest {
+
+   private static final String SDP =
+         "v=0\r\no=jdoe 2890844526 2890842807 IN IP4 10.47.16.5\r\ns=Call\r\ni=info\r\nb=AS:512\r\nt=0 0\r\n" +
+         "a=group:BUNDLE 0 1\r\na=tool:x\r\n" +
+         "m=audio 49170 RTP/AVP 0 101\r\nc=IN IP4 10.47.16.5\r\na=rtpmap:0 PCMU/8000\r\na=rtpmap:101 telephone-event/8000\r\na=sendrecv\r\n" +
+         "m=video 51372 RTP/AVP 31\r\nb=AS:256\r\na=rtpmap:31 H261/90000\r\n" +
+         "m=audio 49180 RTP/AVP 8\r\na=rtpmap:8 PCMA/8000\r\n";
+
+
+   @Test
+   public void testAllByDefault()
+   {
+      SessionParser parser = new SessionParser();
+      assertSame(ParseMask.ALL, parser.getMask());
+      assertEquals(parser.parse(SDP), new SessionParser(ParseMask.ALL).parse(SDP));
+   }
+
+   @Test
+   public void testSessionOnly()
+   {
+      SessionDescription desc = parse(ParseMask.SESSION_ONLY);
+      assertEquals(0, desc.getMediaDescriptions().length);
+      assertEquals("info", desc.getInfo());
+      assertEquals(2, desc.getAttributes().length);
+   }
+
+   @Test
+   public void testOriginAndMediaOnly()
+   {
+      SessionDescription desc = parse(ParseMaskBuilder.create().setFields("om").build());
+      assertEquals("jdoe", desc.getOrigin().getUsername());
+      assertEquals("SessionName", desc.getSessionName());
+      assertNull(desc.getInfo());
+      assertEquals(0, desc.getBandwidths().length);
+      assertEquals(0, desc.getAttributes().length);
+      MediaDescription[] medias = desc.getMediaDescriptions();
+      assertEquals(3, medias.length);
+      assertEquals(51372, medias[1].getMedia().getPort());
+      assertNull(medias[0].getConnection());
+      assertEquals(0, medias[0].getAttributes().length);
+      assertEquals(0, medias[1].getBandwidths().length);
+   }
+
+   @Test
+   public void testMediaTypes()
+   {
+      SessionDescription desc = parse(ParseMaskBuilder.create().setMediaTypes("audio").build());
+      MediaDescription[] medias = desc.getMediaDescriptions();
+      assertEquals(2, medias.length);
+      assertEquals(49170, medias[0].getMedia().getPort());
+      assertEquals(3, medias[0].getAttributes().length);
+      assertEquals(49180, medias[1].getMedia().getPort());
+      assertEquals(1, medias[1].getAttributes().length);
+      assertEquals(0, medias[1].getBandwidths().length);
+   }
+
+   @Test
+   public void testAttributeNames()
+   {
+      SessionDescription desc = parse(ParseMaskBuilder.create().setAttributeNames("rtpmap", "fmtp", "control").build());
+      assertEquals(0, desc.getAttributes().length);
+      assertEquals(2, desc.getMediaDescriptions()[0].getAttributes().length);
+      assertEquals("rtpmap", desc.getMediaDescriptions()[0].getAttributes()[1].getName());
+      assertEquals(1, desc.getMediaDescriptions()[1].getAttributes().length);
+   }
+
+   @Test
+   public void testNoAttributeValues()
+   {
+      SessionDescription desc = parse(ParseMaskBuilder.create().setAttributeValues(false).build());
+      Attribute[] attrs = desc.getMediaDescriptions()[0].getAttributes();
+      assertEquals(2, attrs.length);
+      assertEquals("rtpmap", attrs[0].getName());
+      assertNull(attrs[0].getValue());
+      assertEquals("sendrecv", attrs[1].getName());
+   }
+
+   @Test
+   public void testLazyMatchesEager()
+   {
+      ParseMask mask = ParseMaskBuilder.create().setMediaTypes("audio").setAttributeNames("rtpmap").setAttributeValues(false).build();
+      SessionParser parser = new SessionParser(mask);
+      byte[] data = SDP.getBytes(UTF_8);
+      assertEquals(parser.parse(data, 0, data.length), parser.parseLazy(data, 0, data.length));
+   }
+
+   @Test
+   public void testSkippedLinesCheckedForOrdering()
+   {
+      String sdp = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\nm=video 4000 RTP/AVP 31\r\na=recvonly\r\nc=IN IP4 0.0.0.0\r\n";
+      byte[] data = sdp.getBytes(UTF_8);
+      ParseResult result = new SessionParser(ParseMaskBuilder.create().setMediaTypes("audio").build()).tryParse(data, 0, data.length);
+      assertFalse(result.isSuccess());
+      assertEquals(ErrorCode.MISPLACED_FIELD, result.getError().getCode());
+      assertEquals(7, result.getError().getLineNumber());
+   }
+
+   @Test
+   public void testSkippedValuesNotValidated()
+   {
+      String sdp = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nb=AS:fast\r\nt=0 0\r\nm=video 99999 RTP/AVP x\r\n";
+      SessionDescription desc = new SessionParser(ParseMaskBuilder.create().setFields("vost").build()).parse(sdp);
+      assertEquals(0, desc.getBandwidths().length);
+      assertEquals(0, desc.getMediaDescriptions().length);
+   }
+
+   @Test
+   public void testHandlerSeesOnlySelectedFields()
+   {
+      final List<String> events = new ArrayList<>();
+      byte[] data = SDP.getBytes(UTF_8);
+      new SessionParser(ParseMaskBuilder.create().setFields("om").setMediaTypes("video").build()).parse(ByteBuffer.wrap(data), new SdpHandler() {
+         @Override
+         public void onOrigin(CharSequence username, CharSequence sessionId, long sessionVersion,
+                              CharSequence networkType, CharSequence addressType, CharSequence address)
+         {
+            events.add("o");
+         }
+
+         @Override
+         public void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats)
+         {
+            events.add("m:" + type);
+         }
+
+         @Override
+         public void onMediaEnd()
+         {
+            events.add("/m");
+         }
+
+         @Override
+         public void onAttribute(CharSequence name, CharSequence value)
+         {
+            events.add("a");
+         }
+      });
+      assertEquals("[o, m:video, /m]", events.toString());
+   }
+
+   @Test
+   public void testExcludingTimeExcludesRepeats()
+   {
+      ParseMask mask = ParseMaskBuilder.create().setFields("vosr").build();
+      assertFalse(mask.includes('t'));
+      assertFalse(mask.includes('r'));
+      assertTrue(mask.includes('o'));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUnknownFieldType()
+   {
+      ParseMaskBuilder.create().setFields("ox");
+   }
+
+
+
+   private SessionDescription parse(ParseMask mask)
+   {
+      byte[] data = SDP.getBytes(UTF_8);
+      return new SessionParser(mask).parse(data, 0, data.length);
+   }
+
+}
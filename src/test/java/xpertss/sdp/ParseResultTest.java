@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Before;
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParseResultTest {
+
+   private static final String HEAD = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n";
+
+   private SessionParser objectUnderTest;
+
+   @Before
+   public void setUp()
+   {
+      objectUnderTest = new SessionParser();
+   }
+
+
+   @Test
+   public void testSuccess() throws Exception
+   {
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      ParseResult result = objectUnderTest.tryParse(data, 0, data.length);
+      assertTrue(result.isSuccess());
+      assertNull(result.getError());
+      assertTrue(result.getWarnings().isEmpty());
+      assertEquals(objectUnderTest.parse(data, 0, data.length), result.getDescription());
+   }
+
+   @Test
+   public void testErrorLocation() throws Exception
+   {
+      String sdp = load("/invalid-bandwidth.sdp");
+      byte[] data = sdp.getBytes(UTF_8);
+      ParseResult result = objectUnderTest.tryParse(data, 0, data.length);
+      assertFalse(result.isSuccess());
+      assertNull(result.getDescription());
+      ParseError error = result.getError();
+      assertEquals(ErrorCode.INVALID_BANDWIDTH, error.getCode());
+      assertEquals(4, error.getLineNumber());
+      assertEquals('b', error.getField());
+      assertEquals(sdp.indexOf("hello"), error.getOffset());
+      assertEquals("invalid bandwidth value specified: hello", error.getMessage());
+   }
+
+   @Test
+   public void testMisplacedField() throws Exception
+   {
+      byte[] data = load("/info-out-of-order.sdp").getBytes(UTF_8);
+      ParseError error = objectUnderTest.tryParse(data, 0, data.length).getError();
+      assertEquals(ErrorCode.MISPLACED_FIELD, error.getCode());
+      assertEquals(5, error.getLineNumber());
+      assertEquals('i', error.getField());
+   }
+
+   @Test
+   public void testPrematureEnd()
+   {
+      byte[] data = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\n".getBytes(UTF_8);
+      ParseError error = objectUnderTest.tryParse(data, 0, data.length).getError();
+      assertEquals(ErrorCode.PREMATURE_END, error.getCode());
+      assertEquals(4, error.getLineNumber());
+      assertEquals(0, error.getField());
+      assertEquals(data.length, error.getOffset());
+      assertEquals("premature end of stream: expecting time", error.getMessage());
+   }
+
+   @Test
+   public void testModelConstraintsReported()
+   {
+      assertCode(ErrorCode.INVALID_TIME, "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=3000 2000\r\n");
+      assertCode(ErrorCode.INVALID_REPEAT_TIME, HEAD + "r=7d 1h 0\r\n");
+      assertCode(ErrorCode.INVALID_TIME_ZONE, HEAD + "z=0 -1h\r\n");
+      assertCode(ErrorCode.INVALID_TIME_ZONE, HEAD + "z=2882844526 -1x\r\n");
+      assertCode(ErrorCode.INVALID_CONNECTION, HEAD + "m=audio 4000 RTP/AVP 0\r\nc= IN IP4\r\n");
+      assertCode(ErrorCode.INVALID_KEY, HEAD + "k=:secret\r\n");
+      assertCode(ErrorCode.INVALID_ATTRIBUTE, HEAD + "a=:value\r\n");
+      assertCode(ErrorCode.INVALID_MEDIA, HEAD + "m= 4000 RTP/AVP 0\r\n");
+   }
+
+   @Test
+   public void testExceptionCarriesError()
+   {
+      byte[] data = (HEAD + "m=audio 70000 RTP/AVP 0\r\n").getBytes(UTF_8);
+      try {
+         objectUnderTest.parse(data, 0, data.length);
+         fail("expected invalid port to fail");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.INVALID_MEDIA, e.getError().getCode());
+         assertEquals(5, e.getError().getLineNumber());
+         assertEquals("found invalid port: 70000", e.getMessage());
+      }
+   }
+
+   @Test
+   public void testLenientSkipsInvalidLines()
+   {
+      String sdp = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nb=AS:fast\r\nt=0 0\r\nx=unknown\r\na=tool:x\r\n" +
+                   "m=audio 70000 RTP/AVP 0\r\na=rtpmap:0 PCMU/8000\r\n" +
+                   "m=video 5000 RTP/AVP 31\r\na=recvonly\r\n";
+      byte[] data = sdp.getBytes(UTF_8);
+      ParseResult result = objectUnderTest.parseLenient(data, 0, data.length);
+      assertTrue(result.isSuccess());
+      SessionDescription desc = result.getDescription();
+      assertEquals(0, desc.getBandwidths().length);
+      assertEquals(1, desc.getAttributes().length);
+      assertEquals(1, desc.getMediaDescriptions().length);
+      assertEquals("video", desc.getMediaDescriptions()[0].getMedia().getType());
+      assertEquals(1, desc.getMediaDescriptions()[0].getAttributes().length);
+
+      List<ParseError> warnings = result.getWarnings();
+      assertEquals(3, warnings.size());
+      assertEquals(ErrorCode.INVALID_BANDWIDTH, warnings.get(0).getCode());
+      assertEquals(4, warnings.get(0).getLineNumber());
+      assertEquals(ErrorCode.UNKNOWN_FIELD, warnings.get(1).getCode());
+      assertEquals(ErrorCode.INVALID_MEDIA, warnings.get(2).getCode());
+      assertEquals(8, warnings.get(2).getLineNumber());
+   }
+
+   @Test
+   public void testLenientMissingRequiredFields()
+   {
+      byte[] data = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\nt=0 0\r\ni=late\r\na=recvonly\r\n".getBytes(UTF_8);
+      ParseResult result = objectUnderTest.parseLenient(data, 0, data.length);
+      assertTrue(result.isSuccess());
+      assertEquals("SessionName", result.getDescription().getSessionName());
+      assertNull(result.getDescription().getInfo());
+      assertEquals(1, result.getDescription().getAttributes().length);
+      assertEquals(2, result.getWarnings().size());
+      assertEquals("invalid session description: expecting session name", result.getWarnings().get(0).getMessage());
+      assertEquals(ErrorCode.MISPLACED_FIELD, result.getWarnings().get(1).getCode());
+      assertEquals(4, result.getWarnings().get(1).getLineNumber());
+   }
+
+   @Test
+   public void testLenientPrematureEnd()
+   {
+      byte[] data = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\n".getBytes(UTF_8);
+      ParseResult result = objectUnderTest.parseLenient(data, 0, data.length);
+      assertTrue(result.isSuccess());
+      assertEquals(1, result.getDescription().getTimeDescriptions().length);
+      assertEquals(ErrorCode.PREMATURE_END, result.getWarnings().get(0).getCode());
+   }
+
+   @Test
+   public void testLenientNothingParsed()
+   {
+      byte[] data = "garbage\r\nx=more\r\n".getBytes(UTF_8);
+      ParseResult result = objectUnderTest.parseLenient(data, 0, data.length);
+      assertFalse(result.isSuccess());
+      assertEquals(ErrorCode.PREMATURE_END, result.getError().getCode());
+      assertEquals(2, result.getWarnings().size());
+   }
+
+   @Test(expected = UnsupportedOperationException.class)
+   public void testWarningsUnmodifiable()
+   {
+      byte[] data = (HEAD + "x=unknown\r\n").getBytes(UTF_8);
+      objectUnderTest.parseLenient(data, 0, data.length).getWarnings().clear();
+   }
+
+
+
+   private void assertCode(ErrorCode expected, String sdp)
+   {
+      byte[] data = sdp.getBytes(UTF_8);
+      ParseResult result = objectUnderTest.tryParse(data, 0, data.length);
+      assertFalse(sdp, result.isSuccess());
+      assertEquals(sdp, expected, result.getError().getCode());
+   }
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParserLimitsTest {
+
+   private static final String HEAD = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n";
+
+
+   @Test
+   public void testUnlimitedByDefault() throws Exception
+   {
+      SessionParser parser = new SessionParser();
+      assertSame(ParserLimits.UNLIMITED, parser.getLimits());
+      assertEquals(Integer.MAX_VALUE, ParserLimits.UNLIMITED.getMaxBytes());
+      assertEquals(2, parser.parse(load("/manheim.sdp")).getMediaDescriptions().length);
+   }
+
+   @Test
+   public void testMaxBytes() throws Exception
+   {
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      assertTrue(parser(ParserLimitsBuilder.create().setMaxBytes(data.length)).tryParse(data, 0, data.length).isSuccess());
+      ParseError error = parser(ParserLimitsBuilder.create().setMaxBytes(data.length - 1)).tryParse(data, 0, data.length).getError();
+      assertEquals(ErrorCode.CONTENT_TOO_LARGE, error.getCode());
+   }
+
+   @Test
+   public void testMaxBytesIgnoresTrailingContent()
+   {
+      byte[] data = (HEAD + "\r\nINVITE sip:bob@example.com SIP/2.0\r\n").getBytes(UTF_8);
+      SessionParser parser = parser(ParserLimitsBuilder.create().setMaxBytes(HEAD.length()));
+      assertTrue(parser.tryParse(data, 0, data.length).isSuccess());
+   }
+
+   @Test
+   public void testMaxBytesBoundedStream() throws Exception
+   {
+      byte[] data = load("/example.sdp").getBytes(UTF_8);
+      ByteArrayInputStream stream = new ByteArrayInputStream(data);
+      try {
+         parser(ParserLimitsBuilder.create().setMaxBytes(100)).parse(stream, data.length);
+         fail("expected content length to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.CONTENT_TOO_LARGE, e.getError().getCode());
+      }
+      assertEquals(data.length, stream.available());
+   }
+
+   @Test
+   public void testMaxBytesText()
+   {
+      try {
+         parser(ParserLimitsBuilder.create().setMaxBytes(20)).parse(HEAD);
+         fail("expected content to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.CONTENT_TOO_LARGE, e.getError().getCode());
+         assertEquals(2, e.getError().getLineNumber());
+      }
+   }
+
+   @Test
+   public void testMaxLineLength()
+   {
+      char[] value = new char[200];
+      Arrays.fill(value, 'x');
+      byte[] data = (HEAD + "a=label:" + new String(value) + "\r\n").getBytes(UTF_8);
+      ParseResult result = parser(ParserLimitsBuilder.create().setMaxLineLength(128)).tryParse(data, 0, data.length);
+      assertEquals(ErrorCode.LINE_TOO_LONG, result.getError().getCode());
+      assertEquals(5, result.getError().getLineNumber());
+      assertEquals(HEAD.length(), result.getError().getOffset());
+   }
+
+   @Test
+   public void testMaxMedia()
+   {
+      String media = "m=audio 4000 RTP/AVP 0\r\n";
+      SessionParser parser = parser(ParserLimitsBuilder.create().setMaxMedia(2));
+      assertTrue(parse(parser, HEAD + media + media).isSuccess());
+      assertEquals(ErrorCode.TOO_MANY_MEDIA, parse(parser, HEAD + media + media + media).getError().getCode());
+   }
+
+   @Test
+   public void testMaxAttributesPerSection()
+   {
+      String attrs = "a=x:1\r\na=x:2\r\n";
+      SessionParser parser = parser(ParserLimitsBuilder.create().setMaxAttributes(2));
+      assertTrue(parse(parser, HEAD + attrs + "m=audio 4000 RTP/AVP 0\r\n" + attrs).isSuccess());
+      ParseResult result = parse(parser, HEAD + attrs + "m=audio 4000 RTP/AVP 0\r\n" + attrs + "a=x:3\r\n");
+      assertEquals(ErrorCode.TOO_MANY_ATTRIBUTES, result.getError().getCode());
+      assertEquals('a', result.getError().getField());
+      assertEquals(10, result.getError().getLineNumber());
+   }
+
+   @Test
+   public void testMaxFormats()
+   {
+      SessionParser parser = parser(ParserLimitsBuilder.create().setMaxFormats(3));
+      assertTrue(parse(parser, HEAD + "m=audio 4000 RTP/AVP 0 8 18\r\n").isSuccess());
+      assertEquals(ErrorCode.TOO_MANY_FORMATS, parse(parser, HEAD + "m=audio 4000 RTP/AVP 0 8 18 101\r\n").getError().getCode());
+   }
+
+   @Test
+   public void testMaxFormatsLazy()
+   {
+      byte[] data = (HEAD + "m=audio 4000 RTP/AVP 0 8 18 101\r\n").getBytes(UTF_8);
+      try {
+         parser(ParserLimitsBuilder.create().setMaxFormats(3)).parseLazy(data, 0, data.length);
+         fail("expected formats to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.TOO_MANY_FORMATS, e.getError().getCode());
+      }
+   }
+
+   @Test
+   public void testMaxRepeatOffsets()
+   {
+      String head = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=3034423619 3042462419\r\n";
+      SessionParser parser = parser(ParserLimitsBuilder.create().setMaxRepeatOffsets(2));
+      assertTrue(parse(parser, head + "r=7d 1h 0 25h\r\n").isSuccess());
+      assertEquals(ErrorCode.TOO_MANY_REPEAT_OFFSETS, parse(parser, head + "r=7d 1h 0 25h 50h\r\n").getError().getCode());
+   }
+
+   @Test
+   public void testLenientStillAborts()
+   {
+      byte[] data = (HEAD + "x=skipped\r\nm=audio 4000 RTP/AVP 0\r\nm=audio 4002 RTP/AVP 0\r\n").getBytes(UTF_8);
+      ParseResult result = parser(ParserLimitsBuilder.create().setMaxMedia(1)).parseLenient(data, 0, data.length);
+      assertFalse(result.isSuccess());
+      assertEquals(ErrorCode.TOO_MANY_MEDIA, result.getError().getCode());
+      assertEquals(1, result.getWarnings().size());
+   }
+
+   @Test
+   public void testIncrementalRejectsLongPartialLine()
+   {
+      IncrementalParser incremental = parser(ParserLimitsBuilder.create().setMaxLineLength(64)).newIncrementalParser();
+      incremental.feed(ByteBuffer.wrap((HEAD + "a=label:").getBytes(UTF_8)));
+      try {
+         incremental.feed(ByteBuffer.wrap(new byte[100]));
+         fail("expected partial line to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.LINE_TOO_LONG, e.getError().getCode());
+         assertEquals(5, e.getError().getLineNumber());
+      }
+   }
+
+   @Test
+   public void testCreateFromExisting()
+   {
+      ParserLimits limits = ParserLimitsBuilder.create().setMaxBytes(1024).setMaxMedia(4).build();
+      ParserLimits copy = ParserLimitsBuilder.create(limits).setMaxMedia(2).build();
+      assertEquals(1024, copy.getMaxBytes());
+      assertEquals(2, copy.getMaxMedia());
+      assertEquals(Integer.MAX_VALUE, copy.getMaxLineLength());
+      assertEquals(4, limits.getMaxMedia());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testLimitsMustBePositive()
+   {
+      ParserLimitsBuilder.create().setMaxBytes(0);
+   }
+
+
+
+   private SessionParser parser(ParserLimitsBuilder limits)
+   {
+      return new SessionParser(limits.build());
+   }
+
+   private ParseResult parse(SessionParser parser, String sdp)
+   {
+      byte[] data = sdp.getBytes(UTF_8);
+      return parser.tryParse(data, 0, data.length);
+   }
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Before;
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SdpHandlerTest {
+
+   private SessionParser objectUnderTest;
+
+   @Before
+   public void setUp()
+   {
+      objectUnderTest = new SessionParser();
+   }
+
+
+   @Test
+   public void testEventsInDocumentOrder() throws Exception
+   {
+      RecordingHandler handler = new RecordingHandler();
+      objectUnderTest.parse(load("/example.sdp"), handler);
+      assertEquals(Arrays.asList(
+         "version 0",
+         "origin jdoe 2890844526 2890842807 IN IP4 10.47.16.5",
+         "name SDP Seminar",
+         "info A Seminar on the session description protocol",
+         "uri http://www.example.com/seminars/sdp.pdf",
+         "email j.doe@example.com (Jane Doe)",
+         "connection IN IP4 224.2.17.12/127",
+         "time 2873397496 2873404696",
+         "attribute recvonly null",
+         "mediaStart audio 49170 1 RTP/AVP [0]",
+         "info Simple audio stream",
+         "bandwidth AS 0",
+         "mediaEnd",
+         "mediaStart video 51372 1 RTP/AVP [99]",
+         "attribute rtpmap 99 h263-1998/90000",
+         "mediaEnd",
+         "end"), handler.events);
+   }
+
+   @Test
+   public void testBytesMatchString() throws Exception
+   {
+      String sdp = load("/manheim.sdp");
+      RecordingHandler chars = new RecordingHandler();
+      objectUnderTest.parse(sdp, chars);
+      RecordingHandler bytes = new RecordingHandler();
+      objectUnderTest.parse(ByteBuffer.wrap(sdp.getBytes(UTF_8)), bytes);
+      assertEquals(chars.events, bytes.events);
+   }
+
+   @Test
+   public void testTimeFields()
+   {
+      String sdp = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=3034423619 3042462419\r\nr=7d 1h 0 25h\r\nz=2882844526 -1h 2898848070 0\r\n";
+      RecordingHandler handler = new RecordingHandler();
+      objectUnderTest.parse(sdp, handler);
+      assertEquals(Arrays.asList(
+         "time 3034423619 3042462419",
+         "repeat 604800 3600 [0, 90000]",
+         "zone 2882844526 -3600",
+         "zone 2898848070 0",
+         "end"), handler.events.subList(3, handler.events.size()));
+   }
+
+   @Test
+   public void testKeyAndAttributeValues()
+   {
+      String sdp = "v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\nk=prompt\r\na=fmtp:96 a=b\r\n" +
+                   "m=audio 4000/2 RTP/AVP 96\r\nk=base64:a2V5\r\na=sendonly:\r\n";
+      RecordingHandler handler = new RecordingHandler();
+      objectUnderTest.parse(sdp.getBytes(UTF_8), 0, sdp.length(), handler);
+      assertEquals(Arrays.asList(
+         "key prompt null",
+         "attribute fmtp 96 a=b",
+         "mediaStart audio 4000 2 RTP/AVP [96]",
+         "key base64 a2V5",
+         "attribute sendonly null",
+         "mediaEnd",
+         "end"), handler.events.subList(4, handler.events.size()));
+   }
+
+   @Test
+   public void testDecodesRetainedText()
+   {
+      String sdp = "v=0\no=- 1 1 IN IP4 0.0.0.0\ns=Café über\nt=0 0\n";
+      RecordingHandler handler = new RecordingHandler();
+      objectUnderTest.parse(ByteBuffer.wrap(sdp.getBytes(UTF_8)), handler);
+      assertEquals("name Café über", handler.events.get(2));
+   }
+
+   @Test
+   public void testDefaultCallbacksIgnored() throws Exception
+   {
+      final List<String> names = new ArrayList<>();
+      objectUnderTest.parse(load("/example.sdp"), new SdpHandler() {
+         @Override
+         public void onAttribute(CharSequence name, CharSequence value)
+         {
+            names.add(name.toString());
+         }
+      });
+      assertEquals(Arrays.asList("recvonly", "rtpmap"), names);
+   }
+
+   @Test
+   public void testOrderingEnforced()
+   {
+      RecordingHandler handler = new RecordingHandler();
+      try {
+         objectUnderTest.parse(load("/info-out-of-order.sdp"), handler);
+         fail("expected misplaced field to fail");
+      } catch(Exception e) {
+         assertTrue(e instanceof SdpParseException);
+      }
+      assertTrue(!handler.events.contains("end"));
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testPrematureEnd()
+   {
+      objectUnderTest.parse("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\n", new RecordingHandler());
+   }
+
+   @Test
+   public void testHandlerMayAbort()
+   {
+      final int[] count = new int[1];
+      try {
+         objectUnderTest.parse("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n", new SdpHandler() {
+            @Override
+            public void onSessionName(CharSequence name)
+            {
+               throw new IllegalStateException("stop");
+            }
+
+            @Override
+            public void onTime(long start, long stop)
+            {
+               count[0]++;
+            }
+         });
+         fail("expected handler exception to propagate");
+      } catch(IllegalStateException e) {
+         assertEquals("stop", e.getMessage());
+      }
+      assertEquals(0, count[0]);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullHandler()
+   {
+      objectUnderTest.parse(ByteBuffer.allocate(0), null);
+   }
+
+
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+
+   private static class RecordingHandler implements SdpHandler {
+
+      private final List<String> events = new ArrayList<>();
+
+      @Override
+      public void onVersion(int version)
+      {
+         events.add("version " + version);
+      }
+
+      @Override
+      public void onOrigin(CharSequence username, CharSequence sessionId, long sessionVersion,
+                           CharSequence networkType, CharSequence addressType, CharSequence address)
+      {
+         events.add("origin " + username + " " + sessionId + " " + sessionVersion + " " +
+                     networkType + " " + addressType + " " + address);
+      }
+
+      @Override
+      public void onSessionName(CharSequence name)
+      {
+         events.add("name " + name);
+      }
+
+      @Override
+      public void onInfo(CharSequence info)
+      {
+         events.add("info " + info);
+      }
+
+      @Override
+      public void onUri(CharSequence uri)
+      {
+         events.add("uri " + uri);
+      }
+
+      @Override
+      public void onEmail(CharSequence email)
+      {
+         events.add("email " + email);
+      }
+
+      @Override
+      public void onPhone(CharSequence phone)
+      {
+         events.add("phone " + phone);
+      }
+
+      @Override
+      public void onConnection(CharSequence networkType, CharSequence addressType, CharSequence address)
+      {
+         events.add("connection " + networkType + " " + addressType + " " + address);
+      }
+
+      @Override
+      public void onBandwidth(CharSequence type, int kbps)
+      {
+         events.add("bandwidth " + type + " " + kbps);
+      }
+
+      @Override
+      public void onTime(long start, long stop)
+      {
+         events.add("time " + start + " " + stop);
+      }
+
+      @Override
+      public void onRepeatTime(long interval, long duration, long[] offsets)
+      {
+         events.add("repeat " + interval + " " + duration + " " + Arrays.toString(offsets));
+      }
+
+      @Override
+      public void onTimeZone(long time, long offset)
+      {
+         events.add("zone " + time + " " + offset);
+      }
+
+      @Override
+      public void onKey(CharSequence method, CharSequence key)
+      {
+         events.add("key " + method + " " + key);
+      }
+
+      @Override
+      public void onAttribute(CharSequence name, CharSequence value)
+      {
+         events.add("attribute " + name + " " + value);
+      }
+
+      @Override
+      public void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats)
+      {
+         events.add("mediaStart " + type + " " + port + " " + portCount + " " + protocol + " " + Arrays.toString(formats));
+      }
+
+      @Override
+      public void onMediaEnd()
+      {
+         events.add("mediaEnd");
+      }
+
+      @Override
+      public void onEnd()
+      {
+         events.add("end");
+      }
+   }
+
+}
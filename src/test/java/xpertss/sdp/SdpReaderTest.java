@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SdpReaderTest {
+
+   private static final String FIRST = "v=0\r\no=- 1 1 IN IP4 10.0.0.1\r\ns=first\r\nt=0 0\r\nm=audio 4000 RTP/AVP 0\r\n";
+   private static final String SECOND = "v=0\no=- 2 1 IN IP4 10.0.0.2\ns=second\nt=0 0\n";
+
+
+   @Test
+   public void testIterate()
+   {
+      SdpReader reader = reader("\r\n" + FIRST + "\r\n\r\n" + SECOND + "\n");
+      assertTrue(reader.hasNext());
+      assertEquals("first", reader.next().getSessionName());
+      assertEquals("second", reader.next().getSessionName());
+      assertFalse(reader.hasNext());
+   }
+
+   @Test
+   public void testLastWithoutTerminator()
+   {
+      SdpReader reader = reader(FIRST + "\r\n" + "v=0\no=- 2 1 IN IP4 10.0.0.2\ns=second\nt=0 0");
+      assertEquals("first", reader.next().getSessionName());
+      assertEquals("second", reader.next().getSessionName());
+      assertFalse(reader.hasNext());
+   }
+
+   @Test
+   public void testEmpty()
+   {
+      assertFalse(reader("").hasNext());
+      assertFalse(reader("\r\n\n\r\n").hasNext());
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void testNextPastEnd()
+   {
+      SdpReader reader = reader(FIRST);
+      reader.next();
+      reader.next();
+   }
+
+   @Test
+   public void testContinuesPastMalformed()
+   {
+      SdpReader reader = reader(FIRST + "\r\nv=0\r\nx=bad\r\n\r\n" + SECOND);
+      assertEquals("first", reader.next().getSessionName());
+      try {
+         reader.next();
+         fail("expected malformed description to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.UNKNOWN_FIELD, e.getError().getCode());
+      }
+      assertEquals("second", reader.next().getSessionName());
+   }
+
+   @Test
+   public void testSmallReads() throws Exception
+   {
+      String manheim = load("/manheim.sdp");
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 50; i++) buf.append(manheim).append("\r\n\r\n");
+      InputStream trickle = new FilterInputStream(new ByteArrayInputStream(buf.toString().getBytes(UTF_8))) {
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException
+         {
+            return super.read(b, off, Math.min(len, 7));
+         }
+      };
+      SessionDescription expected = new SessionParser().parse(manheim);
+      int count = 0;
+      for(SdpReader reader = new SessionParser().newReader(trickle); reader.hasNext(); count++) {
+         assertEquals(expected, reader.next());
+      }
+      assertEquals(50, count);
+   }
+
+   @Test
+   public void testParallelStreamKeepsOrder()
+   {
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 5000; i++) {
+         buf.append("v=0\r\no=- ").append(i).append(" 1 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n\r\n");
+      }
+      List<String> ids = StreamSupport.stream(reader(buf.toString()).spliterator(), true)
+                                      .map(desc -> desc.getOrigin().getSessionId())
+                                      .collect(Collectors.toList());
+      assertEquals(5000, ids.size());
+      for(int i = 0; i < ids.size(); i++) assertEquals(Integer.toString(i), ids.get(i));
+   }
+
+   @Test
+   public void testSplitBoundedBySize()
+   {
+      char[] value = new char[100000];
+      Arrays.fill(value, 'x');
+      String large = "v=0\r\no=- 1 1 IN IP4 10.0.0.1\r\ns=" + new String(value) + "\r\nt=0 0\r\n\r\n";
+      StringBuilder buf = new StringBuilder();
+      for(int i = 0; i < 100; i++) buf.append(large);
+      Spliterator<SessionDescription> docs = reader(buf.toString()).spliterator();
+      Spliterator<SessionDescription> batch = docs.trySplit();
+      assertEquals(42, batch.estimateSize());
+      assertEquals(42, docs.trySplit().estimateSize());
+      assertEquals(16, docs.trySplit().estimateSize());
+      assertNull(docs.trySplit());
+   }
+
+   @Test
+   public void testOversizedDocumentSkipped()
+   {
+      char[] value = new char[20000];
+      Arrays.fill(value, 'x');
+      String large = "v=0\r\no=- 1 1 IN IP4 10.0.0.1\r\ns=" + new String(value) + "\r\nt=0 0\r\n";
+      SessionParser parser = new SessionParser(ParserLimitsBuilder.create().setMaxBytes(1024).build());
+      SdpReader reader = parser.newReader(new ByteArrayInputStream((large + "\r\n" + SECOND).getBytes(UTF_8)));
+      try {
+         reader.next();
+         fail("expected oversized description to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.CONTENT_TOO_LARGE, e.getError().getCode());
+      }
+      assertEquals("second", reader.next().getSessionName());
+      assertFalse(reader.hasNext());
+   }
+
+   @Test
+   public void testOversizedLineNotRetained()
+   {
+      // larger than the reader could ever buffer, so it must be discarded as it is read
+      final long size = 3L << 30;
+      InputStream in = new InputStream() {
+         private final byte[] tail = ("\r\n\r\n" + SECOND).getBytes(UTF_8);
+         private long count;
+
+         @Override
+         public int read()
+         {
+            throw new UnsupportedOperationException();
+         }
+
+         @Override
+         public int read(byte[] b, int off, int len)
+         {
+            if(count >= size + tail.length) return -1;
+            if(count < size) {
+               len = (int) Math.min(len, size - count);
+               Arrays.fill(b, off, off + len, (byte) 'x');
+            } else {
+               len = Math.min(len, (int) (size + tail.length - count));
+               System.arraycopy(tail, (int) (count - size), b, off, len);
+            }
+            count += len;
+            return len;
+         }
+      };
+      SessionParser parser = new SessionParser(ParserLimitsBuilder.create().setMaxBytes(1024).build());
+      SdpReader reader = parser.newReader(in);
+      try {
+         reader.next();
+         fail("expected oversized description to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.CONTENT_TOO_LARGE, e.getError().getCode());
+      }
+      assertEquals("second", reader.next().getSessionName());
+      assertFalse(reader.hasNext());
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullStream()
+   {
+      new SessionParser().newReader(null);
+   }
+
+
+
+   private SdpReader reader(String contents)
+   {
+      return new SessionParser().newReader(new ByteArrayInputStream(contents.getBytes(UTF_8)));
+   }
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
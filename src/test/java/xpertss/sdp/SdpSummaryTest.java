@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+import xpertss.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SdpSummaryTest {
+
+   private static final String SDP =
+         "v=0\r\no=jdoe 2890844526 2890842807 IN IP4 10.47.16.5\r\ns=Call\r\nc=IN IP4 224.2.17.12/127\r\nt=0 0\r\n" +
+         "a=tool:x\r\n" +
+         "m=audio 49170 RTP/AVP 0 101\r\nc=IN IP4 10.47.16.6\r\na=rtpmap:0 PCMU/8000\r\n" +
+         "m=video 51372/2 RTP/AVP 31 32\r\nb=AS:256\r\n" +
+         "m=application 0 UDP/BFCP 5\r\n";
+
+
+   @Test
+   public void testSummary()
+   {
+      SdpSummary summary = summarize(SDP);
+      assertEquals("jdoe", summary.getUsername());
+      assertEquals("2890844526", summary.getSessionId());
+      assertEquals(2890842807L, summary.getSessionVersion());
+      assertEquals("224.2.17.12/127", summary.getAddress());
+      assertEquals(3, summary.getMediaCount());
+
+      assertEquals("audio", summary.getMediaType(0));
+      assertEquals(49170, summary.getPort(0));
+      assertEquals("RTP/AVP", summary.getProtocol(0));
+      assertEquals("10.47.16.6", summary.getAddress(0));
+      assertArrayEquals(new int[] { 0, 101 }, summary.getFormats(0));
+
+      assertEquals("video", summary.getMediaType(1));
+      assertEquals(51372, summary.getPort(1));
+      assertEquals("224.2.17.12/127", summary.getAddress(1));
+      assertEquals(2, summary.getFormatCount(1));
+      assertEquals(32, summary.getFormat(1, 1));
+
+      assertEquals("application", summary.getMediaType(2));
+      assertEquals(0, summary.getPort(2));
+      assertArrayEquals(new int[] { 5 }, summary.getFormats(2));
+   }
+
+   @Test
+   public void testMatchesParse() throws Exception
+   {
+      byte[] data = load("/manheim.sdp").getBytes(UTF_8);
+      SessionParser parser = new SessionParser();
+      SessionDescription desc = parser.parse(data, 0, data.length);
+      SdpSummary summary = parser.summarize(data, 0, data.length);
+      assertEquals(desc.getOrigin().getUsername(), summary.getUsername());
+      assertEquals(desc.getOrigin().getSessionId(), summary.getSessionId());
+      assertEquals(desc.getOrigin().getSessionVersion(), summary.getSessionVersion());
+      assertEquals(desc.getConnection().getAddress(), summary.getAddress());
+      MediaDescription[] medias = desc.getMediaDescriptions();
+      assertEquals(medias.length, summary.getMediaCount());
+      for(int i = 0; i < medias.length; i++) {
+         Media media = medias[i].getMedia();
+         assertEquals(media.getType(), summary.getMediaType(i));
+         assertEquals(media.getPort(), summary.getPort(i));
+         assertEquals(media.getProtocol(), summary.getProtocol(i));
+         assertArrayEquals(media.getFormats(), summary.getFormats(i));
+      }
+   }
+
+   @Test
+   public void testNoMedia()
+   {
+      SdpSummary summary = summarize("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 0\r\n");
+      assertEquals(0, summary.getMediaCount());
+      assertNull(summary.getAddress());
+   }
+
+   @Test
+   public void testRepeatable()
+   {
+      SdpSummary first = summarize(SDP);
+      SdpSummary second = summarize(SDP);
+      assertNotSame(first, second);
+      assertEquals(first, second);
+      assertEquals(first.hashCode(), second.hashCode());
+   }
+
+   @Test
+   public void testStructureValidated()
+   {
+      try {
+         summarize("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nm=audio 4000 RTP/AVP 0\r\n");
+         fail("expected missing time to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.MISPLACED_FIELD, e.getError().getCode());
+      }
+   }
+
+   @Test
+   public void testHonoursMediaMask()
+   {
+      byte[] data = SDP.getBytes(UTF_8);
+      SessionParser parser = new SessionParser(ParseMaskBuilder.create().setMediaTypes("video").build());
+      SdpSummary summary = parser.summarize(ByteBuffer.wrap(data));
+      assertEquals(1, summary.getMediaCount());
+      assertEquals(51372, summary.getPort(0));
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void testFormatOutOfRange()
+   {
+      summarize(SDP).getFormat(0, 2);
+   }
+
+
+
+   private SdpSummary summarize(String sdp)
+   {
+      byte[] data = sdp.getBytes(UTF_8);
+      return new SessionParser().summarize(ByteBuffer.wrap(data));
+   }
+
+   private String load(String name) throws IOException
+   {
+      return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
+   }
+
+}
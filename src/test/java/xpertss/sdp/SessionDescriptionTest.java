@@ -8,6 +8,12 @@ package xpertss.sdp;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.Arrays;
 
 import static xpertss.sdp.SdpConstants.ADDRESS_TYPE_IP4;
@@ -17,6 +23,8 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class SessionDescriptionTest {
 
@@ -194,4 +202,220 @@ public class SessionDescriptionTest {
       assertEquals(buf.toString(), objectUnderTest.toString());
    }
 
+
+   @Test
+   public void testWriteToAppendable() throws Exception
+   {
+      StringBuilder buf = new StringBuilder();
+      objectUnderTest.writeTo(buf);
+      assertEquals(crlf(), buf.toString());
+   }
+
+   @Test
+   public void testWriteToByteBuffer()
+   {
+      ByteBuffer buf = ByteBuffer.allocate(4096);
+      buf.put((byte) 'x');
+      objectUnderTest.writeTo(buf);
+      buf.flip();
+      buf.get();
+      assertEquals(crlf(), UTF_8.decode(buf).toString());
+   }
+
+   @Test
+   public void testWriteToByteBufferOverflow()
+   {
+      ByteBuffer buf = ByteBuffer.allocate(100);
+      try {
+         objectUnderTest.writeTo(buf);
+         fail("expected overflow");
+      } catch(BufferOverflowException e) {
+         assertEquals(0, buf.position());
+      }
+   }
+
+   @Test
+   public void testWriteToOutputStream() throws Exception
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      objectUnderTest.writeTo(out);
+      assertEquals(crlf(), new String(out.toByteArray(), UTF_8));
+   }
+
+   @Test
+   public void testWriteToEncodesUtf8() throws Exception
+   {
+      SessionDescription desc = SessionBuilder.create().setSessionName("Caf\u00e9 \u4e2d \ud83d\ude00").build();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      desc.writeTo(out);
+      ByteBuffer buf = ByteBuffer.allocate(1024);
+      desc.writeTo(buf);
+      byte[] expected = desc.toString().replace(System.lineSeparator(), "\r\n").getBytes(UTF_8);
+      assertTrue(Arrays.equals(expected, out.toByteArray()));
+      assertTrue(Arrays.equals(expected, Arrays.copyOf(buf.array(), buf.position())));
+      assertEquals(desc, new SessionParser().parse(out.toByteArray(), 0, out.size()));
+   }
+
+   @Test
+   public void testWriteToLargeStream() throws Exception
+   {
+      MediaBuilder media = MediaBuilder.create().setMedia("audio", 0, 1, "RTP/AVP", 97);
+      for(int i = 0; i < 500; i++) media.addAttribute("x-attr" + i, "value " + i);
+      SessionDescription desc = SessionBuilder.create().addMediaDescription(media.build()).build();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      desc.writeTo(out);
+      assertEquals(desc.toString().replace(System.lineSeparator(), "\r\n"), new String(out.toByteArray(), UTF_8));
+   }
+
+
+   @Test
+   public void testSerializedLength() throws Exception
+   {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      objectUnderTest.writeTo(out);
+      assertEquals(out.size(), objectUnderTest.serializedLength());
+      MediaDescription media = objectUnderTest.getMediaDescriptions()[0];
+      assertEquals(media.toString().replace(System.lineSeparator(), "\r\n").length(), media.serializedLength());
+   }
+
+   @Test
+   public void testRepeatedWriteTo() throws Exception
+   {
+      ByteBuffer buf = ByteBuffer.allocate(objectUnderTest.serializedLength());
+      objectUnderTest.writeTo(buf);
+      assertFalse(buf.hasRemaining());
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      objectUnderTest.writeTo(out);
+      objectUnderTest.writeTo(out);
+      assertEquals(crlf() + crlf(), new String(out.toByteArray(), UTF_8));
+      assertTrue(Arrays.equals(buf.array(), Arrays.copyOf(out.toByteArray(), buf.capacity())));
+   }
+
+   @Test
+   public void testNestedWriteTo() throws Exception
+   {
+      // a description written to a stream from within another's write must not share its buffer
+      final SessionDescription inner = compact(SessionBuilder.create().setSessionName("inner").build());
+      final ByteArrayOutputStream nested = new ByteArrayOutputStream();
+      final int[] writes = new int[1];
+      ByteArrayOutputStream out = new ByteArrayOutputStream() {
+         @Override
+         public synchronized void write(byte[] b, int off, int len)
+         {
+            try {
+               inner.writeTo(nested);
+            } catch(IOException e) {
+               throw new UncheckedIOException(e);
+            }
+            writes[0]++;
+            super.write(b, off, len);
+         }
+      };
+      MediaBuilder media = MediaBuilder.create().setMedia("audio", 0, 1, "RTP/AVP", 97);
+      for(int i = 0; i < 500; i++) media.addAttribute("x-attr" + i, "value " + i);
+      SessionDescription desc = compact(SessionBuilder.create().addMediaDescription(media.build()).build());
+      desc.writeTo(new ByteArrayOutputStream());   // leaves this thread's buffer free to reuse
+      desc.writeTo(out);
+      assertEquals(desc.toString().replace(System.lineSeparator(), "\r\n"), new String(out.toByteArray(), UTF_8));
+      String expected = inner.toString().replace(System.lineSeparator(), "\r\n");
+      assertEquals(expected.length() * writes[0], nested.size());
+      assertEquals("", new String(nested.toByteArray(), UTF_8).replace(expected, ""));
+   }
+
+   @Test
+   public void testSerializedLengthCompact() throws Exception
+   {
+      byte[] data = objectUnderTest.toString().getBytes(UTF_8);
+      SessionDescription compact = new SessionParser().parseCompact(data, 0, data.length);
+      assertEquals(objectUnderTest.serializedLength(), compact.serializedLength());
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      compact.writeTo(out);
+      assertEquals(crlf(), new String(out.toByteArray(), UTF_8));
+   }
+
+   @Test
+   public void testDerivedSplicesMedia() throws Exception
+   {
+      MediaDescription audio = objectUnderTest.getMediaDescriptions()[0];
+      objectUnderTest.writeTo(new ByteArrayOutputStream());
+
+      OriginBuilder origin = OriginBuilder.create(objectUnderTest.getOrigin()).setSessionVersion(35);
+      SessionDescription derived = SessionBuilder.create(objectUnderTest).setOrigin(origin.build()).build();
+      assertTrue(audio == derived.getMediaDescriptions()[0]);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      derived.writeTo(out);
+      String expected = crlf().replace(" 2285599416 34 ", " 2285599416 35 ");
+      assertEquals(expected, new String(out.toByteArray(), UTF_8));
+      assertEquals(out.size(), derived.serializedLength());
+      assertEquals(derived, new SessionParser().parse(out.toByteArray(), 0, out.size()));
+   }
+
+   @Test
+   public void testToBuffers()
+   {
+      ByteBuffer[] buffers = objectUnderTest.toBuffers();
+      assertEquals(3, buffers.length);
+      StringBuilder buf = new StringBuilder();
+      for(ByteBuffer buffer : buffers) {
+         assertTrue(buffer.isReadOnly());
+         buf.append(UTF_8.decode(buffer));
+      }
+      assertEquals(crlf(), buf.toString());
+      assertTrue(UTF_8.decode(objectUnderTest.toBuffers()[1]).toString().startsWith("m=audio"));
+   }
+
+   @Test
+   public void testToBuffersSharesMedia()
+   {
+      SessionDescription derived = SessionBuilder.create(objectUnderTest).setSessionName("Other").build();
+      ByteBuffer first = objectUnderTest.toBuffers()[2];
+      ByteBuffer second = derived.toBuffers()[2];
+      second.get();
+      assertEquals(0, first.position());
+      assertEquals(first.capacity(), second.capacity());
+      assertEquals(UTF_8.decode(objectUnderTest.toBuffers()[2]), UTF_8.decode(derived.toBuffers()[2]));
+   }
+
+   @Test
+   public void testWriteToGatheringChannel() throws Exception
+   {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final int[] writes = new int[1];
+      GatheringByteChannel channel = new GatheringByteChannel() {
+         @Override
+         public long write(ByteBuffer[] srcs, int offset, int length)
+         {
+            writes[0]++;
+            long total = 0;
+            for(int i = offset; i < offset + length && total < 100; i++) {
+               while(srcs[i].hasRemaining() && total < 100) {
+                  out.write(srcs[i].get());
+                  total++;
+               }
+            }
+            return total;
+         }
+         @Override public long write(ByteBuffer[] srcs) { return write(srcs, 0, srcs.length); }
+         @Override public int write(ByteBuffer src) { return (int) write(new ByteBuffer[] { src }); }
+         @Override public boolean isOpen() { return true; }
+         @Override public void close() { }
+      };
+      assertEquals(objectUnderTest.serializedLength(), objectUnderTest.writeTo(channel));
+      assertEquals(crlf(), new String(out.toByteArray(), UTF_8));
+      assertEquals((objectUnderTest.serializedLength() + 99) / 100, writes[0]);
+   }
+
+
+   private String crlf()
+   {
+      return objectUnderTest.toString().replace(System.lineSeparator(), "\r\n");
+   }
+
+   private SessionDescription compact(SessionDescription desc)
+   {
+      byte[] data = desc.toString().getBytes(UTF_8);
+      return new SessionParser().parseCompact(data, 0, data.length);
+   }
+
 }
@@ -9,15 +9,38 @@ import org.junit.Before;
 import org.junit.Test;
 import xpertss.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class SessionParserTest {
 
@@ -197,6 +220,110 @@ public class SessionParserTest {
       objectUnderTest.parse(load("/invalid-line.sdp"));
    }
 
+   @Test(expected = SdpParseException.class)
+   public void testRepeatBeforeTime()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nr=7d 1h 0\r\nt=0 0\r\n");
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testSessionAttributeBeforeKey()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\na=recvonly\r\nk=prompt\r\n");
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testMediaInfoAfterAttribute()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                              "m=audio 4000 RTP/AVP 0\r\na=recvonly\r\ni=info\r\n");
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testMediaUriField()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                              "m=audio 4000 RTP/AVP 0\r\nu=http://www.example.com\r\n");
+   }
+
+   @Test
+   public void testMediaFieldsStayWithMedia()
+   {
+      SessionDescription desc = objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                              "a=tool:x\r\nm=audio 4000 RTP/AVP 0\r\ni=info\r\nc=IN IP4 10.0.0.2\r\nb=AS:64\r\n" +
+                              "k=prompt\r\na=recvonly\r\nm=video 5000 RTP/AVP 96\r\na=sendonly\r\n");
+      assertNull(desc.getInfo());
+      assertNull(desc.getConnection());
+      assertEquals(1, desc.getAttributes().length);
+      MediaDescription audio = desc.getMediaDescriptions()[0];
+      assertEquals("info", audio.getInfo());
+      assertEquals("10.0.0.2", audio.getConnection().getAddress());
+      assertEquals(64, audio.getBandwidth("AS").getValue());
+      assertEquals("prompt", audio.getKey().getMethod());
+      assertNotNull(audio.getAttribute("recvonly"));
+      assertNotNull(desc.getMediaDescriptions()[1].getAttribute("sendonly"));
+   }
+
+   @Test
+   public void testMultipleTimeDescriptions()
+   {
+      SessionDescription desc = objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\n" +
+                              "t=3034423619 3042462419\r\nr=7d 1h 0 25h\r\nt=0 0\r\n");
+      assertEquals(2, desc.getTimeDescriptions().length);
+      assertEquals(1, desc.getTimeDescriptions()[0].getRepeatTimes().length);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testRepeatLeadingWhitespace()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=3034423619 3042462419\r\nr= 7d 1h 0\r\n");
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testMediaInvalidPortCount()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\nm=audio 4000/ RTP/AVP 0\r\n");
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testMediaPortOutOfRange()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\nm=audio 70000 RTP/AVP 0\r\n");
+   }
+
+   @Test
+   public void testMediaManyFormats()
+   {
+      StringBuilder line = new StringBuilder("m=video 9 UDP/TLS/RTP/SAVPF");
+      for(int format = 96; format < 126; format++) line.append(' ').append(format);
+      SessionDescription desc = objectUnderTest.parse("v=0\r\no=- 1 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n" + line + "\r\n");
+      Media media = desc.getMediaDescriptions()[0].getMedia();
+      assertEquals(30, media.getFormats().length);
+      assertEquals(125, media.getFormats()[29]);
+      assertEquals("UDP/TLS/RTP/SAVPF", media.getProtocol());
+   }
+
+   @Test
+   public void testMediaPortCount()
+   {
+      SessionDescription desc = objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\nm=video 5000/2 RTP/AVP 96\r\n");
+      assertEquals(5000, desc.getMediaDescriptions()[0].getMedia().getPort());
+      assertEquals(2, desc.getMediaDescriptions()[0].getMedia().getPortCount());
+   }
+
+   @Test
+   public void testBandwidthTrailingColon()
+   {
+      SessionDescription desc = objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nb=AS:64:\r\nt=0 0\r\n");
+      assertEquals(64, desc.getBandwidth("AS").getValue());
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testBandwidthDoubleColon()
+   {
+      objectUnderTest.parse("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nb=AS::64\r\nt=0 0\r\n");
+   }
+
    // Single email
    @Test
    public void testSingleEmail() throws Exception
@@ -396,6 +523,508 @@ public class SessionParserTest {
 
 
 
+   @Test(expected = NullPointerException.class)
+   public void testParseNullBuffer()
+   {
+      objectUnderTest.parse((ByteBuffer)null);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testParseNullBytes()
+   {
+      objectUnderTest.parse(null, 0, 0);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testBytesEmptyContent()
+   {
+      objectUnderTest.parse(new byte[0], 0, 0);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testBytesInvalidLine() throws Exception
+   {
+      objectUnderTest.parse(ByteBuffer.wrap(load("/invalid-line.sdp").getBytes(UTF_8)));
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testBytesBlankLine() throws Exception
+   {
+      objectUnderTest.parse(ByteBuffer.wrap(load("/blank-line.sdp").getBytes(UTF_8)));
+   }
+
+   @Test
+   public void testBytesMatchesString() throws Exception
+   {
+      for(String name : new String[] { "/example.sdp", "/manheim.sdp", "/minimal.sdp", "/dual-repeat.sdp",
+                                       "/timezone-dual-offset.sdp", "/key-base64.sdp", "/attr-multi-colon.sdp" }) {
+         String sdp = load(name);
+         assertEquals(name, objectUnderTest.parse(sdp), objectUnderTest.parse(ByteBuffer.wrap(sdp.getBytes(UTF_8))));
+      }
+   }
+
+   @Test
+   public void testBytesCrLf() throws Exception
+   {
+      String sdp = load("/example.sdp");
+      byte[] data = sdp.replace("\n", "\r\n").getBytes(UTF_8);
+      assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(data, 0, data.length));
+   }
+
+   @Test
+   public void testBytesRange() throws Exception
+   {
+      String sdp = load("/example.sdp");
+      byte[] body = sdp.getBytes(UTF_8);
+      byte[] data = new byte[body.length + 20];
+      System.arraycopy(body, 0, data, 10, body.length);
+      assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(data, 10, body.length));
+   }
+
+   @Test
+   public void testBytesDirectBuffer() throws Exception
+   {
+      String sdp = load("/manheim.sdp");
+      byte[] data = sdp.getBytes(UTF_8);
+      ByteBuffer buf = ByteBuffer.allocateDirect(data.length);
+      buf.put(data).flip();
+      assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(buf));
+      assertEquals(0, buf.position());
+      assertEquals(data.length, buf.limit());
+   }
+
+   @Test
+   public void testBytesUtf8Text()
+   {
+      String sdp = "v=0\r\no=j\u00f6rg 1 1 IN IP4 10.0.0.1\r\ns=Caf\u00e9 \u4e2d\u6587\r\nt=0 0\r\na=tool:\u00fc\r\n";
+      SessionDescription desc = objectUnderTest.parse(ByteBuffer.wrap(sdp.getBytes(UTF_8)));
+      assertEquals("j\u00f6rg", desc.getOrigin().getUsername());
+      assertEquals("Caf\u00e9 \u4e2d\u6587", desc.getSessionName());
+      assertEquals("\u00fc", desc.getAttribute("tool").getValue());
+   }
+
+
+
+   @Test(expected = NullPointerException.class)
+   public void testParseLazyNullBuffer()
+   {
+      objectUnderTest.parseLazy((ByteBuffer)null);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseLazyInfoOutOfOrder() throws Exception
+   {
+      objectUnderTest.parseLazy(ByteBuffer.wrap(load("/info-out-of-order.sdp").getBytes(UTF_8)));
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseLazyMediaOutOfOrder()
+   {
+      byte[] data = ("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                        "m=audio 4000 RTP/AVP 0\r\na=recvonly\r\nc=IN IP4 10.0.0.2\r\n").getBytes(UTF_8);
+      objectUnderTest.parseLazy(data, 0, data.length);
+   }
+
+   @Test
+   public void testParseLazyMatchesEager() throws Exception
+   {
+      for(String name : new String[] { "/example.sdp", "/manheim.sdp", "/minimal.sdp", "/dual-bandwidth.sdp",
+                                       "/key-base64.sdp", "/attr-multi-colon.sdp", "/media-multi-white.sdp" }) {
+         String sdp = load(name);
+         SessionDescription lazy = objectUnderTest.parseLazy(ByteBuffer.wrap(sdp.getBytes(UTF_8)));
+         SessionDescription eager = objectUnderTest.parse(sdp);
+         assertEquals(name, eager, lazy);
+         assertEquals(name, eager.toString(), lazy.toString());
+         assertEquals(name, eager.hashCode(), lazy.hashCode());
+      }
+   }
+
+   @Test
+   public void testParseLazyAccessors() throws Exception
+   {
+      byte[] data = load("/manheim.sdp").getBytes(UTF_8);
+      SessionDescription eager = objectUnderTest.parse(data, 0, data.length);
+      SessionDescription lazy = objectUnderTest.parseLazy(data, 0, data.length);
+      assertEquals(eager.getOrigin(), lazy.getOrigin());
+      assertEquals(eager.getAttribute("control"), lazy.getAttribute("control"));
+      MediaDescription[] medias = lazy.getMediaDescriptions();
+      assertEquals(eager.getMediaDescriptions().length, medias.length);
+      for(int i = 0; i < medias.length; i++) {
+         MediaDescription expected = eager.getMediaDescriptions()[i];
+         assertEquals(expected.getMedia(), medias[i].getMedia());
+         assertEquals(expected.getConnection(), medias[i].getConnection());
+         assertEquals(expected.getAttributes().length, medias[i].getAttributes().length);
+         assertEquals(expected, medias[i]);
+      }
+   }
+
+   @Test
+   public void testParseLazyIsolatedFromSource()
+   {
+      byte[] data = "v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\na=tool:abc\r\n".getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parseLazy(data, 0, data.length);
+      Arrays.fill(data, (byte) 'x');
+      assertEquals("abc", desc.getAttribute("tool").getValue());
+   }
+
+   @Test
+   public void testParseLazyDefersFieldErrors()
+   {
+      byte[] data = "v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nb=AS:x\r\nt=0 0\r\na=recvonly\r\n".getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parseLazy(data, 0, data.length);
+      assertNotNull(desc.getAttribute("recvonly"));
+      try {
+         desc.getBandwidths();
+         fail("expected deferred bandwidth to fail");
+      } catch(SdpParseException e) {
+         // expected
+      }
+   }
+
+   @Test
+   public void testParseLazySerializable() throws Exception
+   {
+      String sdp = load("/example.sdp");
+      SessionDescription lazy = objectUnderTest.parseLazy(ByteBuffer.wrap(sdp.getBytes(UTF_8)));
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try(ObjectOutputStream oos = new ObjectOutputStream(out)) {
+         oos.writeObject(lazy);
+      }
+      try(ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+         assertEquals(objectUnderTest.parse(sdp), ois.readObject());
+      }
+   }
+
+
+
+   @Test
+   public void testParseCompactMatchesEager() throws Exception
+   {
+      for(String name : new String[] { "/example.sdp", "/manheim.sdp", "/minimal.sdp", "/dual-bandwidth.sdp",
+                                       "/key-base64.sdp", "/attr-multi-colon.sdp", "/media-multi-white.sdp" }) {
+         String sdp = load(name);
+         SessionDescription compact = objectUnderTest.parseCompact(ByteBuffer.wrap(sdp.getBytes(UTF_8)));
+         SessionDescription eager = objectUnderTest.parse(sdp);
+         assertEquals(name, eager, compact);
+         assertEquals(name, compact, eager);
+         assertEquals(name, eager.toString(), compact.toString());
+         assertEquals(name, eager.hashCode(), compact.hashCode());
+      }
+   }
+
+   @Test
+   public void testParseCompactDecodesOnAccess() throws Exception
+   {
+      byte[] data = load("/manheim.sdp").getBytes(UTF_8);
+      SessionDescription compact = objectUnderTest.parseCompact(data, 0, data.length);
+      Arrays.fill(data, (byte) 'x');
+      Attribute first = compact.getAttribute("control");
+      assertEquals("*", first.getValue());
+      assertFalse(first == compact.getAttribute("control"));
+      MediaDescription media = compact.getMediaDescriptions()[0];
+      assertFalse(media == compact.getMediaDescriptions()[0]);
+      assertEquals(media, compact.getMediaDescriptions()[0]);
+      assertEquals("trackID=2", media.getAttribute("control").getValue());
+      assertEquals(0, media.getBandwidth("AS").getValue());
+   }
+
+   @Test
+   public void testParseCompactSerializable() throws Exception
+   {
+      String sdp = load("/example.sdp");
+      SessionDescription compact = objectUnderTest.parseCompact(ByteBuffer.wrap(sdp.getBytes(UTF_8)));
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try(ObjectOutputStream oos = new ObjectOutputStream(out)) {
+         oos.writeObject(compact);
+      }
+      try(ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+         SessionDescription copy = (SessionDescription) ois.readObject();
+         assertEquals(objectUnderTest.parse(sdp), copy);
+         assertEquals(compact.getMediaDescriptions().length, copy.getMediaDescriptions().length);
+      }
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseCompactMediaOutOfOrder()
+   {
+      byte[] data = ("v=0\r\no=joe 1 2 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                        "m=audio 4000 RTP/AVP 0\r\na=recvonly\r\nc=IN IP4 10.0.0.2\r\n").getBytes(UTF_8);
+      objectUnderTest.parseCompact(data, 0, data.length);
+   }
+
+
+
+   @Test
+   public void testParseBoundedStreamDoesNotOverRead() throws Exception
+   {
+      String sdp = load("/example.sdp");
+      byte[] body = sdp.getBytes(UTF_8);
+      byte[] next = "RTSP/1.0 200 OK\r\n".getBytes(UTF_8);
+      byte[] data = Arrays.copyOf(body, body.length + next.length);
+      System.arraycopy(next, 0, data, body.length, next.length);
+      InputStream in = new ByteArrayInputStream(data);
+      assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(in, body.length));
+      assertEquals(next.length, in.available());
+      assertEquals('R', in.read());
+   }
+
+   @Test
+   public void testParseBoundedStreamSlowSource() throws Exception
+   {
+      final byte[] body = load("/example.sdp").getBytes(UTF_8);
+      InputStream in = new ByteArrayInputStream(body) {
+         @Override
+         public synchronized int read(byte[] b, int off, int len)
+         {
+            return super.read(b, off, Math.min(len, 3));
+         }
+      };
+      assertEquals(objectUnderTest.parse(body, 0, body.length), objectUnderTest.parse(in, body.length));
+   }
+
+   @Test(expected = EOFException.class)
+   public void testParseBoundedStreamTruncated() throws Exception
+   {
+      byte[] body = load("/example.sdp").getBytes(UTF_8);
+      objectUnderTest.parse(new ByteArrayInputStream(body, 0, body.length - 1), body.length);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParseBoundedStreamNegativeLength() throws Exception
+   {
+      objectUnderTest.parse(new ByteArrayInputStream(new byte[0]), -1);
+   }
+
+   @Test
+   public void testParseBoundedChannel() throws Exception
+   {
+      String sdp = load("/manheim.sdp");
+      byte[] body = sdp.getBytes(UTF_8);
+      byte[] data = Arrays.copyOf(body, body.length + 4);
+      ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(data));
+      assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(channel, body.length));
+      ByteBuffer rest = ByteBuffer.allocate(8);
+      assertEquals(4, channel.read(rest));
+   }
+
+   @Test
+   public void testParseBoundedReusesBuffer() throws Exception
+   {
+      byte[] large = load("/manheim.sdp").getBytes(UTF_8);
+      byte[] small = load("/minimal.sdp").getBytes(UTF_8);
+      objectUnderTest.parse(new ByteArrayInputStream(large), large.length);
+      assertEquals(objectUnderTest.parse(small, 0, small.length),
+                     objectUnderTest.parse(new ByteArrayInputStream(small), small.length));
+   }
+
+
+
+   @Test
+   public void testTryParsePath() throws Exception
+   {
+      ParseResult result = objectUnderTest.tryParse(path("/manheim.sdp"));
+      assertTrue(result.isSuccess());
+      assertEquals(objectUnderTest.parse(load("/manheim.sdp")), result.getDescription());
+   }
+
+   @Test
+   public void testTryParsePathUnreadable() throws Exception
+   {
+      ParseResult result = objectUnderTest.tryParse(path("/manheim.sdp").resolveSibling("missing.sdp"));
+      assertFalse(result.isSuccess());
+      assertEquals(ErrorCode.UNREADABLE, result.getError().getCode());
+   }
+
+   @Test
+   public void testTryParsePathLargerThanBuffer() throws Exception
+   {
+      Path file = Files.createTempFile("huge", ".sdp");
+      try {
+         // a sparse file, nothing is written to disk
+         try(RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(3L << 30);
+         }
+         ParseResult result = objectUnderTest.tryParse(file);
+         assertFalse(result.isSuccess());
+         assertEquals(ErrorCode.CONTENT_TOO_LARGE, result.getError().getCode());
+      } finally {
+         Files.delete(file);
+      }
+   }
+
+   @Test
+   public void testTryParsePathTooLarge() throws Exception
+   {
+      SessionParser parser = new SessionParser(ParserLimitsBuilder.create().setMaxBytes(64).build());
+      assertEquals(ErrorCode.CONTENT_TOO_LARGE, parser.tryParse(path("/manheim.sdp")).getError().getCode());
+   }
+
+   @Test
+   public void testParseAllStream() throws Exception
+   {
+      List<Path> paths = corpus();
+      List<ParseResult> results = objectUnderTest.parseAll(paths.stream()).collect(Collectors.toList());
+      assertResults(paths, results);
+   }
+
+   @Test
+   public void testParseAllExecutor() throws Exception
+   {
+      List<Path> paths = corpus();
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         assertResults(paths, objectUnderTest.parseAll(paths, executor));
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+
+
+   @Test
+   public void testParseParallel()
+   {
+      byte[] data = conference(400, "").getBytes(UTF_8);
+      SessionDescription desc = objectUnderTest.parseParallel(data, 0, data.length);
+      assertEquals(objectUnderTest.parse(data, 0, data.length), desc);
+      assertEquals(400, desc.getMediaDescriptions().length);
+      assertEquals(10798, desc.getMediaDescriptions()[399].getMedia().getPort());
+   }
+
+   @Test
+   public void testParseParallelSmall() throws Exception
+   {
+      byte[] data = load("/manheim.sdp").getBytes(UTF_8);
+      assertEquals(objectUnderTest.parse(data, 0, data.length), objectUnderTest.parseParallel(data, 0, data.length));
+   }
+
+   @Test
+   public void testParseParallelReportsFirstError()
+   {
+      byte[] data = conference(400, "b=AS:fast\r\n").getBytes(UTF_8);
+      ParseError expected = objectUnderTest.tryParse(data, 0, data.length).getError();
+      try {
+         objectUnderTest.parseParallel(data, 0, data.length);
+         fail("expected invalid bandwidth to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.INVALID_BANDWIDTH, e.getError().getCode());
+         assertEquals(expected.getLineNumber(), e.getError().getLineNumber());
+         assertEquals(expected.getOffset(), e.getError().getOffset());
+      }
+   }
+
+   @Test
+   public void testParseParallelMasked()
+   {
+      byte[] data = conference(400, "").getBytes(UTF_8);
+      SessionParser parser = new SessionParser(ParseMaskBuilder.create().setMediaTypes("video").setAttributeNames("mid").build());
+      SessionDescription desc = parser.parseParallel(data, 0, data.length);
+      assertEquals(parser.parse(data, 0, data.length), desc);
+      assertEquals(200, desc.getMediaDescriptions().length);
+      assertEquals(1, desc.getMediaDescriptions()[0].getAttributes().length);
+   }
+
+
+
+   private String conference(int count, String invalid)
+   {
+      StringBuilder buf = new StringBuilder("v=0\r\no=- 1 1 IN IP4 10.0.0.1\r\ns=conference\r\nt=0 0\r\n");
+      for(int i = 0; i < count; i++) {
+         buf.append("m=").append((i % 2 == 0) ? "audio" : "video").append(' ').append(10000 + i * 2).append(" RTP/AVP 96\r\n");
+         if(i == count / 2) buf.append(invalid);
+         buf.append("a=mid:").append(i).append("\r\n");
+         for(int j = 0; j < 4; j++) buf.append("a=ssrc:").append(i * 10 + j).append(" cname:conference-").append(j).append("\r\n");
+      }
+      return buf.toString();
+   }
+
+   @Test
+   public void testParseCharSequence() throws Exception
+   {
+      for(String name : new String[] { "/manheim.sdp", "/example.sdp", "/dual-repeat.sdp", "/key-base64.sdp" }) {
+         String sdp = load(name);
+         assertEquals(objectUnderTest.parse(sdp), objectUnderTest.parse(new StringBuilder(sdp)));
+      }
+   }
+
+   @Test
+   public void testParseCharBuffer() throws Exception
+   {
+      String sdp = load("/manheim.sdp");
+      SessionDescription expected = objectUnderTest.parse(sdp);
+
+      char[] chars = ("junk" + sdp + "\r\n\r\ntrailing").toCharArray();
+      CharBuffer heap = CharBuffer.wrap(chars, 4, chars.length - 4).slice();
+      assertEquals(expected, objectUnderTest.parse(heap));
+      assertEquals(0, heap.position());
+      assertEquals(chars.length - 4, heap.limit());
+
+      CharBuffer view = CharBuffer.wrap("xx" + sdp);
+      ((Buffer) view).position(2);
+      assertEquals(expected, objectUnderTest.parse(view));
+      assertEquals(2, view.position());
+   }
+
+   @Test
+   public void testParseCharSequenceHandler() throws Exception
+   {
+      final StringBuilder names = new StringBuilder();
+      objectUnderTest.parse(new StringBuilder(load("/manheim.sdp")), new SdpHandler() {
+         @Override
+         public void onSessionName(CharSequence name)
+         {
+            names.append(name);
+         }
+      });
+      assertEquals("RTSP server", names.toString());
+   }
+
+   @Test
+   public void testParseCharSequenceError()
+   {
+      try {
+         objectUnderTest.parse(new StringBuilder("v=0\r\no=- 1 1 IN IP4 0.0.0.0\r\ns=-\r\nt=0 x\r\n"));
+         fail("expected invalid time to be rejected");
+      } catch(SdpParseException e) {
+         assertEquals(ErrorCode.INVALID_TIME, e.getError().getCode());
+         assertEquals(4, e.getError().getLineNumber());
+         assertEquals(-1, e.getError().getOffset());
+      }
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testParseNullCharSequence()
+   {
+      objectUnderTest.parse((CharSequence) null);
+   }
+
+   private List<Path> corpus() throws Exception
+   {
+      List<Path> paths = new ArrayList<>();
+      for(int i = 0; i < 100; i++) {
+         paths.add(path("/manheim.sdp"));
+         paths.add(path("/invalid-field.sdp"));
+         paths.add(path("/minimal.sdp").resolveSibling("missing.sdp"));
+      }
+      return paths;
+   }
+
+   private void assertResults(List<Path> paths, List<ParseResult> results) throws Exception
+   {
+      SessionDescription expected = objectUnderTest.parse(load("/manheim.sdp"));
+      assertEquals(paths.size(), results.size());
+      for(int i = 0; i < results.size(); i += 3) {
+         assertEquals(expected, results.get(i).getDescription());
+         assertEquals(ErrorCode.UNKNOWN_FIELD, results.get(i + 1).getError().getCode());
+         assertEquals(ErrorCode.UNREADABLE, results.get(i + 2).getError().getCode());
+      }
+   }
+
+   private Path path(String name) throws Exception
+   {
+      return Paths.get(getClass().getResource(name).toURI());
+   }
+
    private String load(String name) throws IOException
    {
       return IOUtils.toString(getClass().getResource(name).openStream(), Charset.forName("UTF-8"), true);
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SessionStoreTest {
+
+   private final SessionParser parser = new SessionParser();
+
+
+   @Test
+   public void testPutGet()
+   {
+      SessionStore store = new SessionStore(parser);
+      SessionDescription desc = session(1, "first", 0);
+      assertFalse(store.put(1, desc));
+      assertEquals(desc, store.get(1));
+      assertTrue(store.contains(1));
+      assertEquals(1, store.size());
+      assertNull(store.get(2));
+      assertFalse(store.contains(2));
+   }
+
+   @Test
+   public void testReplace()
+   {
+      SessionStore store = new SessionStore(parser);
+      store.put(7, session(7, "first", 0));
+      assertTrue(store.put(7, session(7, "second", 0)));
+      assertEquals("second", store.get(7).getSessionName());
+      assertEquals(1, store.size());
+   }
+
+   @Test
+   public void testRemove()
+   {
+      SessionStore store = new SessionStore(parser);
+      store.put(3, session(3, "first", 0));
+      assertTrue(store.remove(3));
+      assertFalse(store.remove(3));
+      assertNull(store.get(3));
+      assertEquals(0, store.size());
+   }
+
+   @Test
+   public void testSlotsReused()
+   {
+      SessionStore store = new SessionStore(parser, 4096);
+      for(int i = 0; i < 10000; i++) {
+         store.put(i % 10, session(i, "session-" + i, 0));
+         if(i % 3 == 0) store.remove((i + 5) % 10);
+      }
+      assertEquals(4096, store.allocated());
+      assertEquals("session-9999", store.get(9).getSessionName());
+   }
+
+   @Test
+   public void testManyKeys()
+   {
+      SessionStore store = new SessionStore(parser);
+      for(long i = 0; i < 5000; i++) store.put(i * 1000003L, session(i, "s" + i, (int) (i % 4)));
+      assertEquals(5000, store.size());
+      for(long i = 0; i < 5000; i += 7) {
+         SessionDescription desc = store.get(i * 1000003L);
+         assertEquals("s" + i, desc.getSessionName());
+         assertEquals(i % 4, desc.getMediaDescriptions().length);
+      }
+   }
+
+   @Test
+   public void testHandler()
+   {
+      SessionStore store = new SessionStore(parser);
+      store.put(5, session(5, "named", 2));
+      final String[] name = new String[1];
+      final int[] medias = new int[1];
+      assertTrue(store.get(5, new SdpHandler() {
+         @Override public void onSessionName(CharSequence value) { name[0] = value.toString(); }
+         @Override public void onMediaStart(CharSequence type, int port, int portCount, CharSequence protocol, int[] formats) { medias[0]++; }
+      }));
+      assertEquals("named", name[0]);
+      assertEquals(2, medias[0]);
+      assertFalse(store.get(6, new SdpHandler() { }));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testTooLarge()
+   {
+      char[] value = new char[2000];
+      Arrays.fill(value, 'x');
+      new SessionStore(parser, 1024).put(1, session(1, new String(value), 0));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSmallArena()
+   {
+      new SessionStore(parser, 512);
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullParser()
+   {
+      new SessionStore(null);
+   }
+
+   @Test
+   public void testConcurrentReaders() throws Exception
+   {
+      final SessionStore store = new SessionStore(parser, 8192);
+      for(int i = 0; i < 64; i++) store.put(i, session(i, "v0", 1));
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         Future<?> writer = executor.submit(() -> {
+            for(int i = 0; i < 5000; i++) store.put(i % 64, session(i % 64, "v" + i, 1 + i % 3));
+         });
+         Future<?>[] readers = new Future<?>[3];
+         for(int r = 0; r < readers.length; r++) {
+            readers[r] = executor.submit(() -> {
+               for(int i = 0; i < 5000; i++) {
+                  SessionDescription desc = store.get(i % 64);
+                  assertEquals(Integer.toString(i % 64), desc.getOrigin().getSessionId());
+               }
+            });
+         }
+         writer.get(30, TimeUnit.SECONDS);
+         for(Future<?> reader : readers) reader.get(30, TimeUnit.SECONDS);
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+
+
+   private static SessionDescription session(long id, String name, int medias)
+   {
+      StringBuilder buf = new StringBuilder();
+      buf.append("v=0\r\no=- ").append(id).append(" 1 IN IP4 10.0.0.1\r\ns=").append(name).append("\r\nt=0 0\r\n");
+      for(int i = 0; i < medias; i++) buf.append("m=audio ").append(4000 + 2 * i).append(" RTP/AVP 0\r\na=ptime:20\r\n");
+      return new SessionParser().parse(buf.toString());
+   }
+
+}
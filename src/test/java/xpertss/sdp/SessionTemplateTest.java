@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionTemplateTest {
+
+   private static final String ANSWER = "v=0\r\no=- 1001 1 IN IP4 10.0.0.1\r\ns=-\r\nc=IN IP4 10.0.0.1\r\nt=0 0\r\n" +
+                                        "a=tool:gateway\r\n" +
+                                        "m=audio 4000 RTP/AVP 0 101\r\na=rtpmap:0 PCMU/8000\r\na=rtpmap:101 telephone-event/8000\r\na=ptime:20\r\n" +
+                                        "m=video 5000/2 RTP/AVP 31\r\nc=IN IP4 10.0.0.2\r\na=rtpmap:31 H261/90000\r\n";
+
+   private SessionParser parser = new SessionParser();
+   private SessionDescription answer;
+
+
+   @Before
+   public void setUp()
+   {
+      answer = parser.parse(ANSWER);
+   }
+
+
+   @Test
+   public void testDefaults()
+   {
+      SessionTemplate template = TemplateBuilder.create(answer).setSessionId("id").setSessionVersion("version")
+                                    .setPort(0, "audio").setAttributeValue(0, "rtpmap", "codec").build();
+      assertArrayEquals(new String[] { "id", "version", "audio", "codec" }, template.getSlotNames());
+      assertEquals(ANSWER, template.newRenderer().toString());
+      assertEquals(ANSWER.length(), template.newRenderer().length());
+   }
+
+   @Test
+   public void testRender()
+   {
+      SessionTemplate template = TemplateBuilder.create(answer)
+                                    .setSessionId("id").setSessionVersion("version")
+                                    .setOriginAddress("addr").setConnectionAddress("addr")
+                                    .setPort(0, "audio").setPort(1, "video")
+                                    .setConnectionAddress(1, "videoAddr")
+                                    .setAttributeValue("tool", "tool")
+                                    .setAttributeValue(0, "ptime", "ptime").build();
+      SessionTemplate.Renderer renderer = template.newRenderer();
+      renderer.set("id", 987654321L).set("version", 42).set("addr", "192.168.1.20").set("audio", 16384)
+              .set("video", 16386).set("videoAddr", "192.168.1.21").set("tool", "sbc 2.1").set("ptime", 30);
+
+      SessionDescription desc = parser.parse(renderer.toString());
+      assertEquals("987654321", desc.getOrigin().getSessionId());
+      assertEquals(42, desc.getOrigin().getSessionVersion());
+      assertEquals("192.168.1.20", desc.getOrigin().getAddress());
+      assertEquals("192.168.1.20", desc.getConnection().getAddress());
+      assertEquals("sbc 2.1", desc.getAttribute("tool").getValue());
+      MediaDescription audio = desc.getMediaDescriptions()[0];
+      assertEquals(16384, audio.getMedia().getPort());
+      assertEquals("30", audio.getAttribute("ptime").getValue());
+      MediaDescription video = desc.getMediaDescriptions()[1];
+      assertEquals(16386, video.getMedia().getPort());
+      assertEquals(2, video.getMedia().getPortCount());
+      assertEquals("192.168.1.21", video.getConnection().getAddress());
+   }
+
+   @Test
+   public void testReuse()
+   {
+      SessionTemplate template = TemplateBuilder.create(answer).setSessionId("id").setPort(0, "port").build();
+      SessionTemplate.Renderer renderer = template.newRenderer();
+      ByteBuffer buf = ByteBuffer.allocate(1024);
+      for(int i = 0; i < 3; i++) {
+         buf.clear();
+         renderer.set(0, "call" + i).set(1, 4000 + i * 2).writeTo(buf);
+         buf.flip();
+         SessionDescription desc = parser.parse(UTF_8.decode(buf).toString());
+         assertEquals("call" + i, desc.getOrigin().getSessionId());
+         assertEquals(4000 + i * 2, desc.getMediaDescriptions()[0].getMedia().getPort());
+      }
+      renderer.reset();
+      assertEquals(ANSWER, renderer.toString());
+   }
+
+   @Test
+   public void testBind()
+   {
+      SessionTemplate base = TemplateBuilder.create(answer).setSessionId("id").setConnectionAddress("addr")
+                                .setPort(0, "port").build();
+      SessionTemplate participant = base.bind("addr", "172.16.0.9");
+      assertArrayEquals(new String[] { "id", "port" }, participant.getSlotNames());
+      assertEquals(1, participant.slot("port"));
+      assertEquals(ANSWER.replace("c=IN IP4 10.0.0.1", "c=IN IP4 172.16.0.9"), participant.newRenderer().toString());
+
+      String rendered = participant.bind("port", 6000).newRenderer().set("id", "77").toString();
+      SessionDescription desc = parser.parse(rendered);
+      assertEquals("77", desc.getOrigin().getSessionId());
+      assertEquals("172.16.0.9", desc.getConnection().getAddress());
+      assertEquals(6000, desc.getMediaDescriptions()[0].getMedia().getPort());
+      assertEquals(ANSWER, base.newRenderer().toString());
+   }
+
+   @Test
+   public void testWriteTo() throws Exception
+   {
+      SessionTemplate.Renderer renderer = TemplateBuilder.create(answer).setSessionId("id").build().newRenderer();
+      renderer.set("id", "12345678901234567890");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      renderer.writeTo(out);
+      assertArrayEquals(renderer.toByteArray(), out.toByteArray());
+
+      ByteBuffer buf = ByteBuffer.allocate(renderer.length() - 1);
+      buf.put((byte) 'x');
+      try {
+         renderer.writeTo(buf);
+      } catch(BufferOverflowException e) {
+         assertEquals(1, buf.position());
+         return;
+      }
+      throw new AssertionError("expected overflow");
+   }
+
+   @Test
+   public void testUnicodeValue()
+   {
+      SessionTemplate.Renderer renderer = TemplateBuilder.create(answer).setAttributeValue("tool", "tool")
+                                             .build().newRenderer();
+      renderer.set("tool", "café ☺");
+      assertEquals("café ☺", parser.parse(renderer.toString()).getAttribute("tool").getValue());
+      assertEquals(ANSWER.length() - "gateway".length() + "café ☺".getBytes(UTF_8).length, renderer.length());
+   }
+
+   @Test
+   public void testNumeric()
+   {
+      SessionTemplate template = TemplateBuilder.create(answer).setSessionId("id").setPort(0, "port").build();
+      assertFalse(template.isNumeric(0));
+      assertTrue(template.isNumeric(1));
+   }
+
+
+
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testLineBreak()
+   {
+      TemplateBuilder.create(answer).setAttributeValue("tool", "tool").build().newRenderer().set("tool", "a\r\nb=c");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testSpaceInToken()
+   {
+      TemplateBuilder.create(answer).setConnectionAddress("addr").build().newRenderer().set("addr", "10.0.0.1 x");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testTextInNumericSlot()
+   {
+      TemplateBuilder.create(answer).setPort(0, "port").build().newRenderer().set("port", "4000");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNegative()
+   {
+      TemplateBuilder.create(answer).setPort(0, "port").build().newRenderer().set("port", -1);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testMixedSlotTypes()
+   {
+      TemplateBuilder.create(answer).setSessionId("x").setPort(0, "x").build();
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUnknownSlot()
+   {
+      TemplateBuilder.create(answer).setSessionId("id").build().newRenderer().set("port", 4000);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNoSuchMedia()
+   {
+      TemplateBuilder.create(answer).setPort(2, "port");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNoMediaConnection()
+   {
+      TemplateBuilder.create(answer).setConnectionAddress(0, "addr");
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNoSuchAttribute()
+   {
+      TemplateBuilder.create(answer).setAttributeValue(0, "fmtp", "fmtp");
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullDescription()
+   {
+      TemplateBuilder.create(null);
+   }
+
+}
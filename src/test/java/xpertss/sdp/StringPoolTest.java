@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/17/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class StringPoolTest {
+
+   private static final String SDP = "v=0\r\no=- 1 1 IN IP4 10.0.0.1\r\ns=-\r\nt=0 0\r\n" +
+                                     "a=tool:recorder\r\nm=audio 4000 RTP/AVP 0\r\na=rtpmap:0 PCMU/8000\r\n" +
+                                     "a=x-custom:value\r\n";
+
+
+   @Test
+   public void testDictionary()
+   {
+      StringPool pool = new StringPool();
+      assertSame(SdpConstants.RTPMAP, pool.intern(new StringBuilder("rtpmap")));
+      assertSame(SdpConstants.ADDRESS_TYPE_IP4, pool.intern(new StringBuilder("IP4")));
+      assertSame(pool.intern("0 PCMU/8000"), pool.intern(new StringBuilder("0 PCMU/8000")));
+   }
+
+   @Test
+   public void testCached()
+   {
+      StringPool pool = new StringPool();
+      String first = pool.intern(new StringBuilder("x-custom"));
+      assertEquals("x-custom", first);
+      assertSame(first, pool.intern(new StringBuilder("x-custom")));
+   }
+
+   @Test
+   public void testNotPooled()
+   {
+      StringPool pool = new StringPool();
+      String unicode = "café";
+      assertEquals(unicode, pool.intern(unicode));
+      assertNotSame(pool.intern(new StringBuilder(unicode)), pool.intern(new StringBuilder(unicode)));
+
+      char[] chars = new char[65];
+      Arrays.fill(chars, 'a');
+      String large = new String(chars);
+      assertNotSame(pool.intern(new StringBuilder(large)), pool.intern(new StringBuilder(large)));
+   }
+
+   @Test
+   public void testBounded()
+   {
+      StringPool pool = new StringPool(16);
+      assertEquals(16, pool.capacity());
+      for(int i = 0; i < 10000; i++) assertEquals("token" + i, pool.intern("token" + i));
+      assertEquals(16, new StringPool(9).capacity());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testZeroCapacity()
+   {
+      new StringPool(0);
+   }
+
+   @Test
+   public void testParserSharesTokens()
+   {
+      SessionParser parser = new SessionParser(new StringPool());
+      byte[] data = SDP.getBytes(StandardCharsets.UTF_8);
+      SessionDescription one = parser.parse(data, 0, data.length);
+      SessionDescription two = parser.parse(SDP);
+      MediaDescription first = one.getMediaDescriptions()[0];
+      MediaDescription second = two.getMediaDescriptions()[0];
+
+      assertSame(first.getMedia().getType(), second.getMedia().getType());
+      assertSame(first.getMedia().getProtocol(), second.getMedia().getProtocol());
+      assertSame(first.getAttribute("rtpmap").getValue(), second.getAttribute("rtpmap").getValue());
+      assertSame(first.getAttribute("x-custom").getName(), second.getAttribute("x-custom").getName());
+      assertSame(one.getOrigin().getNetworkType(), two.getOrigin().getNetworkType());
+      assertEquals(new SessionParser().parse(SDP), one);
+   }
+
+   @Test
+   public void testParserDefaultsToNone()
+   {
+      assertSame(Interner.NONE, new SessionParser().getInterner());
+      SessionDescription one = new SessionParser().parse(SDP);
+      SessionDescription two = new SessionParser().parse(SDP);
+      assertNotSame(one.getAttribute("tool").getName(), two.getAttribute("tool").getName());
+   }
+
+   @Test
+   public void testBuilders()
+   {
+      StringPool pool = new StringPool();
+      MediaDescription media = MediaBuilder.create().setInterner(pool)
+                                 .setMedia(new String("audio"), 4000, 1, new String("RTP/AVP"), 0)
+                                 .addAttribute(new String("rtpmap"), new String("0 PCMU/8000")).build();
+      assertSame(pool.intern("audio"), media.getMedia().getType());
+      assertSame(SdpConstants.RTPMAP, media.getAttribute("rtpmap").getName());
+      assertSame(pool.intern("0 PCMU/8000"), media.getAttribute("rtpmap").getValue());
+
+      SessionDescription session = SessionBuilder.create().setInterner(pool)
+                                      .addAttribute(new String("x-custom"), null).build();
+      assertSame(pool.intern("x-custom"), session.getAttribute("x-custom").getName());
+
+      Origin origin = OriginBuilder.create().setInterner(pool).setNetworkType(new String("IN")).build();
+      assertSame(SdpConstants.NETWORK_TYPE_INTERNET, origin.getNetworkType());
+   }
+
+   @Test(expected = NullPointerException.class)
+   public void testNullInterner()
+   {
+      MediaBuilder.create().setInterner(null);
+   }
+
+}
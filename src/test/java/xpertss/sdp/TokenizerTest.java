@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 XpertSoftware
+ *
+ * Created By: cfloersch
+ * Date: 10/16/2026
+ */
+package xpertss.sdp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenizerTest {
+
+   @Test
+   public void testTokenCountMatchesSplit()
+   {
+      String[] values = { "", " ", "  ", "a", " a", "a ", "a  b", " a b ", "\ta\tb", "a b c d e f" };
+      Tokenizer tokens = new Tokenizer();
+      for(String value : values) {
+         assertEquals("[" + value + "]", value.split("\\s+").length, tokens.reset("x=" + value, 2).count());
+      }
+   }
+
+   @Test
+   public void testTokenTextMatchesSplit()
+   {
+      String[] values = { "", " a", "a  b", " a b ", "jdoe 2890844526 2890842807 IN IP4 10.47.16.5" };
+      Tokenizer tokens = new Tokenizer();
+      for(String value : values) {
+         tokens.reset("x=" + value, 2);
+         for(String part : value.split("\\s+")) {
+            assertTrue(tokens.next());
+            assertEquals(part, tokens.token(0).toString());
+         }
+         assertFalse(tokens.next());
+      }
+   }
+
+   @Test
+   public void testCountDoesNotAdvance()
+   {
+      Tokenizer tokens = new Tokenizer().reset("m=audio 4000 RTP/AVP 0", 2);
+      assertTrue(tokens.next());
+      assertEquals(4, tokens.count());
+      assertEquals("audio", tokens.token(0).toString());
+      assertTrue(tokens.next());
+      assertEquals("4000", tokens.token(0).toString());
+   }
+
+   @Test
+   public void testParseInt()
+   {
+      String[] values = { "0", "5", "+5", "-5", "00012", "2147483647", "-2147483648" };
+      for(String value : values) {
+         assertEquals(Integer.parseInt(value), Tokenizer.parseInt(value, 0, value.length(), -1));
+      }
+      String[] invalid = { "", "+", "-", " 5", "5 ", "5x", "0x10", "2147483648", "-2147483649" };
+      for(String value : invalid) {
+         assertEquals(value, -1, Tokenizer.parseInt(value, 0, value.length(), -1));
+      }
+   }
+
+   @Test
+   public void testParseLong()
+   {
+      String[] values = { "0", "2890842807", "-1", "9223372036854775807", "-9223372036854775808" };
+      for(String value : values) {
+         assertEquals(Long.parseLong(value), Tokenizer.parseLong(value, 0, value.length(), -1));
+      }
+      String[] invalid = { "", "+", "1f34", "9223372036854775808", "99999999999999999999" };
+      for(String value : invalid) {
+         assertEquals(value, -1, Tokenizer.parseLong(value, 0, value.length(), -1));
+      }
+   }
+
+   @Test
+   public void testParseRange()
+   {
+      assertEquals(4000, Tokenizer.parseInt("4000/2", 0, 4, -1));
+      assertEquals(2, Tokenizer.parseInt("4000/2", 5, 6, -1));
+   }
+
+   @Test
+   public void testParseCompactTime()
+   {
+      assertEquals(86400, Tokenizer.parseCompactTime("1d", 0, 2));
+      assertEquals(-3600, Tokenizer.parseCompactTime("-1h", 0, 3));
+      assertEquals(1800, Tokenizer.parseCompactTime("30m", 0, 3));
+      assertEquals(10, Tokenizer.parseCompactTime("10s", 0, 3));
+      assertEquals(90000, Tokenizer.parseCompactTime("90000", 0, 5));
+      assertEquals(Long.MIN_VALUE, Tokenizer.parseCompactTime("-9223372036854775808", 0, 20));
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseCompactTimeUnknownUnit()
+   {
+      Tokenizer.parseCompactTime("5x", 0, 2);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseCompactTimeInvalidNumber()
+   {
+      Tokenizer.parseCompactTime("1f4h", 0, 4);
+   }
+
+   @Test(expected = SdpParseException.class)
+   public void testParseCompactTimeEmpty()
+   {
+      Tokenizer.parseCompactTime("", 0, 0);
+   }
+
+   @Test
+   public void testIsCompactTime()
+   {
+      assertTrue(Tokenizer.isCompactTime("1d", 0, 2));
+      assertTrue(Tokenizer.isCompactTime("-1h", 0, 3));
+      assertTrue(Tokenizer.isCompactTime("-9223372036854775808", 0, 20));
+      assertFalse(Tokenizer.isCompactTime("5x", 0, 2));
+      assertFalse(Tokenizer.isCompactTime("1f4h", 0, 4));
+      assertFalse(Tokenizer.isCompactTime("h", 0, 1));
+      assertFalse(Tokenizer.isCompactTime("", 0, 0));
+   }
+
+}